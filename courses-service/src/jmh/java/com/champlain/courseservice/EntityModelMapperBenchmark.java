@@ -0,0 +1,44 @@
+package com.champlain.courseservice;
+
+import com.champlain.courseservice.dataaccesslayer.Course;
+import com.champlain.courseservice.mapper.EntityModelMapper;
+import com.champlain.courseservice.presentationlayer.CourseRequestModel;
+import com.champlain.courseservice.presentationlayer.CourseResponseModel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.UUID;
+
+@State(Scope.Benchmark)
+public class EntityModelMapperBenchmark {
+
+    private Course course;
+    private CourseRequestModel courseRequestModel;
+
+    @Setup
+    public void setUp() {
+        course = Course.builder()
+                .id(1)
+                .courseId(UUID.randomUUID().toString())
+                .courseNumber("cat-420")
+                .courseName("Web Services")
+                .numHours(45)
+                .numCredits(3.0)
+                .department("Computer Science")
+                .build();
+        courseRequestModel = new CourseRequestModel("cat-420", "Web Services", 45, 3.0, "Computer Science", 30);
+    }
+
+    @Benchmark
+    public CourseResponseModel toModel() {
+        return EntityModelMapper.toModel(course);
+    }
+
+    //includes the UUID generated for every new course
+    @Benchmark
+    public Course toEntity() {
+        return EntityModelMapper.toEntity(courseRequestModel);
+    }
+}
@@ -0,0 +1,38 @@
+package com.champlain.courseservice;
+
+import com.champlain.courseservice.presentationlayer.CourseResponseModel;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.UUID;
+
+//same ObjectMapper defaults as the ones spring boot configures for the webflux codecs
+@State(Scope.Benchmark)
+public class JsonCodecBenchmark {
+
+    private ObjectMapper mapper;
+    private CourseResponseModel course;
+    private byte[] courseJson;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        mapper = Jackson2ObjectMapperBuilder.json().build();
+        course = new CourseResponseModel(UUID.randomUUID().toString(), "cat-420", "Web Services", 45, 3.0, "Computer Science", 30);
+        courseJson = mapper.writeValueAsBytes(course);
+    }
+
+    @Benchmark
+    public byte[] encodeCourse() throws JsonProcessingException {
+        return mapper.writeValueAsBytes(course);
+    }
+
+    @Benchmark
+    public CourseResponseModel decodeCourse() throws Exception {
+        return mapper.readValue(courseJson, CourseResponseModel.class);
+    }
+}
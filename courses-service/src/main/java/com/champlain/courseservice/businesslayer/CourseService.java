@@ -6,9 +6,17 @@ import com.champlain.courseservice.presentationlayer.CourseResponseModel;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
 public interface CourseService {
     Flux<CourseResponseModel> getCourses();
     Mono<CourseResponseModel> getCourseByCourseId(String courseId);
+    Flux<CourseResponseModel> getCoursesByCourseIds(Collection<String> courseIds);
+    Flux<Map<String, Object>> getCourseFields(List<String> fields);
+    Mono<Map<String, Object>> getCourseFieldsByCourseId(String courseId, List<String> fields);
+    Flux<Map<String, Object>> getCourseFieldsByCourseIds(Collection<String> courseIds, List<String> fields);
     Mono<CourseResponseModel> addCourse(Mono<CourseRequestModel> course);
     Mono<CourseResponseModel> updateCourse(Mono<CourseRequestModel> courseRequestModel, String courseId);
     Mono<CourseResponseModel> deleteCourse(String courseId);
@@ -1,6 +1,9 @@
 package com.champlain.courseservice.businesslayer;
 
+import com.champlain.courseservice.dataaccesslayer.Course;
 import com.champlain.courseservice.dataaccesslayer.CourseRepository;
+import com.champlain.courseservice.domainclientlayer.CourseChangeModel;
+import com.champlain.courseservice.domainclientlayer.EnrollmentServiceClient;
 import com.champlain.courseservice.mapper.EntityModelMapper;
 import com.champlain.courseservice.presentationlayer.CourseRequestModel;
 import com.champlain.courseservice.presentationlayer.CourseResponseModel;
@@ -9,6 +12,12 @@ import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
 @Service
 @Slf4j
 
@@ -16,8 +25,11 @@ public class CourseServiceImpl implements CourseService {
 
     private final CourseRepository courseRepository;
 
-    public CourseServiceImpl(CourseRepository courseRepository) {
+    private final EnrollmentServiceClient enrollmentClient;
+
+    public CourseServiceImpl(CourseRepository courseRepository, EnrollmentServiceClient enrollmentClient) {
         this.courseRepository = courseRepository;
+        this.enrollmentClient = enrollmentClient;
     }
 
     @Override
@@ -33,6 +45,27 @@ public class CourseServiceImpl implements CourseService {
                 .map(EntityModelMapper::toModel);
     }
 
+    @Override
+    public Flux<CourseResponseModel> getCoursesByCourseIds(Collection<String> courseIds) {
+        return courseRepository.findCoursesByCourseIds(courseIds.toArray(String[]::new))
+                .map(EntityModelMapper::toModel);
+    }
+
+    @Override
+    public Flux<Map<String, Object>> getCourseFields(List<String> fields) {
+        return courseRepository.findAllFields(fields);
+    }
+
+    @Override
+    public Mono<Map<String, Object>> getCourseFieldsByCourseId(String courseId, List<String> fields) {
+        return courseRepository.findFieldsByCourseId(courseId, fields);
+    }
+
+    @Override
+    public Flux<Map<String, Object>> getCourseFieldsByCourseIds(Collection<String> courseIds, List<String> fields) {
+        return courseRepository.findFieldsByCourseIds(courseIds.toArray(String[]::new), fields);
+    }
+
     @Override
     public Mono<CourseResponseModel> addCourse(Mono<CourseRequestModel> course) {
         return course
@@ -48,12 +81,23 @@ public class CourseServiceImpl implements CourseService {
                         .map(EntityModelMapper::toEntity)
                         .doOnNext(e -> e.setCourseId(courseId))
                         .doOnNext(e -> e.setId(found.getId()))
+                        .flatMap(courseRepository::save)
+                        .doOnNext(saved -> publishIfChanged(found, saved))
                 )
-                .flatMap(courseRepository::save)
                 .map(EntityModelMapper::toModel);
 
     }
 
+    // enrollments keep their own copy of the course number and name and size the seats on the capacity, only a change to those is sent
+    private void publishIfChanged(Course before, Course after) {
+        if (!Objects.equals(before.getCourseNumber(), after.getCourseNumber())
+                || !Objects.equals(before.getCourseName(), after.getCourseName())
+                || !Objects.equals(before.getCapacity(), after.getCapacity())) {
+            enrollmentClient.publishCourseChange(after.getCourseId(),
+                    new CourseChangeModel(after.getCourseNumber(), after.getCourseName(), after.getCapacity(), Instant.now()));
+        }
+    }
+
     @Override
     public Mono<CourseResponseModel> deleteCourse(String courseId) {
         return courseRepository.findCourseByCourseId(courseId)
@@ -22,6 +22,8 @@ public class Course {
     private Integer numHours;
     private Double numCredits;
     private String department;
+    //seats per term, null for no limit
+    private Integer capacity;
 
 }
 
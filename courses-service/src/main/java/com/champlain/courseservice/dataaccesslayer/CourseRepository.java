@@ -1,12 +1,18 @@
 package com.champlain.courseservice.dataaccesslayer;
 
+import org.springframework.data.r2dbc.repository.Query;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.data.repository.reactive.ReactiveCrudRepository;
 import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 @Repository
-public interface CourseRepository extends ReactiveCrudRepository<Course,Integer> {
+public interface CourseRepository extends ReactiveCrudRepository<Course,Integer>, CourseRepositoryCustom {
 
     Mono<Course> findCourseByCourseId(String courseId);
+
+    //binds the ids as a single array parameter so the statement stays the same whatever the number of ids
+    @Query("SELECT * FROM courses WHERE course_id = ANY(:courseIds)")
+    Flux<Course> findCoursesByCourseIds(String[] courseIds);
 }
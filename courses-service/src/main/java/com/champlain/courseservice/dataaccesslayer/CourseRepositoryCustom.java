@@ -0,0 +1,17 @@
+package com.champlain.courseservice.dataaccesslayer;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+import java.util.Map;
+
+//reads only the requested Course properties, each row comes back as property name -> value in the order asked for
+public interface CourseRepositoryCustom {
+
+    Flux<Map<String, Object>> findAllFields(Collection<String> fields);
+
+    Mono<Map<String, Object>> findFieldsByCourseId(String courseId, Collection<String> fields);
+
+    Flux<Map<String, Object>> findFieldsByCourseIds(String[] courseIds, Collection<String> fields);
+}
@@ -0,0 +1,86 @@
+package com.champlain.courseservice.dataaccesslayer;
+
+import io.r2dbc.spi.Readable;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.data.r2dbc.convert.R2dbcConverter;
+import org.springframework.data.relational.core.mapping.RelationalPersistentEntity;
+import org.springframework.data.relational.core.mapping.RelationalPersistentProperty;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/*
+   The select list is narrowed to the requested columns and each row is copied straight into a map,
+   so no Course is built for a partial read. Column names come from the Course mapping, the property
+   names are checked against it before any sql is written.
+ */
+public class CourseRepositoryCustomImpl implements CourseRepositoryCustom {
+
+    private final DatabaseClient databaseClient;
+    private final RelationalPersistentEntity<?> courseEntity;
+    private final ConversionService conversionService;
+
+    public CourseRepositoryCustomImpl(DatabaseClient databaseClient, R2dbcConverter converter) {
+        this.databaseClient = databaseClient;
+        this.courseEntity = converter.getMappingContext().getRequiredPersistentEntity(Course.class);
+        this.conversionService = converter.getConversionService();
+    }
+
+    @Override
+    public Flux<Map<String, Object>> findAllFields(Collection<String> fields) {
+        List<RelationalPersistentProperty> properties = properties(fields);
+        return databaseClient.sql(select(properties))
+                .map(row -> toFields(row, properties))
+                .all();
+    }
+
+    @Override
+    public Mono<Map<String, Object>> findFieldsByCourseId(String courseId, Collection<String> fields) {
+        List<RelationalPersistentProperty> properties = properties(fields);
+        return databaseClient.sql(select(properties) + " WHERE course_id = :courseId")
+                .bind("courseId", courseId)
+                .map(row -> toFields(row, properties))
+                .one();
+    }
+
+    @Override
+    public Flux<Map<String, Object>> findFieldsByCourseIds(String[] courseIds, Collection<String> fields) {
+        List<RelationalPersistentProperty> properties = properties(fields);
+        return databaseClient.sql(select(properties) + " WHERE course_id = ANY(:courseIds)")
+                .bind("courseIds", courseIds)
+                .map(row -> toFields(row, properties))
+                .all();
+    }
+
+    private List<RelationalPersistentProperty> properties(Collection<String> fields) {
+        if (fields.isEmpty()) {
+            throw new IllegalArgumentException("At least one field is required");
+        }
+        return fields.stream()
+                .map(courseEntity::getRequiredPersistentProperty)
+                .toList();
+    }
+
+    private String select(List<RelationalPersistentProperty> properties) {
+        return properties.stream()
+                .map(property -> property.getColumnName().getReference())
+                .collect(Collectors.joining(", ", "SELECT ", " FROM " + courseEntity.getTableName().getReference()));
+    }
+
+    //drivers return their own column types (SMALLINT as Short, DECIMAL as BigDecimal), converted to the Course property types
+    private Map<String, Object> toFields(Readable row, List<RelationalPersistentProperty> properties) {
+        Map<String, Object> fields = new LinkedHashMap<>(properties.size() * 2);
+        for (int i = 0; i < properties.size(); i++) {
+            RelationalPersistentProperty property = properties.get(i);
+            Object value = row.get(i);
+            fields.put(property.getName(), value == null ? null : conversionService.convert(value, property.getType()));
+        }
+        return fields;
+    }
+}
@@ -0,0 +1,13 @@
+package com.champlain.courseservice.domainclientlayer;
+
+import java.time.Instant;
+
+//the course fields enrollments-service keeps a copy of on every enrollment, and the capacity its seats come from.
+//changedAt lets enrollments-service drop a change that arrives after a newer one, e.g. a retried notification
+public record CourseChangeModel(
+        String courseNumber,
+        String courseName,
+        Integer capacity,
+        Instant changedAt
+) {
+}
@@ -0,0 +1,68 @@
+package com.champlain.courseservice.domainclientlayer;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+
+/*
+   Enrollments copy the course number and name, so a rename is pushed to enrollments-service,
+   which rewrites those copies in the background and answers 202 right away.
+   The notification is fire and forget: the course update never waits on or fails because of it,
+   a failed notification is retried a few times and then only logged.
+   Only failures that may pass on a second try are retried: a 5xx, a timeout or a connection error.
+   A retry can land after a newer change was sent, the changedAt it carries lets enrollments-service drop it.
+ */
+@Slf4j
+@Component
+public class EnrollmentServiceClient {
+
+    private static final int MAX_RETRIES = 3;
+    private static final Duration FIRST_BACKOFF = Duration.ofMillis(500);
+
+    private final WebClient webClient;
+    private final boolean enabled;
+    private final Duration timeout;
+
+    public EnrollmentServiceClient(WebClient.Builder webClientBuilder,
+                                   @Value("${app.enrollments-service.host:localhost}") String host,
+                                   @Value("${app.enrollments-service.port:7001}") int port,
+                                   @Value("${app.enrollments-service.timeout:2s}") Duration timeout,
+                                   @Value("${app.enrollments-service.notify-changes:true}") boolean enabled) {
+        this.webClient = webClientBuilder
+                .baseUrl("http://" + host + ":" + port + "/api/v1/enrollments/propagation")
+                .build();
+        this.timeout = timeout;
+        this.enabled = enabled;
+    }
+
+    public void publishCourseChange(String courseId, CourseChangeModel change) {
+        if (!enabled) {
+            return;
+        }
+        webClient.post()
+                .uri("/courses/{courseId}", courseId)
+                .bodyValue(change)
+                .retrieve()
+                .toBodilessEntity()
+                .timeout(timeout)
+                .retryWhen(Retry.backoff(MAX_RETRIES, FIRST_BACKOFF).filter(EnrollmentServiceClient::isRetryable))
+                .subscribe(
+                        response -> log.debug("Course change {} sent to enrollments-service", courseId),
+                        ex -> log.warn("Course change {} could not be sent to enrollments-service: {}", courseId, ex.getMessage())
+                );
+    }
+
+    // a 4xx would fail the same way every time
+    static boolean isRetryable(Throwable ex) {
+        return ex instanceof WebClientResponseException response && response.getStatusCode().is5xxServerError()
+                || ex instanceof TimeoutException
+                || ex instanceof WebClientRequestException;
+    }
+}
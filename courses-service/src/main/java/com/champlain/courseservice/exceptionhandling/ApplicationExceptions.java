@@ -5,6 +5,8 @@ import com.champlain.courseservice.exceptionhandling.exceptions.InvalidCourseIdE
 import com.champlain.courseservice.exceptionhandling.exceptions.InvalidInputException;
 import reactor.core.publisher.Mono;
 
+import java.util.Collection;
+
 public class ApplicationExceptions {
 
     public static <T> Mono<T> courseNotFound(String courseId) {
@@ -27,6 +29,18 @@ public class ApplicationExceptions {
         return Mono.error(new InvalidInputException("Course hours must be greater than 0"));
     }
 
+    public static <T> Mono<T> invalidCourseCapacity() {
+        return Mono.error(new InvalidInputException("Course capacity must be greater than 0"));
+    }
+
+    public static <T> Mono<T> tooManyCourseIds(int maxCourseIds) {
+        return Mono.error(new InvalidInputException("At most " + maxCourseIds + " course ids can be requested at once"));
+    }
+
+    public static <T> Mono<T> invalidFields(Collection<String> fields, Collection<String> allowedFields) {
+        return Mono.error(new InvalidInputException("Fields " + fields + " are not valid, allowed fields are " + allowedFields));
+    }
+
     public static <T> Mono<T> invalidCourseId(String courseId) {
         return Mono.error(new InvalidCourseIdException(courseId));
     }
@@ -14,7 +14,8 @@ public class EntityModelMapper {
                 course.getCourseName(),
                 course.getNumHours(),
                 course.getNumCredits(),
-                course.getDepartment()
+                course.getDepartment(),
+                course.getCapacity()
         );
     }
 
@@ -26,6 +27,7 @@ public class EntityModelMapper {
         course.setNumHours(courseRequestModel.numHours());
         course.setNumCredits(courseRequestModel.numCredits());
         course.setDepartment(courseRequestModel.department());
+        course.setCapacity(courseRequestModel.capacity());
         return course;
     }
 
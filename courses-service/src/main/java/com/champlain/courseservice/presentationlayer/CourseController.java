@@ -11,10 +11,16 @@ import org.springframework.web.bind.annotation.*;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.List;
+import java.util.Map;
+
 @RestController
 @RequestMapping("api/v1/courses")
 @Slf4j
 public class CourseController {
+    //upper bound on the course ids resolved by a single multi-id lookup
+    public static final int MAX_COURSE_IDS = 1000;
+
     private final CourseService courseService;
 
     public CourseController(final CourseService courseService) {
@@ -29,6 +35,50 @@ public class CourseController {
         return courseService.getCourses();
     }
 
+    @GetMapping(
+            value = "",
+            params = "ids",
+            produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE}
+    )
+    public Flux<CourseResponseModel> getCoursesByCourseIds(@RequestParam List<String> ids) {
+        return validateCourseIds(ids)
+                .flatMapMany(courseService::getCoursesByCourseIds);
+    }
+
+    // ?fields=courseId,courseName reads and returns only those properties, see CourseResponseModel.FIELDS
+    @GetMapping(
+            value = "",
+            params = {"fields", "!ids"},
+            produces = MediaType.TEXT_EVENT_STREAM_VALUE
+    )
+    public Flux<Map<String, Object>> getCourseFields(@RequestParam List<String> fields) {
+        return validateFields(fields)
+                .flatMapMany(courseService::getCourseFields);
+    }
+
+    @GetMapping(
+            value = "",
+            params = {"ids", "fields"},
+            produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE}
+    )
+    public Flux<Map<String, Object>> getCourseFieldsByCourseIds(@RequestParam List<String> ids, @RequestParam List<String> fields) {
+        return validateFields(fields)
+                .flatMapMany(validFields -> validateCourseIds(ids)
+                        .flatMapMany(validIds -> courseService.getCourseFieldsByCourseIds(validIds, validFields)));
+    }
+
+    //same lookup as ?ids= for lists too long to fit in a url
+    @PostMapping(
+            value = "batch",
+            consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE}
+    )
+    public Flux<CourseResponseModel> getCoursesByCourseIdsBatch(@RequestBody Mono<List<String>> courseIds) {
+        return courseIds
+                .flatMap(this::validateCourseIds)
+                .flatMapMany(courseService::getCoursesByCourseIds);
+    }
+
     @GetMapping("{courseId}")
     public Mono<ResponseEntity<CourseResponseModel>> getCourseByCourseId(@PathVariable String courseId) {
         return Mono.just(courseId)
@@ -39,6 +89,17 @@ public class CourseController {
                 .switchIfEmpty(ApplicationExceptions.courseNotFound(courseId));
     }
 
+    @GetMapping(value = "{courseId}", params = "fields")
+    public Mono<ResponseEntity<Map<String, Object>>> getCourseFieldsByCourseId(@PathVariable String courseId, @RequestParam List<String> fields) {
+        return Mono.just(courseId)
+                .filter(id -> id.length() == 36)
+                .switchIfEmpty(ApplicationExceptions.invalidCourseId(courseId))
+                .flatMap(validId -> validateFields(fields)
+                        .flatMap(validFields -> courseService.getCourseFieldsByCourseId(validId, validFields)))
+                .map(ResponseEntity::ok)
+                .switchIfEmpty(ApplicationExceptions.courseNotFound(courseId));
+    }
+
     @PostMapping()
     public Mono<ResponseEntity<CourseResponseModel>> addCourse(@RequestBody Mono<CourseRequestModel> courseRequestModel) {
         return courseRequestModel.transform(RequestValidator.validateBody())
@@ -71,4 +132,25 @@ public class CourseController {
                 .map(ResponseEntity::ok)
                 .switchIfEmpty(ApplicationExceptions.courseNotFound(courseId));
     }
+
+    private Mono<List<String>> validateCourseIds(List<String> courseIds) {
+        return Flux.fromIterable(courseIds)
+                .concatMap(courseId -> Mono.just(courseId)
+                        .filter(id -> id.length() == 36)
+                        .switchIfEmpty(ApplicationExceptions.invalidCourseId(courseId)))
+                .distinct()
+                .collectList()
+                .filter(ids -> ids.size() <= MAX_COURSE_IDS)
+                .switchIfEmpty(ApplicationExceptions.tooManyCourseIds(MAX_COURSE_IDS));
+    }
+
+    private Mono<List<String>> validateFields(List<String> fields) {
+        List<String> unknownFields = fields.stream()
+                .filter(field -> !CourseResponseModel.FIELDS.contains(field))
+                .toList();
+        if (fields.isEmpty() || !unknownFields.isEmpty()) {
+            return ApplicationExceptions.invalidFields(unknownFields, CourseResponseModel.FIELDS);
+        }
+        return Mono.just(fields.stream().distinct().toList());
+    }
 }
@@ -4,5 +4,6 @@ public record CourseRequestModel(String courseNumber,
                                  String courseName,
                                  Integer numHours,
                                  Double numCredits,
-                                 String department) {
+                                 String department,
+                                 Integer capacity) {
 }
@@ -1,9 +1,19 @@
 package com.champlain.courseservice.presentationlayer;
 
+import java.lang.reflect.RecordComponent;
+import java.util.Arrays;
+import java.util.List;
+
 public record CourseResponseModel(String courseId,
                                   String courseNumber,
                                   String courseName,
                                   Integer numHours,
                                   Double numCredits,
-                                  String department) {
+                                  String department,
+                                  Integer capacity) {
+
+    //what ?fields= may ask for, in declaration order
+    public static final List<String> FIELDS = Arrays.stream(CourseResponseModel.class.getRecordComponents())
+            .map(RecordComponent::getName)
+            .toList();
 }
@@ -19,7 +19,9 @@ public class RequestValidator {
                 .filter(hasValidCredits())
                 .switchIfEmpty(ApplicationExceptions.invalidCourseCredits())
                 .filter(hasValidHours())
-                .switchIfEmpty(ApplicationExceptions.invalidCourseHours());
+                .switchIfEmpty(ApplicationExceptions.invalidCourseHours())
+                .filter(hasValidCapacity())
+                .switchIfEmpty(ApplicationExceptions.invalidCourseCapacity());
 
     }
 
@@ -41,4 +43,10 @@ public class RequestValidator {
         return courseRequestModel -> Objects.nonNull(courseRequestModel.numHours())
                 && (courseRequestModel.numHours() > 0);
     }
+
+    // no capacity means no seat limit
+    private static Predicate<CourseRequestModel> hasValidCapacity() {
+        return courseRequestModel -> Objects.isNull(courseRequestModel.capacity())
+                || (courseRequestModel.capacity() > 0);
+    }
 }
\ No newline at end of file
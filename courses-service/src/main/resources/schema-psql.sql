@@ -8,5 +8,9 @@ CREATE TABLE IF NOT EXISTS courses (
     num_hours SMALLINT,
     num_credits DECIMAL(19,2),
     department VARCHAR(50),
+    capacity INTEGER,
     PRIMARY KEY (id)
-);
\ No newline at end of file
+);
+
+-- databases created before courses had a capacity
+ALTER TABLE courses ADD COLUMN IF NOT EXISTS capacity INTEGER;
@@ -2,11 +2,14 @@ package com.champlain.courseservice.businesslayer;
 
 import com.champlain.courseservice.dataaccesslayer.Course;
 import com.champlain.courseservice.dataaccesslayer.CourseRepository;
+import com.champlain.courseservice.domainclientlayer.CourseChangeModel;
+import com.champlain.courseservice.domainclientlayer.EnrollmentServiceClient;
 import com.champlain.courseservice.mapper.EntityModelMapper;
 import com.champlain.courseservice.presentationlayer.CourseRequestModel;
 import com.champlain.courseservice.presentationlayer.CourseResponseModel;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -18,6 +21,10 @@ import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -27,6 +34,8 @@ class CourseServiceUnitTest {
     private CourseServiceImpl courseService;
     @Mock
     private CourseRepository courseRepository;
+    @Mock
+    private EnrollmentServiceClient enrollmentClient;
 
     String courseId01 = UUID.randomUUID().toString();
     String courseId02 = UUID.randomUUID().toString();
@@ -131,7 +140,8 @@ class CourseServiceUnitTest {
                 course1.getCourseName(),
                 course1.getNumHours(),
                 course1.getNumCredits(),
-                course1.getDepartment()
+                course1.getDepartment(),
+                course1.getCapacity()
         );
 
         when(courseRepository.save(any(Course.class)))
@@ -162,7 +172,8 @@ class CourseServiceUnitTest {
                 "Java 01",
                 45,
                 3.0,
-                "Computer Science"
+                "Computer Science",
+                null
         );
 
         when(courseRepository.findCourseByCourseId(courseId01))
@@ -189,6 +200,65 @@ class CourseServiceUnitTest {
                     return true;
                 })
                 .verifyComplete();
+
+        ArgumentCaptor<CourseChangeModel> change = ArgumentCaptor.forClass(CourseChangeModel.class);
+        verify(enrollmentClient).publishCourseChange(eq(courseId01), change.capture());
+        assertEquals("jav-999", change.getValue().courseNumber());
+        assertEquals("Java 01", change.getValue().courseName());
+        assertNull(change.getValue().capacity());
+        assertNotNull(change.getValue().changedAt());
+    }
+
+    @Test
+    public void whenUpdateCourse_withSameNumberNameAndCapacity_thenDoNotPublishChange() {
+        CourseRequestModel request = new CourseRequestModel(
+                course1.getCourseNumber(),
+                course1.getCourseName(),
+                60,
+                4.0,
+                "Computer Science",
+                course1.getCapacity()
+        );
+
+        when(courseRepository.findCourseByCourseId(courseId01))
+                .thenReturn(Mono.just(course1));
+
+        when(courseRepository.save(any(Course.class)))
+                .thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+
+        StepVerifier.create(courseService.updateCourse(Mono.just(request), courseId01))
+                .expectNextMatches(courseResponseModel -> courseResponseModel.numHours() == 60)
+                .verifyComplete();
+
+        verify(enrollmentClient, never()).publishCourseChange(anyString(), any(CourseChangeModel.class));
+    }
+
+    @Test
+    public void whenUpdateCourse_withNewCapacityOnly_thenPublishChange() {
+        CourseRequestModel request = new CourseRequestModel(
+                course1.getCourseNumber(),
+                course1.getCourseName(),
+                course1.getNumHours(),
+                course1.getNumCredits(),
+                course1.getDepartment(),
+                40
+        );
+
+        when(courseRepository.findCourseByCourseId(courseId01))
+                .thenReturn(Mono.just(course1));
+
+        when(courseRepository.save(any(Course.class)))
+                .thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+
+        StepVerifier.create(courseService.updateCourse(Mono.just(request), courseId01))
+                .expectNextMatches(courseResponseModel -> courseResponseModel.capacity() == 40)
+                .verifyComplete();
+
+        ArgumentCaptor<CourseChangeModel> change = ArgumentCaptor.forClass(CourseChangeModel.class);
+        verify(enrollmentClient).publishCourseChange(eq(courseId01), change.capture());
+        assertEquals(course1.getCourseNumber(), change.getValue().courseNumber());
+        assertEquals(course1.getCourseName(), change.getValue().courseName());
+        assertEquals(40, change.getValue().capacity());
     }
 
     @Test
@@ -233,7 +303,8 @@ class CourseServiceUnitTest {
                 "Updated Course",
                 45,
                 3.0,
-                "Computer Science"
+                "Computer Science",
+                null
         );
 
         when(courseRepository.findCourseByCourseId(nonExistingCourseId))
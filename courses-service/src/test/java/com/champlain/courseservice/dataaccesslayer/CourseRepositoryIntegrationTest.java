@@ -11,6 +11,8 @@ import org.springframework.dao.DuplicateKeyException;
 import org.springframework.test.context.ActiveProfiles;
 import reactor.test.StepVerifier;
 
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -73,6 +75,80 @@ class CourseRepositoryIntegrationTest {
 
     }
 
+    @Test
+    public void whenFindCoursesByCourseIds_thenReturnOnlyMatchingCourses() {
+        //arrange
+        String courseId1 = UUID.randomUUID().toString();
+        String courseId2 = UUID.randomUUID().toString();
+        Course course1 = Course.builder()
+                .courseId(courseId1)
+                .courseNumber("cat-420")
+                .courseName("Web-Services")
+                .numHours(45)
+                .numCredits(3.0)
+                .department("Computer Science")
+                .build();
+        Course course2 = Course.builder()
+                .courseId(courseId2)
+                .courseNumber("cat-421")
+                .courseName("Web-Services 2")
+                .numHours(45)
+                .numCredits(3.0)
+                .department("Computer Science")
+                .build();
+
+        StepVerifier
+                .create(courseRepository.saveAll(List.of(course1, course2)))
+                .expectNextCount(2)
+                .verifyComplete();
+
+        //act and assert
+        StepVerifier
+                .create(courseRepository.findCoursesByCourseIds(new String[]{courseId1, courseId2, UUID.randomUUID().toString()})
+                        .map(Course::getCourseId)
+                        .collectList())
+                .consumeNextWith(courseIds -> {
+                    assertEquals(2, courseIds.size());
+                    assertTrue(courseIds.containsAll(List.of(courseId1, courseId2)));
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    public void whenFindFieldsByCourseId_thenReturnOnlyRequestedFields() {
+        //arrange
+        String courseId = UUID.randomUUID().toString();
+        Course course = Course.builder()
+                .courseId(courseId)
+                .courseNumber("cat-420")
+                .courseName("Web-Services")
+                .numHours(45)
+                .numCredits(3.0)
+                .department("Computer Science")
+                .build();
+
+        StepVerifier
+                .create(courseRepository.save(course))
+                .expectNextCount(1)
+                .verifyComplete();
+
+        //act and assert
+        StepVerifier
+                .create(courseRepository.findFieldsByCourseId(courseId, List.of("courseName", "numCredits", "numHours")))
+                .consumeNextWith(fields -> {
+                    assertEquals(List.of("courseName", "numCredits", "numHours"), List.copyOf(fields.keySet()));
+                    assertEquals("Web-Services", fields.get("courseName"));
+                    assertEquals(3.0, fields.get("numCredits"));
+                    assertEquals(45, fields.get("numHours"));
+                })
+                .verifyComplete();
+
+        StepVerifier
+                .create(courseRepository.findFieldsByCourseIds(new String[]{courseId, UUID.randomUUID().toString()}, List.of("courseId")))
+                .consumeNextWith(fields -> assertEquals(Map.of("courseId", courseId), fields))
+                .verifyComplete();
+    }
+
     @Test
     public void whenSaveCourseWithDuplicateCourseId_thenThrowDuplicateKeyException() {
         //arrange
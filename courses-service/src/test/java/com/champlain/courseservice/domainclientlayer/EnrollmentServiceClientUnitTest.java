@@ -0,0 +1,77 @@
+package com.champlain.courseservice.domainclientlayer;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+
+import java.net.ConnectException;
+import java.net.URI;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EnrollmentServiceClientUnitTest {
+
+    private static final String COURSE_ID = "9a29fff7-564a-4cc9-8fe1-36f6ca9bc223";
+    private static final CourseChangeModel CHANGE = new CourseChangeModel("cat-420", "Renamed Course", 30, Instant.now());
+
+    private final AtomicInteger attempts = new AtomicInteger();
+
+    @Test
+    public void whenEnrollmentsServiceAnswers503_thenChangeIsSentAgain() {
+        EnrollmentServiceClient client = client(request -> Mono.just(ClientResponse.create(
+                attempts.incrementAndGet() == 1 ? HttpStatus.SERVICE_UNAVAILABLE : HttpStatus.ACCEPTED).build()));
+
+        client.publishCourseChange(COURSE_ID, CHANGE);
+
+        await().atMost(Duration.ofSeconds(5)).until(() -> attempts.get() == 2);
+    }
+
+    @Test
+    public void whenEnrollmentsServiceAnswers400_thenChangeIsNotSentAgain() {
+        EnrollmentServiceClient client = client(request -> {
+            attempts.incrementAndGet();
+            return Mono.just(ClientResponse.create(HttpStatus.BAD_REQUEST).build());
+        });
+
+        client.publishCourseChange(COURSE_ID, CHANGE);
+
+        //longer than the first backoff and its jitter
+        await().during(Duration.ofMillis(1500)).atMost(Duration.ofSeconds(3)).until(() -> attempts.get() == 1);
+    }
+
+    @Test
+    public void whenFailureMayPassOnASecondTry_thenItIsRetryable() {
+        assertTrue(EnrollmentServiceClient.isRetryable(
+                WebClientResponseException.create(503, "Service Unavailable", null, null, null)));
+        assertTrue(EnrollmentServiceClient.isRetryable(new TimeoutException()));
+        assertTrue(EnrollmentServiceClient.isRetryable(new WebClientRequestException(
+                new ConnectException("Connection refused"), HttpMethod.POST, URI.create("http://localhost:7001"), new HttpHeaders())));
+    }
+
+    @Test
+    public void whenFailureIsAClientError_thenItIsNotRetryable() {
+        assertFalse(EnrollmentServiceClient.isRetryable(
+                WebClientResponseException.create(400, "Bad Request", null, null, null)));
+        assertFalse(EnrollmentServiceClient.isRetryable(
+                WebClientResponseException.create(404, "Not Found", null, null, null)));
+        assertFalse(EnrollmentServiceClient.isRetryable(new IllegalStateException()));
+    }
+
+    private EnrollmentServiceClient client(ExchangeFunction exchangeFunction) {
+        return new EnrollmentServiceClient(WebClient.builder().exchangeFunction(exchangeFunction),
+                "localhost", 7001, Duration.ofSeconds(2), true);
+    }
+}
@@ -9,6 +9,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.test.annotation.DirtiesContext;
@@ -20,6 +21,9 @@ import reactor.test.StepVerifier;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.springframework.boot.test.context.SpringBootTest.WebEnvironment.RANDOM_PORT;
@@ -93,6 +97,128 @@ class CourseControllerIntegrationTest {
                 .jsonPath("$.department").isEqualTo(existingCourse.getDepartment());
     }
 
+    @Test
+    public void whenGetCoursesByCourseIds_withExistingAndNonExistingIds_thenReturnExistingCourses() {
+        List<String> existingCourseIds = courseRepository.findAll()
+                .take(3)
+                .map(Course::getCourseId)
+                .collectList()
+                .block();
+        String nonExistingCourseId = "123e4567-e89b-12d3-a456-426614174000";
+
+        webTestClient.get()
+                .uri(uriBuilder -> uriBuilder.path("/api/v1/courses")
+                        .queryParam("ids", String.join(",", existingCourseIds) + "," + nonExistingCourseId)
+                        .build())
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(CourseResponseModel.class)
+                .getResponseBody()
+                .map(CourseResponseModel::courseId)
+                .collectList()
+                .as(StepVerifier::create)
+                .consumeNextWith(courseIds -> assertEquals(Set.copyOf(existingCourseIds), Set.copyOf(courseIds)))
+                .verifyComplete();
+    }
+
+    @Test
+    public void whenGetCourseByCourseId_withFields_thenReturnOnlyThoseFields() {
+        Course course = courseRepository.findAll()
+                .take(1)
+                .blockLast();
+
+        webTestClient.get()
+                .uri("/api/v1/courses/{courseId}?fields=courseId,courseName", course.getCourseId())
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.courseId").isEqualTo(course.getCourseId())
+                .jsonPath("$.courseName").isEqualTo(course.getCourseName())
+                .jsonPath("$.courseNumber").doesNotExist()
+                .jsonPath("$.department").doesNotExist();
+    }
+
+    @Test
+    public void getCourseFieldsEventStream() {
+        webTestClient.get()
+                .uri("/api/v1/courses?fields=courseId")
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(new ParameterizedTypeReference<Map<String, Object>>() {})
+                .getResponseBody()
+                .as(StepVerifier::create)
+                .thenConsumeWhile(fields -> fields.keySet().equals(Set.of("courseId")))
+                .verifyComplete();
+    }
+
+    @Test
+    public void whenGetCoursesByCourseIds_withFields_thenReturnOnlyThoseFields() {
+        List<String> existingCourseIds = courseRepository.findAll()
+                .take(3)
+                .map(Course::getCourseId)
+                .collectList()
+                .block();
+
+        webTestClient.get()
+                .uri(uriBuilder -> uriBuilder.path("/api/v1/courses")
+                        .queryParam("ids", String.join(",", existingCourseIds))
+                        .queryParam("fields", "courseId")
+                        .build())
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(existingCourseIds.size())
+                .jsonPath("$[0].courseId").exists()
+                .jsonPath("$[0].courseName").doesNotExist();
+    }
+
+    @Test
+    public void whenGetCourseByCourseId_withUnknownField_thenReturnUnprocessableEntity() {
+        webTestClient.get()
+                .uri("/api/v1/courses/{courseId}?fields=courseId,id", "123e4567-e89b-12d3-a456-426614174000")
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.UNPROCESSABLE_ENTITY)
+                .expectBody(HttpErrorInfo.class)
+                .value(errorInfo -> assertEquals("Fields [id] are not valid, allowed fields are " + CourseResponseModel.FIELDS, errorInfo.getMessage()));
+    }
+
+    @Test
+    public void whenGetCoursesByCourseIdsBatch_thenReturnRequestedCourses() {
+        List<String> existingCourseIds = courseRepository.findAll()
+                .take(5)
+                .map(Course::getCourseId)
+                .collectList()
+                .block();
+
+        webTestClient.post()
+                .uri("/api/v1/courses/batch")
+                .accept(MediaType.APPLICATION_JSON)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(existingCourseIds)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(CourseResponseModel.class)
+                .hasSize(existingCourseIds.size());
+    }
+
+    @Test
+    public void whenGetCoursesByCourseIds_withInvalidCourseId_thenReturnUnprocessableEntity() {
+        String invalidCourseId = "123";
+
+        webTestClient.get()
+                .uri("/api/v1/courses?ids={ids}", invalidCourseId)
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.UNPROCESSABLE_ENTITY)
+                .expectBody(HttpErrorInfo.class)
+                .value(errorInfo -> assertEquals("Course id=" + invalidCourseId + " is invalid", errorInfo.getMessage()));
+    }
+
     @Test
     public void whenNewCourse_withValidRequestBody_shouldReturnSuccess() {
         CourseRequestModel courseRequestModel = new CourseRequestModel(
@@ -100,7 +226,8 @@ class CourseControllerIntegrationTest {
                 "Web Services Testing",
                 45,
                 3.0,
-                "Computer Science"
+                "Computer Science",
+                null
         );
 
         webTestClient
@@ -141,6 +268,31 @@ class CourseControllerIntegrationTest {
                 });
     }
 
+    @Test
+    public void whenAddNewCourse_withZeroCapacity_shouldReturnUnProcessableEntity() {
+        CourseRequestModel courseRequestModel = new CourseRequestModel(
+                "cat-423",
+                "Web Services Testing",
+                45,
+                3.0,
+                "Computer Science",
+                0
+        );
+
+        webTestClient.post()
+                .uri("/api/v1/courses")
+                .accept(MediaType.APPLICATION_JSON)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(courseRequestModel)
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.UNPROCESSABLE_ENTITY)
+                .expectBody(HttpErrorInfo.class)
+                .value(errorInfo -> {
+                    assertNotNull(errorInfo);
+                    assertEquals("Course capacity must be greater than 0", errorInfo.getMessage());
+                });
+    }
+
     @Test
     public void whenUpdateCourse_withValidRequestBody_thenReturnUpdatedCourse() {
         Mono.from(courseRepository.findAll().take(1))
@@ -157,7 +309,8 @@ class CourseControllerIntegrationTest {
                 "Math 01",
                 50,
                 4.0,
-                "Math"
+                "Math",
+                null
         );
 
         webTestClient.put()
@@ -217,7 +370,8 @@ class CourseControllerIntegrationTest {
                 "Physics 01",
                 45,
                 3.0,
-                "Physics"
+                "Physics",
+                null
         );
 
         webTestClient.put()
@@ -58,7 +58,8 @@ class CourseControllerUnitTest {
                 "Web Services Testing",
                 0,
                 3.0,
-                "Computer Science"
+                "Computer Science",
+                null
         );
 
         Mono<ResponseEntity<CourseResponseModel>> result = courseController.addCourse(Mono.just(courseRequestModel));
@@ -76,7 +77,8 @@ class CourseControllerUnitTest {
                 "Web Services Testing",
                 0,
                 3.0,
-                "Computer Science"
+                "Computer Science",
+                null
         );
 
         Mono<ResponseEntity<CourseResponseModel>> result = courseController.updateCourse(EXISTING_COURSE_ID, Mono.just(courseRequestModel));
@@ -107,7 +109,8 @@ class CourseControllerUnitTest {
                 "Java 01",
                 40,
                 3.0,
-                "Computer Science"
+                "Computer Science",
+                null
         );
 
         CourseResponseModel CourseResponse2 = new CourseResponseModel(
@@ -116,7 +119,8 @@ class CourseControllerUnitTest {
                 "Java 02",
                 45,
                 3.0,
-                "Computer Science"
+                "Computer Science",
+                null
         );
 
         when(courseService.getCourses())
@@ -157,7 +161,8 @@ class CourseControllerUnitTest {
                 "Java 01",
                 40,
                 3.0,
-                "Computer Science"
+                "Computer Science",
+                null
         );
 
         when(courseService.getCourseByCourseId(EXISTING_COURSE_ID))
@@ -190,7 +195,8 @@ class CourseControllerUnitTest {
                 "Java 01",
                 45,
                 3.0,
-                "Computer Science"
+                "Computer Science",
+                null
         );
 
         CourseResponseModel responseModel = new CourseResponseModel(
@@ -199,7 +205,8 @@ class CourseControllerUnitTest {
                 "Java 01",
                 45,
                 3.0,
-                "Computer Science"
+                "Computer Science",
+                null
         );
 
         when(courseService.addCourse(any(Mono.class)))
@@ -231,7 +238,8 @@ class CourseControllerUnitTest {
                 "Java 01",
                 45,
                 3.0,
-                "Computer Science"
+                "Computer Science",
+                null
         );
 
         CourseResponseModel updatedCourseResponse = new CourseResponseModel(
@@ -240,7 +248,8 @@ class CourseControllerUnitTest {
                 "Java 02",
                 40,
                 3.0,
-                "Computer Science"
+                "Computer Science",
+                null
         );
 
         when(courseService.updateCourse(any(Mono.class), eq(EXISTING_COURSE_ID)))
@@ -273,7 +282,8 @@ class CourseControllerUnitTest {
                 "Java 01",
                 40,
                 3.0,
-                "Computer Science"
+                "Computer Science",
+                null
         );
 
         when(courseService.deleteCourse(EXISTING_COURSE_ID))
@@ -301,7 +311,8 @@ class CourseControllerUnitTest {
                 "Web Services Testing",
                 45,
                 3.0,
-                "Computer Science"
+                "Computer Science",
+                null
         );
 
         // Act
@@ -335,7 +346,8 @@ class CourseControllerUnitTest {
                 "Java Null Credits",
                 40,
                 null,
-                "Computer Science"
+                "Computer Science",
+                null
         );
 
         RequestValidator validator = new RequestValidator();
@@ -355,7 +367,8 @@ class CourseControllerUnitTest {
                 "Intro to Java",
                 40,
                 0.0,
-                "Computer Science"
+                "Computer Science",
+                null
         );
 
         Mono<ResponseEntity<CourseResponseModel>> result = courseController.addCourse(Mono.just(request));
@@ -373,7 +386,8 @@ class CourseControllerUnitTest {
                 "Intro to Java",
                 null,
                 3.0,
-                "Computer Science"
+                "Computer Science",
+                null
         );
 
         Mono<ResponseEntity<CourseResponseModel>> result = courseController.addCourse(Mono.just(request));
@@ -384,4 +398,89 @@ class CourseControllerUnitTest {
                 .verify();
     }
 
-}
\ No newline at end of file
+    @Test
+    public void whenAddCourse_withZeroCapacity_thenThrowInvalidInputException() {
+        CourseRequestModel request = new CourseRequestModel(
+                "jav-101",
+                "Intro to Java",
+                45,
+                3.0,
+                "Computer Science",
+                0
+        );
+
+        Mono<ResponseEntity<CourseResponseModel>> result = courseController.addCourse(Mono.just(request));
+
+        StepVerifier.create(result)
+                .expectErrorMatches(e -> e instanceof InvalidInputException
+                        && e.getMessage().equals("Course capacity must be greater than 0"))
+                .verify();
+    }
+
+    @Test
+    public void whenAddCourse_withNegativeCapacity_thenThrowInvalidInputException() {
+        CourseRequestModel request = new CourseRequestModel(
+                "jav-101",
+                "Intro to Java",
+                45,
+                3.0,
+                "Computer Science",
+                -5
+        );
+
+        Mono<ResponseEntity<CourseResponseModel>> result = courseController.addCourse(Mono.just(request));
+
+        StepVerifier.create(result)
+                .expectErrorMatches(e -> e instanceof InvalidInputException
+                        && e.getMessage().equals("Course capacity must be greater than 0"))
+                .verify();
+    }
+
+    @Test
+    public void whenUpdateCourse_withZeroCapacity_thenThrowInvalidInputException() {
+        CourseRequestModel request = new CourseRequestModel(
+                "jav-101",
+                "Intro to Java",
+                45,
+                3.0,
+                "Computer Science",
+                0
+        );
+
+        Mono<ResponseEntity<CourseResponseModel>> result = courseController.updateCourse(EXISTING_COURSE_ID, Mono.just(request));
+
+        StepVerifier.create(result)
+                .expectErrorMatches(e -> e instanceof InvalidInputException
+                        && e.getMessage().equals("Course capacity must be greater than 0"))
+                .verify();
+    }
+
+    //no capacity is a course without a seat limit
+    @Test
+    public void whenAddCourse_withMissingCapacity_thenAddCourse() {
+        CourseRequestModel request = new CourseRequestModel(
+                "jav-101",
+                "Intro to Java",
+                45,
+                3.0,
+                "Computer Science",
+                null
+        );
+        CourseResponseModel responseModel = new CourseResponseModel(
+                EXISTING_COURSE_ID,
+                "jav-101",
+                "Intro to Java",
+                45,
+                3.0,
+                "Computer Science",
+                null
+        );
+        when(courseService.addCourse(any(Mono.class)))
+                .thenAnswer(invocation -> invocation.<Mono<CourseRequestModel>>getArgument(0).thenReturn(responseModel));
+
+        StepVerifier.create(courseController.addCourse(Mono.just(request)))
+                .expectNextMatches(responseEntity -> responseEntity.getStatusCode().value() == 201
+                        && responseEntity.getBody().capacity() == null)
+                .verifyComplete();
+    }
+}
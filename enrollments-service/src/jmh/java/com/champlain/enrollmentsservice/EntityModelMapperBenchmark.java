@@ -0,0 +1,59 @@
+package com.champlain.enrollmentsservice;
+
+import com.champlain.enrollmentsservice.businesslayer.enrollments.RequestContext;
+import com.champlain.enrollmentsservice.dataaccesslayer.Enrollment;
+import com.champlain.enrollmentsservice.dataaccesslayer.Semester;
+import com.champlain.enrollmentsservice.domainclientlayer.courses.CourseResponseModel;
+import com.champlain.enrollmentsservice.domainclientlayer.students.StudentResponseModel;
+import com.champlain.enrollmentsservice.mapper.EntityModelMapper;
+import com.champlain.enrollmentsservice.presentationlayer.enrollments.EnrollmentRequestModel;
+import com.champlain.enrollmentsservice.presentationlayer.enrollments.EnrollmentResponseModel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.UUID;
+
+@State(Scope.Benchmark)
+public class EntityModelMapperBenchmark {
+
+    private Enrollment enrollment;
+    private RequestContext requestContext;
+
+    @Setup
+    public void setUp() {
+        String studentId = UUID.randomUUID().toString();
+        String courseId = UUID.randomUUID().toString();
+
+        enrollment = Enrollment.builder()
+                .id("66c3a5d6e4b0a1b2c3d4e5f6")
+                .enrollmentId(UUID.randomUUID().toString())
+                .enrollmentYear(2024)
+                .semester(Semester.FALL)
+                .studentId(studentId)
+                .studentFirstName("Donna")
+                .studentLastName("Hornsby")
+                .courseId(courseId)
+                .courseNumber("cat-420")
+                .courseName("Web Services")
+                .build();
+
+        requestContext = new RequestContext(
+                new EnrollmentRequestModel(2024, Semester.FALL, studentId, courseId),
+                null,
+                new StudentResponseModel(studentId, "Donna", "Hornsby", "History", null),
+                new CourseResponseModel(courseId, "cat-420", "Web Services", 45, 3.0, "Computer Science", 30));
+    }
+
+    @Benchmark
+    public EnrollmentResponseModel toModel() {
+        return EntityModelMapper.toModel(enrollment);
+    }
+
+    //includes the UUID generated for every new enrollment
+    @Benchmark
+    public Enrollment toEntity() {
+        return EntityModelMapper.toEntity(requestContext);
+    }
+}
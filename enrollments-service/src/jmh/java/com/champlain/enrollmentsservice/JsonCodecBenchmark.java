@@ -0,0 +1,66 @@
+package com.champlain.enrollmentsservice;
+
+import com.champlain.enrollmentsservice.dataaccesslayer.Semester;
+import com.champlain.enrollmentsservice.domainclientlayer.courses.CourseResponseModel;
+import com.champlain.enrollmentsservice.domainclientlayer.students.StudentResponseModel;
+import com.champlain.enrollmentsservice.presentationlayer.enrollments.EnrollmentResponseModel;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.UUID;
+
+/*
+   Codecs on the enrollments hot path: the enrollment it returns and the student and course payloads it decodes.
+   stuffLength sizes the student's stuff text, which enrollments-service receives but never uses.
+ */
+@State(Scope.Benchmark)
+public class JsonCodecBenchmark {
+
+    @Param({"16", "65536"})
+    private int stuffLength;
+
+    private ObjectMapper mapper;
+    private EnrollmentResponseModel enrollment;
+    private byte[] enrollmentJson;
+    private byte[] courseJson;
+    private byte[] studentJson;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        mapper = Jackson2ObjectMapperBuilder.json().build();
+
+        String studentId = UUID.randomUUID().toString();
+        String courseId = UUID.randomUUID().toString();
+        enrollment = new EnrollmentResponseModel(UUID.randomUUID().toString(), 2024, Semester.FALL,
+                studentId, "Donna", "Hornsby", courseId, "cat-420", "Web Services");
+        enrollmentJson = mapper.writeValueAsBytes(enrollment);
+        courseJson = mapper.writeValueAsBytes(new CourseResponseModel(courseId, "cat-420", "Web Services", 45, 3.0, "Computer Science", 30));
+        studentJson = mapper.writeValueAsBytes(new StudentResponseModel(studentId, "Donna", "Hornsby", "History", "x".repeat(stuffLength)));
+    }
+
+    @Benchmark
+    public byte[] encodeEnrollment() throws JsonProcessingException {
+        return mapper.writeValueAsBytes(enrollment);
+    }
+
+    @Benchmark
+    public EnrollmentResponseModel decodeEnrollment() throws Exception {
+        return mapper.readValue(enrollmentJson, EnrollmentResponseModel.class);
+    }
+
+    @Benchmark
+    public CourseResponseModel decodeCourse() throws Exception {
+        return mapper.readValue(courseJson, CourseResponseModel.class);
+    }
+
+    @Benchmark
+    public StudentResponseModel decodeStudent() throws Exception {
+        return mapper.readValue(studentJson, StudentResponseModel.class);
+    }
+}
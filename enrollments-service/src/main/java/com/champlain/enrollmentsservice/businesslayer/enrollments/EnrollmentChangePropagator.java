@@ -0,0 +1,154 @@
+package com.champlain.enrollmentsservice.businesslayer.enrollments;
+
+import com.champlain.enrollmentsservice.dataaccesslayer.CourseSeatsRepository;
+import com.champlain.enrollmentsservice.dataaccesslayer.EnrollmentRepository;
+import com.champlain.enrollmentsservice.domainclientlayer.courses.CourseServiceClient;
+import com.champlain.enrollmentsservice.domainclientlayer.students.StudentServiceClientAsynchronous;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.util.concurrent.Queues;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/*
+   Enrollments copy the course number and name and the student names, so a rename upstream has to be written
+   to every enrollment of that course or student, and a course change also carries its capacity, which moves the
+   seat counts of every term of that course. Each change becomes one updateMany, applied in the background:
+   - changes are applied one at a time with a pause in between (100ms unless configured), so a burst of renames
+     never turns into a burst of collection-wide writes competing with enrollment traffic
+   - a change waiting in the queue is replaced by a newer one for the same course or student, only the latest is written
+   - course changes carry the time they were made: one arriving after a newer change for that course, such as a retried
+     notification, is dropped instead of writing older values back. Changes without a time are always applied.
+     The applied times are kept in a bounded cache for APPLIED_TTL, far longer than courses-service keeps retrying
+     (a few attempts within seconds), so a late retry is still caught without the map growing with every course
+   - the cached course or student is evicted on arrival, new enrollments pick up the rename before the backlog is done
+   Progress shows up as enrollments.propagation.pending, .updated (enrollments rewritten), .stale (changes dropped)
+   and .latency (per updateMany).
+ */
+@Slf4j
+@Component
+public class EnrollmentChangePropagator {
+
+    private static final String PENDING = "enrollments.propagation.pending";
+    private static final String UPDATED = "enrollments.propagation.updated";
+    private static final String LATENCY = "enrollments.propagation.latency";
+    private static final String STALE = "enrollments.propagation.stale";
+    private static final String COURSE = "course";
+    private static final String STUDENT = "student";
+    private static final long APPLIED_MAXIMUM_SIZE = 10_000;
+    private static final Duration APPLIED_TTL = Duration.ofMinutes(10);
+
+    private final EnrollmentRepository enrollmentRepository;
+    private final CourseSeatsRepository courseSeatsRepository;
+    private final CourseServiceClient courseClient;
+    private final StudentServiceClientAsynchronous studentClient;
+    private final MeterRegistry meterRegistry;
+
+    //latest change waiting per course or student, keyed by kind and id
+    private final Map<String, Change> pending = new ConcurrentHashMap<>();
+    //time of the last change applied per course or student, only written by the worker
+    private final Cache<String, Instant> applied = Caffeine.newBuilder()
+            .maximumSize(APPLIED_MAXIMUM_SIZE)
+            .expireAfterWrite(APPLIED_TTL)
+            .build();
+    private final Sinks.Many<String> queue = Sinks.many().unicast().onBackpressureBuffer(Queues.<String>unboundedMultiproducer().get());
+    private final Disposable worker;
+
+    public EnrollmentChangePropagator(EnrollmentRepository enrollmentRepository, CourseSeatsRepository courseSeatsRepository,
+                                      CourseServiceClient courseClient, StudentServiceClientAsynchronous studentClient,
+                                      MeterRegistry meterRegistry, @Value("${app.enrollments.propagation.pause:100ms}") Duration pause) {
+        this.enrollmentRepository = enrollmentRepository;
+        this.courseSeatsRepository = courseSeatsRepository;
+        this.courseClient = courseClient;
+        this.studentClient = studentClient;
+        this.meterRegistry = meterRegistry;
+        meterRegistry.gaugeMapSize(PENDING, Tags.empty(), pending);
+        this.worker = queue.asFlux()
+                .concatMap(key -> apply(pending.remove(key))
+                        .then(pause.isZero() ? Mono.<Void>empty() : Mono.delay(pause).then()))
+                .subscribe();
+    }
+
+    //the seats are resized first, reservations for the course see the new capacity before the names are rewritten
+    public void courseChanged(String courseId, String courseNumber, String courseName, Integer capacity, Instant changedAt) {
+        courseClient.evictCourse(courseId);
+        submit(new Change(COURSE, courseId, changedAt,
+                () -> courseSeatsRepository.resize(courseId, capacity)
+                        .then(enrollmentRepository.updateCourseDetails(courseId, courseNumber, courseName))));
+    }
+
+    public void studentChanged(String studentId, String firstName, String lastName) {
+        studentClient.evictStudent(studentId);
+        submit(new Change(STUDENT, studentId, null,
+                () -> enrollmentRepository.updateStudentNames(studentId, firstName, lastName)));
+    }
+
+    @PreDestroy
+    public void stop() {
+        worker.dispose();
+    }
+
+    // only the first change for a key is queued, later ones just replace what the queued key points to unless they are older
+    private void submit(Change change) {
+        String key = change.key();
+        Change[] queued = new Change[1];
+        pending.compute(key, (k, waiting) -> {
+            queued[0] = waiting;
+            return waiting != null && change.isNotNewerThan(waiting.changedAt()) ? waiting : change;
+        });
+        if (queued[0] == null) {
+            queue.emitNext(key, Sinks.EmitFailureHandler.busyLooping(Duration.ofSeconds(1)));
+        }
+    }
+
+    // a failed change is logged and dropped so the worker keeps going, it is not remembered as applied
+    private Mono<Void> apply(Change change) {
+        if (change.isNotNewerThan(applied.getIfPresent(change.key()))) {
+            meterRegistry.counter(STALE, "kind", change.kind()).increment();
+            log.info("Dropped {} {} change made at {}, a newer one was already applied", change.kind(), change.id(), change.changedAt());
+            return Mono.empty();
+        }
+        Timer.Sample sample = Timer.start(meterRegistry);
+        return Mono.defer(change.update())
+                .doOnNext(updated -> {
+                    if (change.changedAt() != null) {
+                        applied.put(change.key(), change.changedAt());
+                    }
+                    sample.stop(meterRegistry.timer(LATENCY, "kind", change.kind(), "outcome", "success"));
+                    meterRegistry.counter(UPDATED, "kind", change.kind()).increment(updated);
+                    log.info("Propagated {} {} change to {} enrollments", change.kind(), change.id(), updated);
+                })
+                .doOnError(ex -> {
+                    sample.stop(meterRegistry.timer(LATENCY, "kind", change.kind(), "outcome", "error"));
+                    log.error("Could not propagate {} {} change: {}", change.kind(), change.id(), ex.getMessage());
+                })
+                .onErrorResume(ex -> Mono.empty())
+                .then();
+    }
+
+    private record Change(String kind, String id, Instant changedAt, Supplier<Mono<Long>> update) {
+
+        String key() {
+            return kind + ":" + id;
+        }
+
+        //a change made at the same time is the same change sent again
+        boolean isNotNewerThan(Instant other) {
+            return changedAt != null && other != null && !changedAt.isAfter(other);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.champlain.enrollmentsservice.businesslayer.enrollments;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+//rebuilds the enrollment counters from the enrollments themselves, covering writes that bypass the service and failed increments
+@Slf4j
+@Component
+public class EnrollmentCounterReconciler {
+
+    private static final Duration REBUILD_TIMEOUT = Duration.ofMinutes(5);
+
+    private final EnrollmentService enrollmentService;
+
+    public EnrollmentCounterReconciler(EnrollmentService enrollmentService) {
+        this.enrollmentService = enrollmentService;
+    }
+
+    @Scheduled(initialDelayString = "${app.enrollments.counters.reconcile-initial-delay:PT30S}",
+            fixedDelayString = "${app.enrollments.counters.reconcile-interval:PT1H}")
+    public void reconcile() {
+        long start = System.nanoTime();
+        enrollmentService.rebuildEnrollmentCounts()
+                .doOnSuccess(done -> log.info("Enrollment counters rebuilt ({} ms)", Duration.ofNanos(System.nanoTime() - start).toMillis()))
+                .onErrorResume(ex -> {
+                    log.error("Enrollment counters could not be rebuilt: {}", ex.getMessage());
+                    return Mono.empty();
+                })
+                .block(REBUILD_TIMEOUT);
+    }
+}
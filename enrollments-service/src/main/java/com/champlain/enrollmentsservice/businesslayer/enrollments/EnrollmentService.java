@@ -1,16 +1,32 @@
 package com.champlain.enrollmentsservice.businesslayer.enrollments;
 
+import com.champlain.enrollmentsservice.dataaccesslayer.Semester;
 import com.champlain.enrollmentsservice.domainclientlayer.courses.CourseResponseModel;
+import com.champlain.enrollmentsservice.presentationlayer.enrollments.EnrollmentBatchResponseModel;
+import com.champlain.enrollmentsservice.presentationlayer.enrollments.EnrollmentCountResponseModel;
+import com.champlain.enrollmentsservice.presentationlayer.enrollments.EnrollmentFieldsPageResponseModel;
+import com.champlain.enrollmentsservice.presentationlayer.enrollments.EnrollmentPageRequest;
+import com.champlain.enrollmentsservice.presentationlayer.enrollments.EnrollmentPageResponseModel;
 import com.champlain.enrollmentsservice.presentationlayer.enrollments.EnrollmentRequestModel;
 import com.champlain.enrollmentsservice.presentationlayer.enrollments.EnrollmentResponseModel;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.List;
+import java.util.Map;
+
 public interface EnrollmentService {
-    Flux<EnrollmentResponseModel> getEnrollments();
+    Mono<EnrollmentPageResponseModel> getEnrollmentPage(EnrollmentPageRequest pageRequest);
+    Mono<EnrollmentFieldsPageResponseModel> getEnrollmentFieldsPage(EnrollmentPageRequest pageRequest, List<String> fields);
+    Mono<Map<String, Object>> getEnrollmentFieldsByEnrollmentId(String enrollmentId, List<String> fields);
     Mono<EnrollmentResponseModel> addEnrollment(Mono<EnrollmentRequestModel> enrollmentRequestModel);
+    Flux<EnrollmentBatchResponseModel> addEnrollments(Flux<EnrollmentRequestModel> enrollmentRequestModels);
     Mono<EnrollmentResponseModel> getEnrollmentByEnrollmentId(String enrollmentId);
+    Flux<EnrollmentResponseModel> getEnrollmentsByStudentId(String studentId);
+    Flux<EnrollmentResponseModel> getEnrollmentsByCourseId(String courseId);
     Mono<EnrollmentResponseModel> updateEnrollment(Mono<EnrollmentRequestModel> enrollmentRequestModel, String enrollmentId);
     Mono<EnrollmentResponseModel> deleteEnrollment(String enrollmentId);
+    Flux<EnrollmentCountResponseModel> getEnrollmentCounts(String courseId, Integer enrollmentYear, Semester semester);
+    Mono<Void> rebuildEnrollmentCounts();
 
 }
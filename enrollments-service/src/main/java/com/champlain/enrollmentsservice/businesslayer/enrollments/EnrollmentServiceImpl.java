@@ -1,16 +1,46 @@
 package com.champlain.enrollmentsservice.businesslayer.enrollments;
 
+import com.champlain.enrollmentsservice.dataaccesslayer.CourseSeatsRepository;
+import com.champlain.enrollmentsservice.dataaccesslayer.Enrollment;
+import com.champlain.enrollmentsservice.dataaccesslayer.EnrollmentCounterKey;
+import com.champlain.enrollmentsservice.dataaccesslayer.EnrollmentCounterRepository;
+import com.champlain.enrollmentsservice.dataaccesslayer.EnrollmentFilter;
 import com.champlain.enrollmentsservice.dataaccesslayer.EnrollmentRepository;
+import com.champlain.enrollmentsservice.dataaccesslayer.Semester;
+import com.champlain.enrollmentsservice.domainclientlayer.courses.CourseResponseModel;
 import com.champlain.enrollmentsservice.domainclientlayer.courses.CourseServiceClient;
+import com.champlain.enrollmentsservice.domainclientlayer.students.StudentResponseModel;
 import com.champlain.enrollmentsservice.domainclientlayer.students.StudentServiceClientAsynchronous;
+import com.champlain.enrollmentsservice.exceptionhandling.ApplicationExceptions;
+import com.champlain.enrollmentsservice.exceptionhandling.exceptions.CourseFullException;
 import com.champlain.enrollmentsservice.mapper.EntityModelMapper;
+import com.champlain.enrollmentsservice.presentationlayer.enrollments.EnrollmentBatchResponseModel;
+import com.champlain.enrollmentsservice.presentationlayer.enrollments.EnrollmentCountResponseModel;
+import com.champlain.enrollmentsservice.presentationlayer.enrollments.EnrollmentFieldsPageResponseModel;
+import com.champlain.enrollmentsservice.presentationlayer.enrollments.EnrollmentPageRequest;
+import com.champlain.enrollmentsservice.presentationlayer.enrollments.EnrollmentPageResponseModel;
 import com.champlain.enrollmentsservice.presentationlayer.enrollments.EnrollmentRequestModel;
 import com.champlain.enrollmentsservice.presentationlayer.enrollments.EnrollmentResponseModel;
-import io.micrometer.core.ipc.http.HttpSender;
+import com.champlain.enrollmentsservice.validation.RequestValidator;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.util.function.Tuple2;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @Slf4j
@@ -18,34 +48,244 @@ public class EnrollmentServiceImpl implements EnrollmentService {
 
     private final EnrollmentRepository enrollmentRepository;
 
+    private final EnrollmentCounterRepository enrollmentCounterRepository;
+
+    private final CourseSeatsRepository courseSeatsRepository;
+
     private final StudentServiceClientAsynchronous studentClient;
 
     private final CourseServiceClient courseClient;
 
-    public EnrollmentServiceImpl(EnrollmentRepository enrollmentRepository, StudentServiceClientAsynchronous studentClient, CourseServiceClient courseClient) {
+    private final MeterRegistry meterRegistry;
+
+    private static final String DOWNSTREAM_LATENCY = "enrollments.downstream.latency";
+    private static final String STUDENTS_SERVICE = "students-service";
+    private static final String COURSES_SERVICE = "courses-service";
+
+    //number of request lines resolved and written to mongo together in a bulk upload
+    private static final int BATCH_SIZE = 500;
+
+    public EnrollmentServiceImpl(EnrollmentRepository enrollmentRepository, EnrollmentCounterRepository enrollmentCounterRepository, CourseSeatsRepository courseSeatsRepository, StudentServiceClientAsynchronous studentClient, CourseServiceClient courseClient, MeterRegistry meterRegistry) {
         this.enrollmentRepository = enrollmentRepository;
+        this.enrollmentCounterRepository = enrollmentCounterRepository;
+        this.courseSeatsRepository = courseSeatsRepository;
         this.studentClient = studentClient;
         this.courseClient = courseClient;
+        this.meterRegistry = meterRegistry;
     }
 
+    // one more enrollment than the page size is read to know whether there is a next page
     @Override
-    public Flux<EnrollmentResponseModel> getEnrollments() {
-        return enrollmentRepository.findAll().map(EntityModelMapper::toModel);
+    public Mono<EnrollmentPageResponseModel> getEnrollmentPage(EnrollmentPageRequest pageRequest) {
+        int size = pageRequest.size();
+        EnrollmentFilter filter = toFilter(pageRequest);
+
+        return PageToken.decode(pageRequest.pageToken())
+                .flatMapMany(afterId -> enrollmentRepository.findPage(filter, afterId.orElse(null), size + 1))
+                .collectList()
+                .map(enrollments -> toPage(enrollments, size, Enrollment::getId, (page, nextPageToken) ->
+                        new EnrollmentPageResponseModel(page.stream().map(EntityModelMapper::toModel).toList(), nextPageToken)));
+    }
+
+    // the projected documents come straight from mongo, _id is only read for the token and then dropped
+    @Override
+    public Mono<EnrollmentFieldsPageResponseModel> getEnrollmentFieldsPage(EnrollmentPageRequest pageRequest, List<String> fields) {
+        int size = pageRequest.size();
+        EnrollmentFilter filter = toFilter(pageRequest);
+
+        return PageToken.decode(pageRequest.pageToken())
+                .flatMapMany(afterId -> enrollmentRepository.findPageFields(filter, afterId.orElse(null), size + 1, fields))
+                .collectList()
+                .map(documents -> toPage(documents, size, document -> document.getObjectId("_id").toHexString(), (page, nextPageToken) -> {
+                    page.forEach(document -> document.remove("_id"));
+                    return new EnrollmentFieldsPageResponseModel(List.<Map<String, Object>>copyOf(page), nextPageToken);
+                }));
+    }
+
+    @Override
+    public Mono<Map<String, Object>> getEnrollmentFieldsByEnrollmentId(String enrollmentId, List<String> fields) {
+        return enrollmentRepository.findFieldsByEnrollmentId(enrollmentId, fields);
+    }
+
+    private static EnrollmentFilter toFilter(EnrollmentPageRequest pageRequest) {
+        return new EnrollmentFilter(pageRequest.studentId(), pageRequest.courseId(),
+                pageRequest.enrollmentYear(), pageRequest.semester());
+    }
+
+    private static <T, R> R toPage(List<T> items, int size, Function<T, String> idOf, BiFunction<List<T>, String, R> toResponse) {
+        boolean hasNext = items.size() > size;
+        List<T> page = hasNext ? items.subList(0, size) : items;
+        return toResponse.apply(page, hasNext ? PageToken.encode(idOf.apply(page.get(page.size() - 1))) : null);
     }
 
     @Override
     public Mono<EnrollmentResponseModel> addEnrollment(Mono<EnrollmentRequestModel> enrollmentRequestModel) {
         return enrollmentRequestModel
-                .map(RequestContext::new)
-                .flatMap(this::studentRequestResponse)
-                .flatMap(this::courseRequestResponse)
-                .map(EntityModelMapper::toEntity)
-                .flatMap(enrollmentRepository::save)
+                .flatMap(this::downstreamRequestResponse)
+                .flatMap(context -> saveWithSeat(EntityModelMapper.toEntity(context), context.getCourseResponseModel().capacity()))
+                .flatMap(saved -> countChange(null, saved).thenReturn(saved))
                 .map(EntityModelMapper::toModel);
 
 
     }
 
+    @Override
+    public Flux<EnrollmentBatchResponseModel> addEnrollments(Flux<EnrollmentRequestModel> enrollmentRequestModels) {
+        return enrollmentRequestModels
+                .index()
+                .buffer(BATCH_SIZE)
+                .concatMap(this::addEnrollmentBatch)
+                .map(item -> new EnrollmentBatchResponseModel(item.index(),
+                        item.enrollment() == null ? null : EntityModelMapper.toModel(item.enrollment()),
+                        item.error()));
+    }
+
+    // the distinct students and courses of the batch are resolved with one batch lookup per service,
+    // lines that fail validation or lookup are reported on their own and the rest are written in a single insert
+    private Flux<BatchItem> addEnrollmentBatch(List<Tuple2<Long, EnrollmentRequestModel>> batch) {
+        Mono<Map<String, StudentResponseModel>> students = timed(STUDENTS_SERVICE,
+                studentClient.getStudentsByIds(distinctIds(batch, EnrollmentRequestModel::studentId))
+                        .collectMap(StudentResponseModel::studentId))
+                .cache();
+        Mono<Map<String, CourseResponseModel>> courses = timed(COURSES_SERVICE,
+                courseClient.getCoursesByCourseIds(distinctIds(batch, EnrollmentRequestModel::courseId))
+                        .collectMap(CourseResponseModel::courseId))
+                .cache();
+
+        return Flux.fromIterable(batch)
+                .concatMap(line -> Mono.just(line.getT2())
+                        .transform(RequestValidator.validateBody())
+                        .flatMap(request -> Mono.zip(students, courses)
+                                .flatMap(lookups -> batchRequestContext(request, lookups.getT1(), lookups.getT2())))
+                        .map(EntityModelMapper::toEntity)
+                        .map(enrollment -> new BatchItem(line.getT1(), enrollment, null))
+                        .onErrorResume(ex -> Mono.just(new BatchItem(line.getT1(), null, ex.getMessage()))))
+                .collectList()
+                .flatMapMany(items -> {
+                    List<BatchItem> resolved = items.stream().filter(item -> item.enrollment() != null).toList();
+                    List<BatchItem> rejected = items.stream().filter(item -> item.enrollment() == null).toList();
+                    return reserveSeats(resolved, courses)
+                            .flatMapMany(this::insertSeated)
+                            .concatWith(Flux.fromIterable(rejected))
+                            .sort(Comparator.comparing(BatchItem::index));
+                });
+    }
+
+    // lines left without a seat are reported as they are, the others are inserted and give their seat back if that fails
+    private Flux<BatchItem> insertSeated(List<BatchItem> items) {
+        List<BatchItem> seated = items.stream().filter(item -> item.enrollment() != null).toList();
+        List<BatchItem> full = items.stream().filter(item -> item.enrollment() == null).toList();
+        return insertBatch(seated)
+                .collectList()
+                .flatMapMany(inserted -> releaseUnusedSeats(seated, inserted)
+                        .then(countInserted(inserted))
+                        .thenMany(Flux.concat(Flux.fromIterable(inserted), Flux.fromIterable(full))));
+    }
+
+    // the lines of one course and term take their seats in a single reservation, courses without a capacity take none
+    private Mono<List<BatchItem>> reserveSeats(List<BatchItem> resolved, Mono<Map<String, CourseResponseModel>> courses) {
+        if (resolved.isEmpty()) {
+            return Mono.just(resolved);
+        }
+        Map<EnrollmentCounterKey, List<BatchItem>> byCourseTerm = resolved.stream()
+                .collect(Collectors.groupingBy(item -> EnrollmentCounterKey.of(item.enrollment()), LinkedHashMap::new, Collectors.toList()));
+        return courses.flatMap(courseById -> Flux.fromIterable(byCourseTerm.entrySet())
+                .concatMap(courseTerm -> reserveSeats(courseTerm.getKey(), courseById.get(courseTerm.getKey().courseId()).capacity(), courseTerm.getValue()))
+                .collectList());
+    }
+
+    // when the group does not fit, its lines take the seats that are left one at a time in upload order
+    private Flux<BatchItem> reserveSeats(EnrollmentCounterKey courseTerm, Integer capacity, List<BatchItem> lines) {
+        if (capacity == null) {
+            return Flux.fromIterable(lines);
+        }
+        return courseSeatsRepository.reserve(courseTerm, capacity, lines.size())
+                .flatMapMany(reserved -> reserved
+                        ? Flux.fromIterable(lines)
+                        : Flux.fromIterable(lines).concatMap(line -> courseSeatsRepository.reserve(courseTerm, capacity, 1)
+                                .map(seated -> seated ? line : new BatchItem(line.index(), null, new CourseFullException(
+                                        courseTerm.courseId(), String.valueOf(courseTerm.semester()), courseTerm.enrollmentYear()).getMessage()))));
+    }
+
+    private Mono<Void> releaseUnusedSeats(List<BatchItem> seated, List<BatchItem> inserted) {
+        Set<Long> stored = inserted.stream()
+                .filter(item -> item.enrollment() != null)
+                .map(BatchItem::index)
+                .collect(Collectors.toSet());
+        return Flux.fromIterable(seated.stream()
+                        .filter(item -> !stored.contains(item.index()))
+                        .collect(Collectors.groupingBy(item -> EnrollmentCounterKey.of(item.enrollment()), Collectors.counting()))
+                        .entrySet())
+                .concatMap(unused -> releaseSeats(unused.getKey(), unused.getValue()))
+                .then();
+    }
+
+    private static Mono<RequestContext> batchRequestContext(EnrollmentRequestModel request,
+                                                            Map<String, StudentResponseModel> students,
+                                                            Map<String, CourseResponseModel> courses) {
+        if (!isValidId(request.studentId())) {
+            return ApplicationExceptions.invalidStudentId(request.studentId());
+        }
+        if (!isValidId(request.courseId())) {
+            return ApplicationExceptions.invalidCourseId(request.courseId());
+        }
+        StudentResponseModel student = students.get(request.studentId());
+        if (student == null) {
+            return ApplicationExceptions.studentNotFound(request.studentId());
+        }
+        CourseResponseModel course = courses.get(request.courseId());
+        if (course == null) {
+            return ApplicationExceptions.courseNotFound(request.courseId());
+        }
+        return Mono.just(new RequestContext(request, null, student, course));
+    }
+
+    private Flux<BatchItem> insertBatch(List<BatchItem> resolved) {
+        if (resolved.isEmpty()) {
+            return Flux.empty();
+        }
+        List<Enrollment> enrollments = resolved.stream().map(BatchItem::enrollment).toList();
+        return enrollmentRepository.insert(enrollments)
+                .thenMany(Flux.fromIterable(resolved))
+                .onErrorResume(ex -> {
+                    log.warn("Bulk insert of {} enrollments failed, saving one by one: {}", enrollments.size(), ex.getMessage());
+                    return Flux.fromIterable(resolved).concatMap(this::saveBatchItem);
+                });
+    }
+
+    // an ordered bulk insert stops at the first failing document, so the ones before it are already stored
+    private Mono<BatchItem> saveBatchItem(BatchItem item) {
+        return enrollmentRepository.findEnrollmentByEnrollmentId(item.enrollment().getEnrollmentId())
+                .switchIfEmpty(Mono.defer(() -> saveEnrollment(item.enrollment())))
+                .map(saved -> new BatchItem(item.index(), saved, null))
+                .onErrorResume(ex -> Mono.just(new BatchItem(item.index(), null, ex.getMessage())));
+    }
+
+    //one $inc per course and term of the batch instead of one per line
+    private Mono<Void> countInserted(List<BatchItem> inserted) {
+        Map<EnrollmentCounterKey, Long> deltas = inserted.stream()
+                .map(BatchItem::enrollment)
+                .filter(Objects::nonNull)
+                .collect(Collectors.groupingBy(EnrollmentCounterKey::of, Collectors.counting()));
+        return incrementCounters(deltas);
+    }
+
+    //malformed ids are left out so they cannot make the downstream reject the whole batch
+    private static Set<String> distinctIds(List<Tuple2<Long, EnrollmentRequestModel>> batch,
+                                           Function<EnrollmentRequestModel, String> id) {
+        return batch.stream()
+                .map(line -> id.apply(line.getT2()))
+                .filter(EnrollmentServiceImpl::isValidId)
+                .collect(Collectors.toSet());
+    }
+
+    private static boolean isValidId(String id) {
+        return id != null && id.length() == 36;
+    }
+
+    private record BatchItem(Long index, Enrollment enrollment, String error) {
+    }
+
     @Override
     public Mono<EnrollmentResponseModel> getEnrollmentByEnrollmentId(String enrollmentId) {
         return enrollmentRepository.findEnrollmentByEnrollmentId(enrollmentId)
@@ -53,18 +293,31 @@ public class EnrollmentServiceImpl implements EnrollmentService {
                 .map(EntityModelMapper::toModel);
     }
 
+    @Override
+    public Flux<EnrollmentResponseModel> getEnrollmentsByStudentId(String studentId) {
+        return enrollmentRepository.findAllByStudentIdOrderByIdAsc(studentId)
+                .map(EntityModelMapper::toModel);
+    }
+
+    @Override
+    public Flux<EnrollmentResponseModel> getEnrollmentsByCourseId(String courseId) {
+        return enrollmentRepository.findAllByCourseIdOrderByIdAsc(courseId)
+                .map(EntityModelMapper::toModel);
+    }
+
     @Override
     public Mono<EnrollmentResponseModel> updateEnrollment(Mono<EnrollmentRequestModel> enrollmentRequestModel, String enrollmentId) {
         return enrollmentRepository.findEnrollmentByEnrollmentId(enrollmentId)
                 .flatMap(foundId -> enrollmentRequestModel
-                        .map(RequestContext::new)
-                        .flatMap(this::studentRequestResponse)
-                        .flatMap(this::courseRequestResponse)
-                        .map(EntityModelMapper::toEntity)
-                        .doOnNext(e -> e.setEnrollmentId(enrollmentId))
-                        .doOnNext(e -> e.setId(foundId.getId()))
+                        .flatMap(this::downstreamRequestResponse)
+                        .flatMap(context -> {
+                            Enrollment updated = EntityModelMapper.toEntity(context);
+                            updated.setEnrollmentId(enrollmentId);
+                            updated.setId(foundId.getId());
+                            return moveEnrollment(foundId, updated, context.getCourseResponseModel().capacity());
+                        })
+                        .flatMap(saved -> countChange(foundId, saved).thenReturn(saved))
                 )
-                .flatMap(enrollmentRepository::save)
                 .map(EntityModelMapper::toModel);
     }
 
@@ -72,19 +325,100 @@ public class EnrollmentServiceImpl implements EnrollmentService {
     public Mono<EnrollmentResponseModel> deleteEnrollment(String enrollmentId) {
         return enrollmentRepository.findEnrollmentByEnrollmentId(enrollmentId)
                 .flatMap(found -> enrollmentRepository.delete(found)
+                        .then(releaseSeats(EnrollmentCounterKey.of(found), 1))
+                        .then(countChange(found, null))
                         .then(Mono.just(found)))
                 .map(EntityModelMapper::toModel);
     }
 
-    private Mono<RequestContext> studentRequestResponse(RequestContext requestContext) {
-        return studentClient.getStudentByStudentId(requestContext.getEnrollmentRequestModel().studentId())
-                .doOnNext(requestContext::setStudentResponseModel)
-                .thenReturn(requestContext);
+    @Override
+    public Flux<EnrollmentCountResponseModel> getEnrollmentCounts(String courseId, Integer enrollmentYear, Semester semester) {
+        return enrollmentCounterRepository.findCounts(courseId, enrollmentYear, semester)
+                .map(EntityModelMapper::toCountModel);
+    }
+
+    @Override
+    public Mono<Void> rebuildEnrollmentCounts() {
+        return enrollmentCounterRepository.rebuild();
+    }
+
+    // the seat is taken before the write and given back if the write fails, so a full course never gets one more enrollment
+    private Mono<Enrollment> saveWithSeat(Enrollment enrollment, Integer capacity) {
+        if (capacity == null) {
+            return saveEnrollment(enrollment);
+        }
+        EnrollmentCounterKey courseTerm = EnrollmentCounterKey.of(enrollment);
+        return courseSeatsRepository.reserve(courseTerm, capacity, 1)
+                .filter(Boolean::booleanValue)
+                .switchIfEmpty(ApplicationExceptions.courseFull(enrollment.getCourseId(), String.valueOf(enrollment.getSemester()), enrollment.getEnrollmentYear()))
+                .flatMap(reserved -> saveEnrollment(enrollment)
+                        .onErrorResume(ex -> releaseSeats(courseTerm, 1).then(Mono.error(ex))));
+    }
+
+    // staying in the same course and term keeps the seat, moving takes a seat in the new one before giving the old one back
+    private Mono<Enrollment> moveEnrollment(Enrollment found, Enrollment updated, Integer capacity) {
+        EnrollmentCounterKey from = EnrollmentCounterKey.of(found);
+        if (from.equals(EnrollmentCounterKey.of(updated))) {
+            return saveEnrollment(updated);
+        }
+        return saveWithSeat(updated, capacity)
+                .flatMap(saved -> releaseSeats(from, 1).thenReturn(saved));
+    }
+
+    // a seat that cannot be given back only leaves the course one seat short, so it does not fail the request
+    private Mono<Void> releaseSeats(EnrollmentCounterKey courseTerm, long seats) {
+        return Mono.defer(() -> courseSeatsRepository.release(courseTerm, seats))
+                .onErrorResume(ex -> {
+                    log.warn("{} seats of {} could not be released: {}", seats, courseTerm, ex.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    // an update that keeps the course and term cancels out and writes nothing
+    private Mono<Void> countChange(Enrollment removed, Enrollment added) {
+        Map<EnrollmentCounterKey, Long> deltas = new HashMap<>();
+        if (removed != null) {
+            deltas.merge(EnrollmentCounterKey.of(removed), -1L, Long::sum);
+        }
+        if (added != null) {
+            deltas.merge(EnrollmentCounterKey.of(added), 1L, Long::sum);
+        }
+        return incrementCounters(deltas);
+    }
+
+    // the enrollment is already written, a failed count is only logged and the next rebuild corrects it
+    private Mono<Void> incrementCounters(Map<EnrollmentCounterKey, Long> deltas) {
+        return Mono.defer(() -> enrollmentCounterRepository.increment(deltas))
+                .onErrorResume(ex -> {
+                    log.warn("Enrollment counters {} could not be updated: {}", deltas, ex.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    //the unique student_course_term index turns a second enrollment in the same course and term into a duplicate key error
+    private Mono<Enrollment> saveEnrollment(Enrollment enrollment) {
+        return enrollmentRepository.save(enrollment)
+                .onErrorResume(DuplicateKeyException.class, ex -> ApplicationExceptions.duplicateEnrollment(
+                        enrollment.getStudentId(), enrollment.getCourseId(), String.valueOf(enrollment.getSemester()), enrollment.getEnrollmentYear()));
+    }
+
+    // the student and course lookups are independent, so both legs are subscribed at the same time
+    // and the request only waits for the slower of the two instead of their sum
+    private Mono<RequestContext> downstreamRequestResponse(EnrollmentRequestModel enrollmentRequestModel) {
+        return Mono.zip(
+                        timed(STUDENTS_SERVICE, studentClient.getStudentByStudentId(enrollmentRequestModel.studentId())),
+                        timed(COURSES_SERVICE, courseClient.getCourseByCourseId(enrollmentRequestModel.courseId())))
+                .map(responses -> new RequestContext(enrollmentRequestModel, null, responses.getT1(), responses.getT2()));
     }
 
-    private Mono<RequestContext> courseRequestResponse(RequestContext requestContext) {
-        return courseClient.getCourseByCourseId(requestContext.getEnrollmentRequestModel().courseId())
-                .doOnNext(requestContext::setCourseResponseModel)
-                .thenReturn(requestContext);
+    private <T> Mono<T> timed(String service, Mono<T> downstreamCall) {
+        return Mono.defer(() -> {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            return downstreamCall.doFinally(signalType -> sample.stop(Timer.builder(DOWNSTREAM_LATENCY)
+                    .description("Latency of each downstream lookup made while building an enrollment")
+                    .tag("service", service)
+                    .tag("outcome", signalType.name())
+                    .register(meterRegistry)));
+        });
     }
 }
\ No newline at end of file
@@ -0,0 +1,33 @@
+package com.champlain.enrollmentsservice.businesslayer.enrollments;
+
+import com.champlain.enrollmentsservice.exceptionhandling.ApplicationExceptions;
+import org.bson.types.ObjectId;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Optional;
+
+//the continuation token wraps the _id the next page starts after, clients only pass it back
+class PageToken {
+
+    private PageToken() {
+    }
+
+    static String encode(String lastId) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(lastId.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    //no token means the first page, a token that was not made by encode is an error
+    static Mono<Optional<String>> decode(String pageToken) {
+        if (pageToken == null) {
+            return Mono.just(Optional.empty());
+        }
+        try {
+            String lastId = new String(Base64.getUrlDecoder().decode(pageToken), StandardCharsets.US_ASCII);
+            return ObjectId.isValid(lastId) ? Mono.just(Optional.of(lastId)) : ApplicationExceptions.invalidPageToken(pageToken);
+        } catch (IllegalArgumentException ex) {
+            return ApplicationExceptions.invalidPageToken(pageToken);
+        }
+    }
+}
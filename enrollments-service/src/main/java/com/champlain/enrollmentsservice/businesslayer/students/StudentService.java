@@ -1,6 +1,7 @@
 package com.champlain.enrollmentsservice.businesslayer.students;
 
 import com.champlain.enrollmentsservice.domainclientlayer.students.StudentResponseModel;
+import com.champlain.enrollmentsservice.presentationlayer.students.StrategyBenchmarkResponseModel;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
@@ -10,8 +11,10 @@ public interface StudentService {
     Flux<StudentResponseModel> getAllStudents();
     List<StudentResponseModel> get1000StudentsSyncLoop();
     List<StudentResponseModel> get1000StudentsSyncParallel();
+    Mono<List<StudentResponseModel>> get1000StudentsSyncVirtual();
     Flux<StudentResponseModel> get1000StudentsAsync();
     Flux<StudentResponseModel> get1000StudentsAsyncParallel();
     Flux<StudentResponseModel> get1000StudentsAsyncBounded();
     Mono<StudentResponseModel> getStudentByStudentId(String studentId);
+    Flux<StrategyBenchmarkResponseModel> benchmarkStrategies(int warmup, int iterations);
 }
@@ -3,21 +3,55 @@ package com.champlain.enrollmentsservice.businesslayer.students;
 import com.champlain.enrollmentsservice.domainclientlayer.students.StudentResponseModel;
 import com.champlain.enrollmentsservice.domainclientlayer.students.StudentServiceClientAsynchronous;
 import com.champlain.enrollmentsservice.domainclientlayer.students.StudentServiceClientSynchronous;
+import com.champlain.enrollmentsservice.presentationlayer.students.StrategyBenchmarkResponseModel;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
 
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 @Service
 public class StudentServiceImpl implements StudentService {
 
+    //one timer per fan-out strategy, tagged strategy and outcome
+    public static final String STRATEGY_TIMER = "enrollments.students.strategy";
+
     private final StudentServiceClientSynchronous studentServiceClientSynchronous;
     private final StudentServiceClientAsynchronous studentServiceClientAsynchronous;
+    private final MeterRegistry meterRegistry;
+    private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+
+    //blocking work is handed to virtual threads so it never runs on a reactor-http-epoll thread
+    private final Scheduler virtualThreads = Schedulers.fromExecutorService(Executors.newVirtualThreadPerTaskExecutor(), "virtual");
 
-    public StudentServiceImpl(StudentServiceClientSynchronous studentServiceClientSynchronous, StudentServiceClientAsynchronous studentServiceClientAsynchronous) {
+    //what the benchmark runs, the synchronous strategies are moved off the event loop like syncvirtual
+    private final Map<String, Supplier<Flux<StudentResponseModel>>> strategies = new LinkedHashMap<>();
+
+    public StudentServiceImpl(StudentServiceClientSynchronous studentServiceClientSynchronous, StudentServiceClientAsynchronous studentServiceClientAsynchronous,
+                              MeterRegistry meterRegistry) {
         this.studentServiceClientSynchronous = studentServiceClientSynchronous;
         this.studentServiceClientAsynchronous = studentServiceClientAsynchronous;
+        this.meterRegistry = meterRegistry;
+
+        strategies.put("syncloop", () -> offEventLoop(this::get1000StudentsSyncLoop));
+        strategies.put("syncparallel", () -> offEventLoop(this::get1000StudentsSyncParallel));
+        strategies.put("syncvirtual", () -> get1000StudentsSyncVirtual().flatMapIterable(Function.identity()));
+        strategies.put("async", this::get1000StudentsAsync);
+        strategies.put("asyncparallel", this::get1000StudentsAsyncParallel);
+        strategies.put("asyncbounded", this::get1000StudentsAsyncBounded);
     }
 
     @Override
@@ -28,32 +62,129 @@ public class StudentServiceImpl implements StudentService {
     //synchronous
     @Override
     public List<StudentResponseModel> get1000StudentsSyncLoop() {
-        return studentServiceClientSynchronous.get1000StudentsLoop();
+        return timed("syncloop", studentServiceClientSynchronous::get1000StudentsLoop);
     }
 
     @Override
     public List<StudentResponseModel> get1000StudentsSyncParallel() {
-        return studentServiceClientSynchronous.get1000StudentsSyncParallel();
+        return timed("syncparallel", studentServiceClientSynchronous::get1000StudentsSyncParallel);
+    }
+
+    @Override
+    public Mono<List<StudentResponseModel>> get1000StudentsSyncVirtual() {
+        return Mono.fromCallable(() -> timed("syncvirtual", studentServiceClientSynchronous::get1000StudentsVirtualThreads))
+                .subscribeOn(virtualThreads);
     }
 
     //asynchronous
     @Override
     public Flux<StudentResponseModel> get1000StudentsAsync() {
-        return studentServiceClientAsynchronous.get1000StudentsAsync();
+        return timed("async", studentServiceClientAsynchronous.get1000StudentsAsync());
     }
 
     @Override
     public Flux<StudentResponseModel> get1000StudentsAsyncParallel() {
-        return studentServiceClientAsynchronous.get1000StudentsAsyncParallel();
+        return timed("asyncparallel", studentServiceClientAsynchronous.get1000StudentsAsyncParallel());
     }
 
     @Override
     public Flux<StudentResponseModel> get1000StudentsAsyncBounded() {
-        return studentServiceClientAsynchronous.get1000StudentsAsyncBounded();
+        return timed("asyncbounded", studentServiceClientAsynchronous.get1000StudentsAsyncBounded());
     }
 
     @Override
     public Mono<StudentResponseModel> getStudentByStudentId(String studentId) {
         return studentServiceClientAsynchronous.getStudentByStudentId(studentId);
     }
+
+    /*
+       Runs every strategy warmup times, then iterations more times one after the other, and reports
+       the latency of the measured runs. peakThreads is the most platform threads alive during the
+       measured runs (virtual threads are not counted), so two benchmarks at once will skew it.
+     */
+    @Override
+    public Flux<StrategyBenchmarkResponseModel> benchmarkStrategies(int warmup, int iterations) {
+        return Flux.fromIterable(strategies.entrySet())
+                .concatMap(strategy -> benchmark(strategy.getKey(), strategy.getValue(), warmup, iterations));
+    }
+
+    private Mono<StrategyBenchmarkResponseModel> benchmark(String strategy, Supplier<Flux<StudentResponseModel>> students, int warmup, int iterations) {
+        return Flux.range(0, warmup)
+                .concatMap(i -> students.get().then())
+                .then(Mono.fromRunnable(threads::resetPeakThreadCount))
+                .thenMany(Flux.range(0, iterations)
+                        .concatMap(i -> Mono.defer(() -> {
+                            long start = System.nanoTime();
+                            return students.get()
+                                    .count()
+                                    .map(count -> new Run(System.nanoTime() - start, count));
+                        })))
+                .collectList()
+                .map(runs -> toBenchmarkResult(strategy, runs, threads.getPeakThreadCount()));
+    }
+
+    private record Run(long nanos, long students) {
+    }
+
+    private static StrategyBenchmarkResponseModel toBenchmarkResult(String strategy, List<Run> runs, int peakThreads) {
+        long[] nanos = runs.stream().mapToLong(Run::nanos).sorted().toArray();
+        long students = runs.stream().mapToLong(Run::students).sum();
+        return new StrategyBenchmarkResponseModel(
+                strategy,
+                runs.size(),
+                percentileMillis(nanos, 50),
+                percentileMillis(nanos, 95),
+                percentileMillis(nanos, 99),
+                students / (Arrays.stream(nanos).sum() / 1e9),
+                peakThreads);
+    }
+
+    //nearest rank on the sorted run times
+    private static double percentileMillis(long[] sortedNanos, double percentile) {
+        int rank = (int) Math.ceil(percentile / 100 * sortedNanos.length);
+        return sortedNanos[Math.max(rank - 1, 0)] / 1e6;
+    }
+
+    private Flux<StudentResponseModel> offEventLoop(Supplier<List<StudentResponseModel>> students) {
+        return Mono.fromSupplier(students)
+                .subscribeOn(virtualThreads)
+                .flatMapIterable(Function.identity());
+    }
+
+    private <T> T timed(String strategy, Supplier<T> students) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
+        try {
+            T result = students.get();
+            outcome = "success";
+            return result;
+        } finally {
+            sample.stop(strategyTimer(strategy, outcome));
+        }
+    }
+
+    //the timer stops when the last student arrives, not when the pipeline has been assembled
+    private <T> Flux<T> timed(String strategy, Flux<T> students) {
+        return Flux.defer(() -> {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            return students.doFinally(signal -> sample.stop(strategyTimer(strategy, outcome(signal))));
+        });
+    }
+
+    private static String outcome(SignalType signal) {
+        return switch (signal) {
+            case ON_COMPLETE -> "success";
+            case ON_ERROR -> "error";
+            default -> "cancelled";
+        };
+    }
+
+    private Timer strategyTimer(String strategy, String outcome) {
+        return Timer.builder(STRATEGY_TIMER)
+                .description("Time until every one of the 1000 students has been received")
+                .tag("strategy", strategy)
+                .tag("outcome", outcome)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+    }
 }
@@ -0,0 +1,25 @@
+package com.champlain.enrollmentsservice.config;
+
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.core.env.Environment;
+
+import java.time.Duration;
+
+//connection pool and http timeouts of one downstream, bound from app.<service>.pool.*
+//responseTimeout is a backstop and stays above the per-call app.<service>.timeout (2s by default)
+public record ConnectionPoolSettings(@DefaultValue("100") int maxConnections,
+                                     @DefaultValue("500") int pendingAcquireMaxCount,
+                                     @DefaultValue("1s") Duration pendingAcquireTimeout,
+                                     @DefaultValue("30s") Duration maxIdleTime,
+                                     @DefaultValue("5m") Duration maxLifeTime,
+                                     @DefaultValue("30s") Duration evictInBackground,
+                                     @DefaultValue("1s") Duration connectTimeout,
+                                     @DefaultValue("3s") Duration responseTimeout,
+                                     @DefaultValue("0") int warmupConnections) {
+
+    public static ConnectionPoolSettings of(Environment environment, String service) {
+        return Binder.get(environment)
+                .bindOrCreate("app." + service + ".pool", ConnectionPoolSettings.class);
+    }
+}
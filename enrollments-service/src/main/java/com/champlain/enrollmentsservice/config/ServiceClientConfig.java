@@ -1,62 +1,193 @@
 package com.champlain.enrollmentsservice.config;
 
+import com.champlain.enrollmentsservice.domainclientlayer.RequestCollapser;
 import com.champlain.enrollmentsservice.domainclientlayer.courses.CourseServiceClient;
 import com.champlain.enrollmentsservice.domainclientlayer.students.StudentServiceClientAsynchronous;
+import com.champlain.enrollmentsservice.domainclientlayer.students.StudentSnapshot;
 import com.champlain.enrollmentsservice.domainclientlayer.students.StudentServiceClientSynchronous;
+import com.champlain.enrollmentsservice.domainclientlayer.courses.CourseResponseModel;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import io.netty.channel.ChannelOption;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 @Configuration
 @Slf4j
-public class ServiceClientConfig {
+public class ServiceClientConfig implements DisposableBean {
+
+    private final List<ConnectionProvider> connectionProviders = new CopyOnWriteArrayList<>();
 
     @Bean
     public CourseServiceClient courseServiceClient(@Value("${app.courses-service.host}") String courseServiceHost,
-                                                   @Value("${app.courses-service.port}") String courseServicePort) {
+                                                   @Value("${app.courses-service.port}") String courseServicePort,
+                                                   @Value("${app.courses-service.timeout:2s}") Duration courseServiceTimeout,
+                                                   @Value("${app.courses-service.cache.maximum-size:1000}") long courseCacheMaximumSize,
+                                                   @Value("${app.courses-service.cache.ttl:10m}") Duration courseCacheTtl,
+                                                   @Value("${app.courses-service.collapser.enabled:false}") boolean courseCollapserEnabled,
+                                                   @Value("${app.courses-service.collapser.window:2ms}") Duration courseCollapserWindow,
+                                                   @Value("${app.courses-service.collapser.max-batch-size:100}") int courseCollapserMaxBatchSize,
+                                                   MeterRegistry meterRegistry,
+                                                   Environment environment) {
 
         var baseUrl = "http://" + courseServiceHost + ":" + courseServicePort + "/api/v1/courses";
         log.debug("CourseServiceClient baseUrl: {}", baseUrl);
-        return new CourseServiceClient(createWebClient(baseUrl));
+
+        //size-bounded (W-TinyLFU eviction) with a ttl so renamed courses are eventually picked up
+        AsyncCache<String, CourseResponseModel> courseCache = Caffeine.newBuilder()
+                .maximumSize(courseCacheMaximumSize)
+                .expireAfterWrite(courseCacheTtl)
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, courseCache, "courses");
+
+        var collapsing = new RequestCollapser.Settings(courseCollapserEnabled, courseCollapserWindow, courseCollapserMaxBatchSize);
+        return new CourseServiceClient(createWebClient("courses-service", baseUrl, ConnectionPoolSettings.of(environment, "courses-service")), courseServiceTimeout, courseCache, collapsing, meterRegistry);
     }
 
     @Bean
     public StudentServiceClientAsynchronous studentServiceClientAsynchronous(@Value("${app.students-service.host}") String studentServiceHost,
-                                                                 @Value("${app.students-service.port}") String studentServicePort) {
+                                                                 @Value("${app.students-service.port}") String studentServicePort,
+                                                                 @Value("${app.students-service.timeout:2s}") Duration studentServiceTimeout,
+                                                                 @Value("${app.students-service.cache.maximum-weight:4MB}") DataSize studentCacheMaximumWeight,
+                                                                 @Value("${app.students-service.cache.ttl:10m}") Duration studentCacheTtl,
+                                                                 @Value("${app.students-service.collapser.enabled:false}") boolean studentCollapserEnabled,
+                                                                 @Value("${app.students-service.collapser.window:2ms}") Duration studentCollapserWindow,
+                                                                 @Value("${app.students-service.collapser.max-batch-size:100}") int studentCollapserMaxBatchSize,
+                                                                 MeterRegistry meterRegistry,
+                                                                 Environment environment) {
 
         var baseUrl = "http://" + studentServiceHost + ":" + studentServicePort + "/api/v1/students";
         log.debug("StudentServiceClientAsynchronous baseUrl: {}", baseUrl);
-        return new StudentServiceClientAsynchronous(createWebClient(baseUrl));
+
+        //bounded by approximate bytes held rather than entry count
+        AsyncCache<String, StudentSnapshot> studentCache = Caffeine.newBuilder()
+                .maximumWeight(studentCacheMaximumWeight.toBytes())
+                .<String, StudentSnapshot>weigher((studentId, snapshot) -> snapshot.weight())
+                .expireAfterWrite(studentCacheTtl)
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, studentCache, "students");
+
+        var collapsing = new RequestCollapser.Settings(studentCollapserEnabled, studentCollapserWindow, studentCollapserMaxBatchSize);
+        return new StudentServiceClientAsynchronous(createWebClient("students-service", baseUrl, ConnectionPoolSettings.of(environment, "students-service")), studentServiceTimeout, studentCache, collapsing, meterRegistry);
     }
 
+    //pooled apache client: the default RestTemplate opens a new connection for every call
     @Bean
-    RestTemplate restTemplate()
+    RestTemplate restTemplate(@Value("${app.students-service.sync.max-connections:200}") int maxConnections,
+                              @Value("${app.students-service.sync.connection-request-timeout:2s}") Duration connectionRequestTimeout,
+                              @Value("${app.students-service.timeout:2s}") Duration responseTimeout)
     {
-        return new RestTemplate();
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxConnections)
+                .setMaxConnPerRoute(maxConnections)
+                .build();
+        CloseableHttpClient httpClient = HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.of(connectionRequestTimeout))
+                        .setResponseTimeout(Timeout.of(responseTimeout))
+                        .build())
+                .evictIdleConnections(TimeValue.ofSeconds(30))
+                .build();
+        return new RestTemplate(new HttpComponentsClientHttpRequestFactory(httpClient));
     }
 
     @Bean
     public StudentServiceClientSynchronous studentServiceClientSynchronous(@Value("${app.students-service.host}") String studentServiceHost,
                                                                            @Value("${app.students-service.port}") String studentServicePort,
                                                                            RestTemplate restTemplate,
-                                                                           ObjectMapper mapper
+                                                                           ObjectMapper mapper,
+                                                                           MeterRegistry meterRegistry
     ) {
 
         var baseUrl = "http://" + studentServiceHost + ":" + studentServicePort + "/api/v1/students";
         log.debug("StudentServiceClientSynchronous baseUrl: {}", baseUrl);
-        return new StudentServiceClientSynchronous(baseUrl, restTemplate, mapper);
+        return new StudentServiceClientSynchronous(baseUrl, restTemplate, mapper, meterRegistry);
     }
 
 
-    private WebClient createWebClient(String baseUrl) {
-        log.info("base url: {}", baseUrl);
-        return WebClient.builder()
+    /*
+       Each downstream gets its own pool so a slow service can only exhaust its own connections.
+       Requests waiting for a connection are bounded by pendingAcquireMaxCount and pendingAcquireTimeout instead of
+       queueing without limit, and the pool publishes reactor.netty.connection.provider.* metrics
+       (active, idle, pending connections) tagged with the pool name.
+     */
+    private WebClient createWebClient(String name, String baseUrl, ConnectionPoolSettings pool) {
+        log.info("base url: {}, pool: {}", baseUrl, pool);
+        ConnectionProvider connectionProvider = ConnectionProvider.builder(name)
+                .maxConnections(pool.maxConnections())
+                .pendingAcquireMaxCount(pool.pendingAcquireMaxCount())
+                .pendingAcquireTimeout(pool.pendingAcquireTimeout())
+                .maxIdleTime(pool.maxIdleTime())
+                .maxLifeTime(pool.maxLifeTime())
+                .evictInBackground(pool.evictInBackground())
+                .metrics(true)
+                .build();
+        connectionProviders.add(connectionProvider);
+
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) pool.connectTimeout().toMillis())
+                .responseTimeout(pool.responseTimeout());
+        //loads the event loop, dns resolver and native transport now instead of on the first request
+        httpClient.warmup().block();
+
+        WebClient webClient = WebClient.builder()
                 .baseUrl(baseUrl)
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
                 .build();
+        openConnections(name, webClient, pool.warmupConnections());
+        return webClient;
+    }
+
+    //best effort: OPTIONS is answered by the framework without running a handler, and the connections go back to the pool
+    private void openConnections(String name, WebClient webClient, int connections) {
+        if (connections <= 0) {
+            return;
+        }
+        Flux.range(0, connections)
+                .flatMap(i -> webClient.options()
+                        .retrieve()
+                        .toBodilessEntity()
+                        .onErrorResume(ex -> {
+                            log.debug("Could not open a warm-up connection to {}: {}", name, ex.getMessage());
+                            return Mono.empty();
+                        }), connections)
+                .count()
+                .subscribe(opened -> log.info("Opened {} of {} warm-up connections to {}", opened, connections, name));
+    }
+
+    @Override
+    public void destroy() {
+        connectionProviders.forEach(ConnectionProvider::dispose);
     }
 
 }
@@ -0,0 +1,28 @@
+package com.champlain.enrollmentsservice.dataaccesslayer;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+//seats still open in one course for one term, only kept for courses that have a capacity.
+//capacity is the one seatsLeft was last worked out from, seatsLeft goes below zero when it was lowered under the enrollments already made
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Document("courseSeats")
+@CompoundIndex(name = "course_term", def = "{'courseId': 1, 'enrollmentYear': 1, 'semester': 1}", unique = true)
+public class CourseSeats {
+
+    @Id
+    private String id;
+    private String courseId;
+    private Integer enrollmentYear;
+    private Semester semester;
+    private Integer capacity;
+    private Long seatsLeft;
+}
@@ -0,0 +1,15 @@
+package com.champlain.enrollmentsservice.dataaccesslayer;
+
+import reactor.core.publisher.Mono;
+
+public interface CourseSeatsRepositoryCustom {
+
+    //takes all the seats or none, capacity is only used the first time the course and term is seen, later changes go through resize
+    Mono<Boolean> reserve(EnrollmentCounterKey courseTerm, int capacity, long seats);
+
+    //moves every term of the course to the new capacity, a null capacity drops its seat counts since the course has no limit anymore
+    Mono<Void> resize(String courseId, Integer capacity);
+
+    //gives seats back, does nothing for a course and term that never had a reservation
+    Mono<Void> release(EnrollmentCounterKey courseTerm, long seats);
+}
@@ -0,0 +1,83 @@
+package com.champlain.enrollmentsservice.dataaccesslayer;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.aggregation.ArithmeticOperators;
+import org.springframework.data.mongodb.core.aggregation.ConditionalOperators;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Mono;
+
+/*
+   A reservation is a single findAndModify that only matches while seatsLeft covers the request, so
+   Mongo's document-level atomicity decides who gets the last seat and no lock is held anywhere.
+   Requests for different courses never touch the same document.
+
+   The seats document is created on the first reservation that finds none, starting from the capacity
+   minus the enrollments stored for that course and term, counted on the course_page index. Concurrent first
+   reservations race on the unique course_term index, the losers keep the winner's document.
+
+   A capacity change is applied to every term of the course as the difference between the new capacity and the one
+   the document holds, in one pipeline update per document, so it adds up with reservations running at the same time.
+ */
+public class CourseSeatsRepositoryCustomImpl implements CourseSeatsRepositoryCustom {
+
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    public CourseSeatsRepositoryCustomImpl(ReactiveMongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public Mono<Boolean> reserve(EnrollmentCounterKey courseTerm, int capacity, long seats) {
+        return take(courseTerm, seats)
+                .switchIfEmpty(Mono.defer(() -> open(courseTerm, capacity).then(take(courseTerm, seats))))
+                .hasElement();
+    }
+
+    @Override
+    public Mono<Void> release(EnrollmentCounterKey courseTerm, long seats) {
+        return mongoTemplate.updateFirst(courseTerm(courseTerm), new Update().inc("seatsLeft", seats), CourseSeats.class)
+                .then();
+    }
+
+    private Mono<CourseSeats> take(EnrollmentCounterKey courseTerm, long seats) {
+        Query available = courseTerm(courseTerm).addCriteria(Criteria.where("seatsLeft").gte(seats));
+        return mongoTemplate.findAndModify(available, new Update().inc("seatsLeft", -seats),
+                FindAndModifyOptions.options().returnNew(true), CourseSeats.class);
+    }
+
+    @Override
+    public Mono<Void> resize(String courseId, Integer capacity) {
+        if (capacity == null) {
+            return mongoTemplate.remove(Query.query(Criteria.where("courseId").is(courseId)), CourseSeats.class)
+                    .then();
+        }
+        Query outdated = Query.query(Criteria.where("courseId").is(courseId).and("capacity").ne(capacity));
+        //documents written before capacity was stored keep their seatsLeft and only take the capacity
+        AggregationUpdate resize = AggregationUpdate.update()
+                .set("seatsLeft").toValue(ArithmeticOperators.Add.valueOf("seatsLeft")
+                        .add(ArithmeticOperators.Subtract.valueOf(capacity)
+                                .subtract(ConditionalOperators.ifNull("capacity").then(capacity))))
+                .set("capacity").toValue(capacity);
+        return mongoTemplate.updateMulti(outdated, resize, CourseSeats.class)
+                .then();
+    }
+
+    private Mono<Void> open(EnrollmentCounterKey courseTerm, int capacity) {
+        return mongoTemplate.count(courseTerm(courseTerm), Enrollment.class)
+                .flatMap(enrolled -> mongoTemplate.upsert(courseTerm(courseTerm),
+                        new Update().setOnInsert("capacity", capacity).setOnInsert("seatsLeft", capacity - enrolled), CourseSeats.class))
+                .onErrorResume(DuplicateKeyException.class, ex -> Mono.empty())
+                .then();
+    }
+
+    private static Query courseTerm(EnrollmentCounterKey courseTerm) {
+        return Query.query(Criteria.where("courseId").is(courseTerm.courseId())
+                .and("enrollmentYear").is(courseTerm.enrollmentYear())
+                .and("semester").is(courseTerm.semester()));
+    }
+}
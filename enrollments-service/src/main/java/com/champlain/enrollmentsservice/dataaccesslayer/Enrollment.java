@@ -5,15 +5,27 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
 
+//ensured at startup by EnrollmentIndexInitializer, the *_page indexes serve keyset pages filtered by student or course and the transcript and roster reads
 @Data
 @Builder
 @AllArgsConstructor
 @NoArgsConstructor
+@Document
+@CompoundIndexes({
+        @CompoundIndex(name = "student_course_term", def = "{'studentId': 1, 'courseId': 1, 'enrollmentYear': 1, 'semester': 1}", unique = true),
+        @CompoundIndex(name = "student_page", def = "{'studentId': 1, '_id': 1}"),
+        @CompoundIndex(name = "course_page", def = "{'courseId': 1, '_id': 1}")
+})
 public class Enrollment {
 
     @Id
     private String id;
+    @Indexed(unique = true)
     private String enrollmentId;
     private Integer enrollmentYear;
     private Semester semester;
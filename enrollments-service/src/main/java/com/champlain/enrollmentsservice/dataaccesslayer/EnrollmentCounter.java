@@ -0,0 +1,26 @@
+package com.champlain.enrollmentsservice.dataaccesslayer;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+//number of enrollments in one course for one term, kept up to date with $inc and rebuilt by EnrollmentCounterReconciler
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Document("enrollmentCounters")
+@CompoundIndex(name = "course_term", def = "{'courseId': 1, 'enrollmentYear': 1, 'semester': 1}", unique = true)
+public class EnrollmentCounter {
+
+    @Id
+    private String id;
+    private String courseId;
+    private Integer enrollmentYear;
+    private Semester semester;
+    private Long count;
+}
@@ -0,0 +1,15 @@
+package com.champlain.enrollmentsservice.dataaccesslayer;
+
+//the course and term an enrollment is counted under
+public record EnrollmentCounterKey(String courseId,
+                                   Integer enrollmentYear,
+                                   Semester semester) {
+
+    public static EnrollmentCounterKey of(Enrollment enrollment) {
+        return new EnrollmentCounterKey(enrollment.getCourseId(), enrollment.getEnrollmentYear(), enrollment.getSemester());
+    }
+
+    public static EnrollmentCounterKey of(EnrollmentCounter counter) {
+        return new EnrollmentCounterKey(counter.getCourseId(), counter.getEnrollmentYear(), counter.getSemester());
+    }
+}
@@ -0,0 +1,8 @@
+package com.champlain.enrollmentsservice.dataaccesslayer;
+
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface EnrollmentCounterRepository extends ReactiveMongoRepository<EnrollmentCounter, String>, EnrollmentCounterRepositoryCustom {
+}
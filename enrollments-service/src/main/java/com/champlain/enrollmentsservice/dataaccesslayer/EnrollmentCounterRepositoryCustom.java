@@ -0,0 +1,18 @@
+package com.champlain.enrollmentsservice.dataaccesslayer;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+public interface EnrollmentCounterRepositoryCustom {
+
+    //adds each delta to its counter, creating the counters that do not exist yet, zero deltas are skipped
+    Mono<Void> increment(Map<EnrollmentCounterKey, Long> deltas);
+
+    //every argument is optional, the ones that are set are combined with and
+    Flux<EnrollmentCounter> findCounts(String courseId, Integer enrollmentYear, Semester semester);
+
+    //recounts the enrollments collection and corrects the counters that are still off after a second look, best-effort
+    Mono<Void> rebuild();
+}
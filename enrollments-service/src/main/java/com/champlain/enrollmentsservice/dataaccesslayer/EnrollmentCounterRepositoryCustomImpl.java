@@ -0,0 +1,153 @@
+package com.champlain.enrollmentsservice.dataaccesslayer;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.ReactiveBulkOperations;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+
+/*
+   Counters are changed with upserted $inc in one unordered bulk write, so concurrent writers never read
+   and write back a count and a batch upload costs one round trip however many courses it touches.
+
+   An enrollment is saved before its $inc lands, so for a moment the enrollments and the counter disagree
+   even though nothing is wrong. The rebuild therefore only corrects a difference that lasts:
+   - it reads every counter and groups the enrollments in mongo, the keys where the two differ are candidates
+   - after rebuild-settle-delay each candidate is read and recounted again, and corrected only if both the counter
+     and the count are what the first pass saw, with a compare-and-set on that counter value
+   A candidate that moved in between had a write in flight and is left for the next rebuild.
+   This is best-effort: a write still in flight after the settle delay can be counted twice or not at all,
+   until the next rebuild looks at it again.
+ */
+@Slf4j
+public class EnrollmentCounterRepositoryCustomImpl implements EnrollmentCounterRepositoryCustom {
+
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final Duration settleDelay;
+
+    public EnrollmentCounterRepositoryCustomImpl(ReactiveMongoTemplate mongoTemplate,
+                                                 @Value("${app.enrollments.counters.rebuild-settle-delay:PT2S}") Duration settleDelay) {
+        this.mongoTemplate = mongoTemplate;
+        this.settleDelay = settleDelay;
+    }
+
+    @Override
+    public Mono<Void> increment(Map<EnrollmentCounterKey, Long> deltas) {
+        if (deltas.values().stream().allMatch(delta -> delta == 0)) {
+            return Mono.empty();
+        }
+        ReactiveBulkOperations bulkOps = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, EnrollmentCounter.class);
+        deltas.forEach((key, delta) -> {
+            if (delta != 0) {
+                bulkOps.upsert(Query.query(courseTerm(key)), new Update().inc("count", delta));
+            }
+        });
+        return bulkOps.execute().then();
+    }
+
+    @Override
+    public Flux<EnrollmentCounter> findCounts(String courseId, Integer enrollmentYear, Semester semester) {
+        Criteria criteria = new Criteria();
+        if (courseId != null) {
+            criteria.and("courseId").is(courseId);
+        }
+        if (enrollmentYear != null) {
+            criteria.and("enrollmentYear").is(enrollmentYear);
+        }
+        if (semester != null) {
+            criteria.and("semester").is(semester);
+        }
+        return mongoTemplate.find(new Query(criteria).with(Sort.by("courseId", "enrollmentYear", "semester")), EnrollmentCounter.class);
+    }
+
+    @Override
+    public Mono<Void> rebuild() {
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.group("courseId", "enrollmentYear", "semester").count().as("count"),
+                Aggregation.project("courseId", "enrollmentYear", "semester", "count").andExclude("_id"));
+        return mongoTemplate.findAll(EnrollmentCounter.class)
+                .collectMap(counter -> EnrollmentCounterKey.of(counter), EnrollmentCounter::getCount)
+                .flatMap(counted -> mongoTemplate.aggregate(aggregation, Enrollment.class, EnrollmentCounter.class)
+                        .collectMap(counter -> EnrollmentCounterKey.of(counter), EnrollmentCounter::getCount)
+                        .map(actual -> {
+                            Set<EnrollmentCounterKey> keys = new LinkedHashSet<>(counted.keySet());
+                            keys.addAll(actual.keySet());
+                            return keys.stream()
+                                    .filter(key -> !counted.getOrDefault(key, 0L).equals(actual.getOrDefault(key, 0L)))
+                                    .map(key -> new Candidate(key, counted.get(key), actual.getOrDefault(key, 0L)))
+                                    .toList();
+                        }))
+                .filter(candidates -> !candidates.isEmpty())
+                .delayElement(settleDelay)
+                .flatMapMany(Flux::fromIterable)
+                .concatMap(this::correctIfSettled)
+                .then();
+    }
+
+    // the counter and the count both have to be where the first pass left them, otherwise a write was in flight
+    private Mono<Void> correctIfSettled(Candidate candidate) {
+        EnrollmentCounterKey key = candidate.key();
+        return mongoTemplate.findOne(Query.query(courseTerm(key)), EnrollmentCounter.class)
+                .map(counter -> Optional.of(counter.getCount()))
+                .defaultIfEmpty(Optional.empty())
+                .zipWith(mongoTemplate.count(Query.query(courseTerm(key)), Enrollment.class))
+                .flatMap(reread -> {
+                    boolean settled = Objects.equals(reread.getT1().orElse(null), candidate.counted())
+                            && reread.getT2() == candidate.actual();
+                    if (!settled) {
+                        log.info("Enrollment counter {} changed during the rebuild, left for the next one", key);
+                        return Mono.just(false);
+                    }
+                    return compareAndSet(key, candidate.counted(), candidate.actual());
+                })
+                .doOnNext(corrected -> {
+                    if (corrected) {
+                        log.info("Enrollment counter {} corrected from {} to {}", key, candidate.counted(), candidate.actual());
+                    }
+                })
+                .then();
+    }
+
+    // expected is the count read earlier, null when there was no counter. a counter left at zero is removed
+    private Mono<Boolean> compareAndSet(EnrollmentCounterKey key, Long expected, long actual) {
+        if (expected == null) {
+            return mongoTemplate.insert(new EnrollmentCounter(null, key.courseId(), key.enrollmentYear(), key.semester(), actual))
+                    .thenReturn(true)
+                    //an $inc created the counter first
+                    .onErrorResume(DuplicateKeyException.class, ex -> Mono.just(false));
+        }
+        Query unchanged = Query.query(courseTerm(key).and("count").is(expected));
+        if (actual == 0) {
+            return mongoTemplate.remove(unchanged, EnrollmentCounter.class)
+                    .map(result -> result.getDeletedCount() > 0);
+        }
+        return mongoTemplate.updateFirst(unchanged, new Update().set("count", actual), EnrollmentCounter.class)
+                .map(result -> result.getMatchedCount() > 0);
+    }
+
+    //counted is null when there was no counter
+    private record Candidate(EnrollmentCounterKey key, Long counted, long actual) {
+    }
+
+    //the same fields identify a counter and the enrollments it counts
+    private static Criteria courseTerm(EnrollmentCounterKey key) {
+        return Criteria.where("courseId").is(key.courseId())
+                .and("enrollmentYear").is(key.enrollmentYear())
+                .and("semester").is(key.semester());
+    }
+}
@@ -0,0 +1,8 @@
+package com.champlain.enrollmentsservice.dataaccesslayer;
+
+//every field is optional, the ones that are set are combined with and
+public record EnrollmentFilter(String studentId,
+                               String courseId,
+                               Integer enrollmentYear,
+                               Semester semester) {
+}
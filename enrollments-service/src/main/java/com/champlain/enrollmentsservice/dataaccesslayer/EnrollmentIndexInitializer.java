@@ -0,0 +1,69 @@
+package com.champlain.enrollmentsservice.dataaccesslayer;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+import org.springframework.data.mongodb.core.index.ReactiveIndexOperations;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+/*
+   Creates the indexes declared on Enrollment, EnrollmentCounter and CourseSeats before anything else is loaded, so lookups
+   by enrollmentId are index scans, duplicate enrollments are rejected by Mongo itself and each course and term
+   has a single counter and a single seat count.
+   An index that cannot be built (e.g. the collection already holds duplicates) is logged and skipped,
+   the service still starts and the other indexes are still created.
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class EnrollmentIndexInitializer implements CommandLineRunner {
+
+    private static final Duration INDEX_BUILD_TIMEOUT = Duration.ofMinutes(5);
+
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    public EnrollmentIndexInitializer(ReactiveMongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public void run(String... args) {
+        ensureIndexes().block(INDEX_BUILD_TIMEOUT);
+    }
+
+    public Mono<Void> ensureIndexes() {
+        return Flux.just(Enrollment.class, EnrollmentCounter.class, CourseSeats.class)
+                .concatMap(this::ensureIndexes)
+                .then();
+    }
+
+    private Mono<Void> ensureIndexes(Class<?> documentClass) {
+        String collection = mongoTemplate.getCollectionName(documentClass);
+        ReactiveIndexOperations indexOps = mongoTemplate.indexOps(documentClass);
+        IndexResolver resolver = IndexResolver.create(mongoTemplate.getConverter().getMappingContext());
+
+        return Flux.fromIterable(resolver.resolveIndexFor(documentClass))
+                .concatMap(index -> ensureIndex(indexOps, collection, index))
+                .thenMany(indexOps.getIndexInfo())
+                .doOnNext(index -> log.info("Index {} on {}: keys={} unique={}", index.getName(), collection, index.getIndexFields(), index.isUnique()))
+                .then();
+    }
+
+    private static Mono<String> ensureIndex(ReactiveIndexOperations indexOps, String collection, IndexDefinition index) {
+        long start = System.nanoTime();
+        return indexOps.ensureIndex(index)
+                .doOnNext(name -> log.info("Index {} on {} is ready ({} ms)", name, collection, Duration.ofNanos(System.nanoTime() - start).toMillis()))
+                .onErrorResume(ex -> {
+                    log.error("Index {} on {} could not be built: {}", index.getIndexKeys().toJson(), collection, ex.getMessage());
+                    return Mono.empty();
+                });
+    }
+}
@@ -1,11 +1,20 @@
 package com.champlain.enrollmentsservice.dataaccesslayer;
 
+import org.springframework.data.mongodb.repository.Meta;
 import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
 import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 @Repository
-public interface EnrollmentRepository extends ReactiveMongoRepository<Enrollment, String> {
+public interface EnrollmentRepository extends ReactiveMongoRepository<Enrollment, String>, EnrollmentRepositoryCustom {
 
     Mono<Enrollment> findEnrollmentByEnrollmentId(String enrollmentId);
+
+    //transcript and roster, the student_page and course_page indexes cover both the filter and the _id order
+    @Meta(cursorBatchSize = 100)
+    Flux<Enrollment> findAllByStudentIdOrderByIdAsc(String studentId);
+
+    @Meta(cursorBatchSize = 100)
+    Flux<Enrollment> findAllByCourseIdOrderByIdAsc(String courseId);
 }
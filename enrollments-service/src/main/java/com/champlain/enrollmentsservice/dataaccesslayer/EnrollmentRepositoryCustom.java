@@ -0,0 +1,26 @@
+package com.champlain.enrollmentsservice.dataaccesslayer;
+
+import org.bson.Document;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+import java.util.Map;
+
+public interface EnrollmentRepositoryCustom {
+
+    //at most limit enrollments matching the filter whose _id comes after afterId (null for the first page), in _id order
+    Flux<Enrollment> findPage(EnrollmentFilter filter, String afterId, int limit);
+
+    //same page as findPage, but each document only holds _id and the requested fields
+    Flux<Document> findPageFields(EnrollmentFilter filter, String afterId, int limit, Collection<String> fields);
+
+    //only the requested fields of the enrollment, without _id
+    Mono<Map<String, Object>> findFieldsByEnrollmentId(String enrollmentId, Collection<String> fields);
+
+    //rewrites the copied course number and name on every enrollment of the course still holding other values, returns how many changed
+    Mono<Long> updateCourseDetails(String courseId, String courseNumber, String courseName);
+
+    //same for the copied student names
+    Mono<Long> updateStudentNames(String studentId, String firstName, String lastName);
+}
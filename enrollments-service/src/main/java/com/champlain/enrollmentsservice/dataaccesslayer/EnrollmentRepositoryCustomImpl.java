@@ -0,0 +1,104 @@
+package com.champlain.enrollmentsservice.dataaccesslayer;
+
+import com.mongodb.client.result.UpdateResult;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+import java.util.Map;
+
+/*
+   Keyset pagination: each page starts right after the last _id of the previous one, so a page costs
+   the same wherever it is in the collection, unlike skip. The student_page and course_page indexes
+   serve the filtered pages; a year or semester filter on its own walks the _id index.
+   The *Fields reads project the requested fields in mongo and return the raw documents,
+   so only those fields go over the wire and no Enrollment is mapped for them.
+   The update* writes are one updateMany each, led by the courseId or studentId prefix of the *_page indexes;
+   enrollments already holding the new values are left out of the match so a repeated change writes nothing.
+ */
+public class EnrollmentRepositoryCustomImpl implements EnrollmentRepositoryCustom {
+
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final int cursorBatchSize;
+
+    public EnrollmentRepositoryCustomImpl(ReactiveMongoTemplate mongoTemplate,
+                                          @Value("${app.enrollments.page.cursor-batch-size:100}") int cursorBatchSize) {
+        this.mongoTemplate = mongoTemplate;
+        this.cursorBatchSize = cursorBatchSize;
+    }
+
+    @Override
+    public Flux<Enrollment> findPage(EnrollmentFilter filter, String afterId, int limit) {
+        return mongoTemplate.find(pageQuery(filter, afterId, limit), Enrollment.class);
+    }
+
+    @Override
+    public Flux<Document> findPageFields(EnrollmentFilter filter, String afterId, int limit, Collection<String> fields) {
+        Query query = pageQuery(filter, afterId, limit);
+        fields.forEach(field -> query.fields().include(field));
+        return mongoTemplate.find(query, Document.class, mongoTemplate.getCollectionName(Enrollment.class));
+    }
+
+    @Override
+    public Mono<Map<String, Object>> findFieldsByEnrollmentId(String enrollmentId, Collection<String> fields) {
+        Query query = new Query(Criteria.where("enrollmentId").is(enrollmentId));
+        fields.forEach(field -> query.fields().include(field));
+        query.fields().exclude("_id");
+        //a Document is a Map<String, Object>, Mono.from only widens the element type
+        return Mono.from(mongoTemplate.findOne(query, Document.class, mongoTemplate.getCollectionName(Enrollment.class)));
+    }
+
+    @Override
+    public Mono<Long> updateCourseDetails(String courseId, String courseNumber, String courseName) {
+        Query query = new Query(Criteria.where("courseId").is(courseId)
+                .orOperator(Criteria.where("courseNumber").ne(courseNumber), Criteria.where("courseName").ne(courseName)));
+        Update update = new Update()
+                .set("courseNumber", courseNumber)
+                .set("courseName", courseName);
+        return mongoTemplate.updateMulti(query, update, Enrollment.class)
+                .map(UpdateResult::getModifiedCount);
+    }
+
+    @Override
+    public Mono<Long> updateStudentNames(String studentId, String firstName, String lastName) {
+        Query query = new Query(Criteria.where("studentId").is(studentId)
+                .orOperator(Criteria.where("studentFirstName").ne(firstName), Criteria.where("studentLastName").ne(lastName)));
+        Update update = new Update()
+                .set("studentFirstName", firstName)
+                .set("studentLastName", lastName);
+        return mongoTemplate.updateMulti(query, update, Enrollment.class)
+                .map(UpdateResult::getModifiedCount);
+    }
+
+    private Query pageQuery(EnrollmentFilter filter, String afterId, int limit) {
+        Criteria criteria = new Criteria();
+        if (filter.studentId() != null) {
+            criteria.and("studentId").is(filter.studentId());
+        }
+        if (filter.courseId() != null) {
+            criteria.and("courseId").is(filter.courseId());
+        }
+        if (filter.enrollmentYear() != null) {
+            criteria.and("enrollmentYear").is(filter.enrollmentYear());
+        }
+        if (filter.semester() != null) {
+            criteria.and("semester").is(filter.semester());
+        }
+        if (afterId != null) {
+            criteria.and("_id").gt(new ObjectId(afterId));
+        }
+
+        return new Query(criteria)
+                .with(Sort.by(Sort.Direction.ASC, "_id"))
+                .limit(limit)
+                .cursorBatchSize(Math.min(limit, cursorBatchSize));
+    }
+}
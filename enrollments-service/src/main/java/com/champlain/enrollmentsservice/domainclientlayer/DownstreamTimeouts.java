@@ -0,0 +1,22 @@
+package com.champlain.enrollmentsservice.domainclientlayer;
+
+import io.netty.handler.timeout.ReadTimeoutException;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+
+import java.util.concurrent.TimeoutException;
+
+/*
+   A slow downstream surfaces in two ways: the per-call timeout() raises a TimeoutException, and the netty
+   response timeout of the pool raises a ReadTimeoutException wrapped in a WebClientRequestException.
+   Both are the same failure for the caller and are mapped to a downstream timeout (504).
+ */
+public final class DownstreamTimeouts {
+
+    private DownstreamTimeouts() {
+    }
+
+    public static boolean isTimeout(Throwable ex) {
+        return ex instanceof TimeoutException
+                || ex instanceof WebClientRequestException && ex.getCause() instanceof ReadTimeoutException;
+    }
+}
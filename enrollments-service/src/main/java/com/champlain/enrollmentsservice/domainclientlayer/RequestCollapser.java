@@ -0,0 +1,96 @@
+package com.champlain.enrollmentsservice.domainclientlayer;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+
+import java.time.Duration;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/*
+   Gathers single-key lookups that arrive within a short window (or until maxBatchSize keys are waiting)
+   and resolves them with one call to the batch loader, then completes each caller's Mono with its own value.
+   A key missing from the loaded map completes its callers empty, a failed batch fails every caller in it.
+ */
+@Slf4j
+public class RequestCollapser<K, V> {
+
+    private static final String BATCH_SIZE = "enrollments.collapser.batch.size";
+    private static final String WINDOW_WAIT = "enrollments.collapser.window.wait";
+
+    private final Function<Set<K>, Mono<Map<K, V>>> batchLoader;
+    private final DistributionSummary batchSize;
+    private final Timer windowWait;
+    private FluxSink<PendingRequest<K, V>> requests;
+
+    public RequestCollapser(String name, Settings settings, MeterRegistry meterRegistry,
+                            Function<Set<K>, Mono<Map<K, V>>> batchLoader) {
+        this.batchLoader = batchLoader;
+        this.batchSize = DistributionSummary.builder(BATCH_SIZE)
+                .description("Distinct keys sent in each collapsed batch request")
+                .tag("client", name)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.windowWait = Timer.builder(WINDOW_WAIT)
+                .description("Time a lookup waits for its batch to be dispatched")
+                .tag("client", name)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+
+        // the sink of Flux.create serializes next() calls coming from many request threads
+        Flux.<PendingRequest<K, V>>create(sink -> this.requests = sink)
+                .bufferTimeout(settings.maxBatchSize(), settings.window(), true)
+                .flatMap(this::dispatch)
+                .subscribe(null, ex -> log.error("Request collapser {} stopped", name, ex));
+    }
+
+    public Mono<V> get(K key) {
+        return Mono.create(sink -> requests.next(new PendingRequest<>(key, sink, System.nanoTime())));
+    }
+
+    private Mono<Void> dispatch(List<PendingRequest<K, V>> batch) {
+        long dispatchedAt = System.nanoTime();
+        batch.forEach(pending -> windowWait.record(dispatchedAt - pending.enqueuedAt(), TimeUnit.NANOSECONDS));
+
+        Set<K> keys = batch.stream()
+                .map(PendingRequest::key)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        batchSize.record(keys.size());
+
+        return Mono.defer(() -> batchLoader.apply(keys))
+                .defaultIfEmpty(Map.of())
+                .doOnNext(values -> batch.forEach(pending -> pending.complete(values.get(pending.key()))))
+                .doOnError(ex -> batch.forEach(pending -> pending.sink().error(ex)))
+                .onErrorComplete()
+                .then();
+    }
+
+    private record PendingRequest<K, V>(K key, MonoSink<V> sink, long enqueuedAt) {
+
+        void complete(V value) {
+            if (value == null) {
+                sink.success();
+            } else {
+                sink.success(value);
+            }
+        }
+    }
+
+    public record Settings(boolean enabled, Duration window, int maxBatchSize) {
+
+        public static Settings disabled() {
+            return new Settings(false, Duration.ZERO, 1);
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.champlain.enrollmentsservice.domainclientlayer;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.publisher.Flux;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/*
+   Answers "which thread ran this stage" with meters instead of a log line per element:
+
+   enrollments.pipeline.stage.elements   counter, elements seen per pipeline, stage and thread pool
+   enrollments.pipeline.threads          distinct threads a stage ran on during one run
+   enrollments.pipeline.thread.hops      times consecutive elements of one run were on different threads
+
+   The pool is the thread name without its trailing number (reactor-http-epoll, parallel, boundedElastic,
+   ForkJoinPool.commonPool-worker), or virtual for unnamed virtual threads.
+   Query them on /actuator/metrics, e.g. enrollments.pipeline.stage.elements?tag=pipeline:asyncbounded
+ */
+public class ThreadTelemetry {
+
+    private static final String STAGE_ELEMENTS = "enrollments.pipeline.stage.elements";
+    private static final String THREADS = "enrollments.pipeline.threads";
+    private static final String THREAD_HOPS = "enrollments.pipeline.thread.hops";
+
+    //resolved once per thread, so recording an element does no string work
+    private static final ThreadLocal<String> pool = ThreadLocal.withInitial(() -> poolOf(Thread.currentThread()));
+
+    private final MeterRegistry meterRegistry;
+
+    public ThreadTelemetry(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    //records every element that passes through, one run per subscription, finished before completion reaches the subscriber
+    public <T> Function<Flux<T>, Flux<T>> stage(String pipeline, String stage) {
+        return elements -> Flux.defer(() -> {
+            Run run = start(pipeline, stage);
+            return elements
+                    .doOnNext(element -> run.record())
+                    .doOnTerminate(run::finish)
+                    .doOnCancel(run::finish);
+        });
+    }
+
+    //for blocking pipelines: call record() wherever the work runs and finish() once it is done
+    public Run start(String pipeline, String stage) {
+        return new Run(pipeline, stage);
+    }
+
+    static String poolOf(Thread thread) {
+        String name = thread.getName();
+        if (name.isEmpty()) {
+            return thread.isVirtual() ? "virtual" : "unnamed";
+        }
+        int end = name.length();
+        while (end > 0 && Character.isDigit(name.charAt(end - 1))) {
+            end--;
+        }
+        if (end > 0 && end < name.length() && name.charAt(end - 1) == '-') {
+            end--;
+        }
+        return end == 0 ? name : name.substring(0, end);
+    }
+
+    //safe to record from several threads at once, as parallel streams do
+    public class Run {
+
+        private final String pipeline;
+        private final String stage;
+        private final Map<String, Counter> elements = new ConcurrentHashMap<>();
+        private final Set<Long> threads = ConcurrentHashMap.newKeySet();
+        private final AtomicLong lastThread = new AtomicLong(-1);
+        private final AtomicLong hops = new AtomicLong();
+        private final AtomicBoolean finished = new AtomicBoolean();
+
+        private Run(String pipeline, String stage) {
+            this.pipeline = pipeline;
+            this.stage = stage;
+        }
+
+        public void record() {
+            long thread = Thread.currentThread().threadId();
+            long previous = lastThread.getAndSet(thread);
+            if (previous != -1 && previous != thread) {
+                hops.incrementAndGet();
+            }
+            threads.add(thread);
+            elements.computeIfAbsent(pool.get(), this::elementCounter).increment();
+        }
+
+        public void finish() {
+            if (threads.isEmpty() || !finished.compareAndSet(false, true)) {
+                return;
+            }
+            summary(THREADS, "Distinct threads a pipeline stage ran on in one run").record(threads.size());
+            summary(THREAD_HOPS, "Consecutive elements of one run handled on different threads").record(hops.get());
+        }
+
+        private Counter elementCounter(String threadPool) {
+            return Counter.builder(STAGE_ELEMENTS)
+                    .description("Elements handled by a pipeline stage, by thread pool")
+                    .tag("pipeline", pipeline)
+                    .tag("stage", stage)
+                    .tag("pool", threadPool)
+                    .register(meterRegistry);
+        }
+
+        private DistributionSummary summary(String name, String description) {
+            return DistributionSummary.builder(name)
+                    .description(description)
+                    .tag("pipeline", pipeline)
+                    .tag("stage", stage)
+                    .publishPercentiles(0.5, 0.99)
+                    .register(meterRegistry);
+        }
+    }
+}
@@ -5,5 +5,6 @@ public record CourseResponseModel(String courseId,
                                   String courseName,
                                   Integer numHours,
                                   Double numCredits,
-                                  String department) {
+                                  String department,
+                                  Integer capacity) {
 }
@@ -1,29 +1,112 @@
 package com.champlain.enrollmentsservice.domainclientlayer.courses;
 
+import com.champlain.enrollmentsservice.domainclientlayer.DownstreamTimeouts;
+import com.champlain.enrollmentsservice.domainclientlayer.RequestCollapser;
 import com.champlain.enrollmentsservice.exceptionhandling.ApplicationExceptions;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientException;
 import org.springframework.web.reactive.function.client.WebClientResponseException.UnprocessableEntity;
 import org.springframework.web.reactive.function.client.WebClientResponseException.NotFound;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
 @Slf4j
 public class CourseServiceClient {
 
     private final WebClient webClient;
+    private final Duration timeout;
+    private final AsyncCache<String, CourseResponseModel> courseCache;
+    private final RequestCollapser<String, CourseResponseModel> courseCollapser;
+
+    //courses-service rejects lookups for more than 1000 ids
+    private static final int BATCH_SIZE = 500;
+
+    public CourseServiceClient(WebClient webClient, Duration timeout, AsyncCache<String, CourseResponseModel> courseCache,
+                               MeterRegistry meterRegistry) {
+        this(webClient, timeout, courseCache, RequestCollapser.Settings.disabled(), meterRegistry);
+    }
 
-    public CourseServiceClient(WebClient webClient) {
+    public CourseServiceClient(WebClient webClient, Duration timeout, AsyncCache<String, CourseResponseModel> courseCache,
+                               RequestCollapser.Settings collapsing, MeterRegistry meterRegistry) {
         this.webClient = webClient;
+        this.timeout = timeout;
+        this.courseCache = courseCache;
+        this.courseCollapser = collapsing.enabled()
+                ? new RequestCollapser<>("courses-service", collapsing, meterRegistry, this::fetchCoursesByCourseIds)
+                : null;
     }
 
+    // read-through: concurrent misses for the same courseId share the one in-flight request held by the cache.
+    // failed or empty loads are not kept, so errors like a 404 are retried on the next call.
+    // suppressCancel keeps one subscriber cancelling from aborting the load the other subscribers are waiting on.
     public Mono<CourseResponseModel> getCourseByCourseId(String courseId) {
+        return Mono.defer(() -> {
+            CompletableFuture<CourseResponseModel> course = courseCache.get(courseId, (id, executor) -> fetchCourseByCourseId(id).toFuture());
+            //caffeine drops failed futures asynchronously, evict right away so an immediate retry reloads
+            return Mono.fromFuture(course, true)
+                    .doOnError(ex -> courseCache.asMap().remove(courseId, course));
+        });
+    }
+
+    //drops the cached course so the next lookup sees a rename right away instead of after the ttl
+    public void evictCourse(String courseId) {
+        courseCache.synchronous().invalidate(courseId);
+    }
+
+    // only the ids missing from the cache are requested, in chunks of BATCH_SIZE through the batch endpoint,
+    // and every course returned is cached. unknown courseIds are absent from the result.
+    public Flux<CourseResponseModel> getCoursesByCourseIds(Collection<String> courseIds) {
+        Set<String> distinctCourseIds = new LinkedHashSet<>(courseIds);
+        if (distinctCourseIds.isEmpty()) {
+            return Flux.empty();
+        }
+        return Mono.fromFuture(() -> courseCache.getAll(distinctCourseIds, (missing, executor) -> fetchCoursesByCourseIds(missing).toFuture()), true)
+                .flatMapIterable(Map::values);
+    }
+
+    private Mono<Map<String, CourseResponseModel>> fetchCoursesByCourseIds(Set<? extends String> courseIds) {
+        return Flux.fromIterable(courseIds)
+                .buffer(BATCH_SIZE)
+                .concatMap(chunk -> webClient.post()
+                        .uri("/batch")
+                        .bodyValue(chunk)
+                        .retrieve()
+                        .bodyToFlux(CourseResponseModel.class)
+                        .timeout(timeout)
+                        .onErrorResume(UnprocessableEntity.class, ex -> ApplicationExceptions.invalidCourseId(String.join(",", chunk)))
+                        .onErrorResume(DownstreamTimeouts::isTimeout, ex -> ApplicationExceptions.downstreamTimeout("courses-service", String.join(",", chunk))))
+                .collectMap(CourseResponseModel::courseId);
+    }
+
+    // cache misses go through the collapser when it is enabled, so concurrent misses for different courses
+    // share one batch request. malformed ids keep the single lookup so they cannot fail a whole batch with a 422.
+    private Mono<CourseResponseModel> fetchCourseByCourseId(String courseId) {
+        if (courseCollapser == null || courseId.length() != 36) {
+            return requestCourseByCourseId(courseId);
+        }
+        return courseCollapser.get(courseId)
+                .switchIfEmpty(ApplicationExceptions.courseNotFound(courseId));
+    }
+
+    private Mono<CourseResponseModel> requestCourseByCourseId(String courseId) {
         return webClient.get()
                 .uri("/{courseId}", courseId)
                 .retrieve()
                 .bodyToMono(CourseResponseModel.class)
+                .timeout(timeout)
                 .onErrorResume(NotFound.class, ex -> ApplicationExceptions.courseNotFound(courseId))
-                .onErrorResume(UnprocessableEntity.class, ex -> ApplicationExceptions.invalidCourseId(courseId));
+                .onErrorResume(UnprocessableEntity.class, ex -> ApplicationExceptions.invalidCourseId(courseId))
+                .onErrorResume(DownstreamTimeouts::isTimeout, ex -> ApplicationExceptions.downstreamTimeout("courses-service", courseId));
 
     }
-}
\ No newline at end of file
+}
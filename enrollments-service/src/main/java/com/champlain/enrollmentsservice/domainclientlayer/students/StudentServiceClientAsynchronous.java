@@ -1,7 +1,11 @@
 package com.champlain.enrollmentsservice.domainclientlayer.students;
 
-import com.champlain.enrollmentsservice.domainclientlayer.courses.CourseResponseModel;
+import com.champlain.enrollmentsservice.domainclientlayer.DownstreamTimeouts;
+import com.champlain.enrollmentsservice.domainclientlayer.RequestCollapser;
+import com.champlain.enrollmentsservice.domainclientlayer.ThreadTelemetry;
 import com.champlain.enrollmentsservice.exceptionhandling.ApplicationExceptions;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.Generated;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.web.reactive.function.client.WebClient;
@@ -11,31 +15,108 @@ import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.core.scheduler.Schedulers;
 
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.IntStream;
 
-import static java.lang.Thread.currentThread;
-
 @Slf4j
 public class StudentServiceClientAsynchronous {
 
     private final WebClient webClient;
+    private final Duration timeout;
+    private final AsyncCache<String, StudentSnapshot> studentCache;
+    private final RequestCollapser<String, StudentSnapshot> studentCollapser;
+    private final ThreadTelemetry threadTelemetry;
+
+    //students-service rejects batches larger than its own limit of 1000 ids
+    private static final int BATCH_SIZE = 500;
 
     private final List<Integer> range = IntStream.rangeClosed(1, 1000)
             .boxed()
             .toList();
 
-    public StudentServiceClientAsynchronous(WebClient webClient) {
+    public StudentServiceClientAsynchronous(WebClient webClient, Duration timeout, AsyncCache<String, StudentSnapshot> studentCache,
+                                            MeterRegistry meterRegistry) {
+        this(webClient, timeout, studentCache, RequestCollapser.Settings.disabled(), meterRegistry);
+    }
+
+    public StudentServiceClientAsynchronous(WebClient webClient, Duration timeout, AsyncCache<String, StudentSnapshot> studentCache,
+                                            RequestCollapser.Settings collapsing, MeterRegistry meterRegistry) {
         this.webClient = webClient;
+        this.timeout = timeout;
+        this.studentCache = studentCache;
+        this.studentCollapser = collapsing.enabled()
+                ? new RequestCollapser<>("students-service", collapsing, meterRegistry, this::fetchStudentSnapshots)
+                : null;
+        this.threadTelemetry = new ThreadTelemetry(meterRegistry);
     }
 
+    // read-through on slim snapshots: the returned model only carries the identity fields, stuff is always null.
+    // concurrent misses share one request and failed or empty loads are not cached.
     public Mono<StudentResponseModel> getStudentByStudentId(final String studentId) {
+        return Mono.defer(() -> {
+            CompletableFuture<StudentSnapshot> student = studentCache.get(studentId, (id, executor) -> fetchStudentSnapshot(id).toFuture());
+            return Mono.fromFuture(student, true)
+                    .doOnError(ex -> studentCache.asMap().remove(studentId, student))
+                    .map(StudentSnapshot::toResponseModel);
+        });
+    }
+
+    //drops the cached snapshot so the next lookup sees a rename right away instead of after the ttl
+    public void evictStudent(String studentId) {
+        studentCache.synchronous().invalidate(studentId);
+    }
+
+    // only the ids missing from the cache are requested, in chunks of BATCH_SIZE through the batch endpoint,
+    // and every snapshot returned is cached. unknown studentIds are absent from the result.
+    public Flux<StudentResponseModel> getStudentsByIds(final Collection<String> studentIds) {
+        Set<String> distinctStudentIds = new LinkedHashSet<>(studentIds);
+        if (distinctStudentIds.isEmpty()) {
+            return Flux.empty();
+        }
+        return Mono.fromFuture(() -> studentCache.getAll(distinctStudentIds, (missing, executor) -> fetchStudentSnapshots(missing).toFuture()), true)
+                .flatMapIterable(Map::values)
+                .map(StudentSnapshot::toResponseModel);
+    }
+
+    private Mono<Map<String, StudentSnapshot>> fetchStudentSnapshots(final Set<? extends String> studentIds) {
+        return Flux.fromIterable(studentIds)
+                .buffer(BATCH_SIZE)
+                .concatMap(chunk -> this.webClient.post()
+                        .uri("/batch")
+                        .bodyValue(chunk)
+                        .retrieve()
+                        .bodyToFlux(StudentSnapshot.class)
+                        .timeout(timeout)
+                        .onErrorResume(UnprocessableEntity.class, ex -> ApplicationExceptions.invalidStudentId(String.join(",", chunk)))
+                        .onErrorResume(DownstreamTimeouts::isTimeout, ex -> ApplicationExceptions.downstreamTimeout("students-service", String.join(",", chunk))))
+                .collectMap(StudentSnapshot::studentId);
+    }
+
+    // cache misses go through the collapser when it is enabled, so concurrent misses for different students
+    // share one batch request. malformed ids keep the single lookup so they cannot fail a whole batch with a 422.
+    private Mono<StudentSnapshot> fetchStudentSnapshot(final String studentId) {
+        if (studentCollapser == null || studentId.length() != 36) {
+            return requestStudentSnapshot(studentId);
+        }
+        return studentCollapser.get(studentId)
+                .switchIfEmpty(ApplicationExceptions.studentNotFound(studentId));
+    }
+
+    private Mono<StudentSnapshot> requestStudentSnapshot(final String studentId) {
         return this.webClient.get()
                 .uri("/{studentId}", studentId)
                 .retrieve()
-                .bodyToMono(StudentResponseModel.class)
+                .bodyToMono(StudentSnapshot.class)
+                .timeout(timeout)
                 .onErrorResume(NotFound.class, ex -> ApplicationExceptions.studentNotFound(studentId))
-                .onErrorResume(UnprocessableEntity.class, ex -> ApplicationExceptions.invalidStudentId(studentId));
+                .onErrorResume(UnprocessableEntity.class, ex -> ApplicationExceptions.invalidStudentId(studentId))
+                .onErrorResume(DownstreamTimeouts::isTimeout, ex -> ApplicationExceptions.downstreamTimeout("students-service", studentId));
     }
 
         /*
@@ -89,8 +170,9 @@ enrollments-service  | 2024-08-13T19:31:55.520Z  INFO 1 --- [enrollments-service
          */
 
         return Flux.fromIterable(range)
+                .transform(threadTelemetry.stage("async", "request"))
                 .flatMap(this::getStudent)
-                .doOnNext(s -> log.info("Current thread running " + currentThread()));
+                .transform(threadTelemetry.stage("async", "response"));
     }
 
     @Generated
@@ -113,8 +195,9 @@ enrollments-service              | 2024-08-20T16:44:49.503Z  INFO 1 --- [enrollm
          */
 
         return Flux.fromIterable(range)
+                .transform(threadTelemetry.stage("asyncparallel", "request"))
                 .flatMap(this::getStudent)
-                .doOnNext(s -> log.info("Current thread running " + currentThread()))
+                .transform(threadTelemetry.stage("asyncparallel", "response"))
                 .subscribeOn(Schedulers.parallel());
     }
 
@@ -143,8 +226,9 @@ enrollments-service  | 2024-08-13T19:27:24.622Z  INFO 1 --- [enrollments-service
 
 
         return Flux.fromIterable(range)
+                .transform(threadTelemetry.stage("asyncbounded", "request"))
                 .flatMap(this::getStudent)
-                .doOnNext(s -> log.info("Current thread running " + currentThread()))
+                .transform(threadTelemetry.stage("asyncbounded", "response"))
                 .subscribeOn(Schedulers.boundedElastic());
     }
 }
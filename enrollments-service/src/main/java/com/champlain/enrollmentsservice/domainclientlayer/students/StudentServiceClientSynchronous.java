@@ -1,30 +1,36 @@
 package com.champlain.enrollmentsservice.domainclientlayer.students;
 
+import com.champlain.enrollmentsservice.domainclientlayer.ThreadTelemetry;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.stream.IntStream;
 
-import static java.lang.Thread.currentThread;
-
 @Slf4j
 public class StudentServiceClientSynchronous {
 
     private final RestTemplate restTemplate;
     private final ObjectMapper mapper;
+    private final ThreadTelemetry threadTelemetry;
 
     private final List<Integer> range = IntStream.rangeClosed(1, 1000)
             .boxed()
             .toList();
 
-    public StudentServiceClientSynchronous(String baseUrl, RestTemplate restTemplate, ObjectMapper mapper) {
+    public StudentServiceClientSynchronous(String baseUrl, RestTemplate restTemplate, ObjectMapper mapper, MeterRegistry meterRegistry) {
         this.restTemplate = restTemplate;
         this.restTemplate.setUriTemplateHandler(new DefaultUriBuilderFactory(baseUrl));
         this.mapper = mapper;
+        this.threadTelemetry = new ThreadTelemetry(meterRegistry);
     }
 
     public StudentResponseModel getStudentSync(int id) {
@@ -46,14 +52,16 @@ enrollments-service  | 2024-08-13T19:43:57.085Z  INFO 1 --- [enrollments-service
        */
 
         List<StudentResponseModel> studentResponseModels = new ArrayList<>();
+        ThreadTelemetry.Run run = threadTelemetry.start("syncloop", "request");
 
         for (int i = 1; i < 1001; i++) {
 
-            log.info("Current thread running " + currentThread());
+            run.record();
             studentResponseModels.add(getStudentSync(i));
 
         }
 
+        run.finish();
         return studentResponseModels;
     }
 
@@ -71,11 +79,48 @@ enrollments-service  | 2024-08-13T19:46:23.562Z  INFO 1 --- [enrollments-service
 
 /*
          */
-        return range.parallelStream()
+        ThreadTelemetry.Run run = threadTelemetry.start("syncparallel", "request");
+        List<StudentResponseModel> studentResponseModels = range.parallelStream()
                 .map(i -> {
-                    log.info("Current thread running " + currentThread());
+                    run.record();
                     return getStudentSync(i);
                 })
                 .toList();
+        run.finish();
+        return studentResponseModels;
+    }
+
+    public List<StudentResponseModel> get1000StudentsVirtualThreads() {
+
+        /* One virtual thread per lookup: a thread blocked in the RestTemplate unmounts from its carrier,
+           so the 1000 calls are bounded by the http connection pool rather than by a small platform thread pool.
+           The executor's close() waits for every task to finish.
+         */
+        ThreadTelemetry.Run run = threadTelemetry.start("syncvirtual", "request");
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<StudentResponseModel>> students = range.stream()
+                    .map(i -> executor.submit(() -> {
+                        run.record();
+                        return getStudentSync(i);
+                    }))
+                    .toList();
+
+            List<StudentResponseModel> studentResponseModels = new ArrayList<>(students.size());
+            for (Future<StudentResponseModel> student : students) {
+                studentResponseModels.add(student.get());
+            }
+            return studentResponseModels;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while getting students on virtual threads", e);
+        } catch (ExecutionException e) {
+            //a failed lookup surfaces as the RestTemplate exception itself, like in the other sync strategies
+            if (e.getCause() instanceof RuntimeException downstream) {
+                throw downstream;
+            }
+            throw new IllegalStateException("Failed to get students on virtual threads", e.getCause());
+        } finally {
+            run.finish();
+        }
     }
 }
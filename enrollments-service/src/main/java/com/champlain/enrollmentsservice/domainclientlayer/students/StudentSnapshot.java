@@ -0,0 +1,24 @@
+package com.champlain.enrollmentsservice.domainclientlayer.students;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+//slim view of a student: the stuff payload is skipped by the parser instead of being materialized and thrown away
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record StudentSnapshot(String studentId,
+                              String firstName,
+                              String lastName,
+                              String program) {
+
+    //rough retained size in bytes, used as the cache weight
+    public int weight() {
+        return 64 + 2 * (length(studentId) + length(firstName) + length(lastName) + length(program));
+    }
+
+    StudentResponseModel toResponseModel() {
+        return new StudentResponseModel(studentId, firstName, lastName, program, null);
+    }
+
+    private static int length(String value) {
+        return value == null ? 0 : value.length();
+    }
+}
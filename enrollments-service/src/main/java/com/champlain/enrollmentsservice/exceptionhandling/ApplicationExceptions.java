@@ -3,6 +3,8 @@ package com.champlain.enrollmentsservice.exceptionhandling;
 import com.champlain.enrollmentsservice.exceptionhandling.exceptions.*;
 import reactor.core.publisher.Mono;
 
+import java.util.Collection;
+
 public class ApplicationExceptions {
 
     public static <T> Mono<T> enrollmentNotFound(String enrollmentId) {
@@ -29,6 +31,18 @@ public class ApplicationExceptions {
         return Mono.error(new InvalidEnrollmentIdException(enrollmentId));
     }
 
+    public static <T> Mono<T> downstreamTimeout(String service, String id) {
+        return Mono.error(new DownstreamTimeoutException(service, id));
+    }
+
+    public static <T> Mono<T> duplicateEnrollment(String studentId, String courseId, String semester, Integer enrollmentYear) {
+        return Mono.error(new DuplicateEnrollmentException(studentId, courseId, semester, enrollmentYear));
+    }
+
+    public static <T> Mono<T> courseFull(String courseId, String semester, Integer enrollmentYear) {
+        return Mono.error(new CourseFullException(courseId, semester, enrollmentYear));
+    }
+
     public static <T> Mono<T> invalidEnrollmentYear() {
         return Mono.error(new InvalidEnrollmentYearException("Enrollment year must be between 2000 and this year + 1"));
     }
@@ -45,4 +59,20 @@ public class ApplicationExceptions {
         return Mono.error(new InvalidEnrollmentRequestException("Semester is required"));
     }
 
+    public static <T> Mono<T> invalidPageToken(String pageToken) {
+        return Mono.error(new InvalidInputException("Page token " + pageToken + " is not valid"));
+    }
+
+    public static <T> Mono<T> invalidPageSize(int maxSize) {
+        return Mono.error(new InvalidInputException("Page size must be between 1 and " + maxSize));
+    }
+
+    public static <T> Mono<T> invalidFields(Collection<String> fields, Collection<String> allowedFields) {
+        return Mono.error(new InvalidInputException("Fields " + fields + " are not valid, allowed fields are " + allowedFields));
+    }
+
+    public static <T> Mono<T> invalidBenchmarkRequest(int maxIterations, int maxWarmup) {
+        return Mono.error(new InvalidInputException("Benchmark iterations must be between 1 and " + maxIterations + " and warmup between 0 and " + maxWarmup));
+    }
+
 }
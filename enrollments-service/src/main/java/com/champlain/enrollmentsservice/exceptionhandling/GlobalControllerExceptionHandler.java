@@ -9,6 +9,8 @@ import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
+import static org.springframework.http.HttpStatus.CONFLICT;
+import static org.springframework.http.HttpStatus.GATEWAY_TIMEOUT;
 import static org.springframework.http.HttpStatus.NOT_FOUND;
 import static org.springframework.http.HttpStatus.UNPROCESSABLE_ENTITY;
 
@@ -34,6 +36,18 @@ public class GlobalControllerExceptionHandler {
         return createHttpErrorInfo(NOT_FOUND, request, ex);
     }
 
+    @ResponseStatus(CONFLICT)
+    @ExceptionHandler(DuplicateEnrollmentException.class)
+    public HttpErrorInfo handleDuplicateEnrollmentException(ServerHttpRequest request, Exception ex) {
+        return createHttpErrorInfo(CONFLICT, request, ex);
+    }
+
+    @ResponseStatus(CONFLICT)
+    @ExceptionHandler(CourseFullException.class)
+    public HttpErrorInfo handleCourseFullException(ServerHttpRequest request, Exception ex) {
+        return createHttpErrorInfo(CONFLICT, request, ex);
+    }
+
     @ResponseStatus(UNPROCESSABLE_ENTITY)
     @ExceptionHandler(InvalidEnrollmentIdException.class)
     public HttpErrorInfo handleInvalidEnrollmentIdException(ServerHttpRequest request, Exception ex) {
@@ -64,6 +78,17 @@ public class GlobalControllerExceptionHandler {
         return createHttpErrorInfo(UNPROCESSABLE_ENTITY, request, ex);
     }
 
+    @ResponseStatus(UNPROCESSABLE_ENTITY)
+    @ExceptionHandler(InvalidInputException.class)
+    public HttpErrorInfo handleInvalidInputException(ServerHttpRequest request, Exception ex) {
+        return createHttpErrorInfo(UNPROCESSABLE_ENTITY, request, ex);
+    }
+
+    @ResponseStatus(GATEWAY_TIMEOUT)
+    @ExceptionHandler(DownstreamTimeoutException.class)
+    public HttpErrorInfo handleDownstreamTimeoutException(ServerHttpRequest request, Exception ex) {
+        return createHttpErrorInfo(GATEWAY_TIMEOUT, request, ex);
+    }
 
 //
 //    @ResponseStatus(UNPROCESSABLE_ENTITY)
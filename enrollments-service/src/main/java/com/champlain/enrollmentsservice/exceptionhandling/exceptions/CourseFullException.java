@@ -0,0 +1,15 @@
+package com.champlain.enrollmentsservice.exceptionhandling.exceptions;
+
+public class CourseFullException extends RuntimeException {
+
+    private static final String MESSAGE = "Course with id=%s has no seats left for %s %s";
+
+    public CourseFullException() {}
+
+    public CourseFullException(String courseId, String semester, Integer enrollmentYear) { super(MESSAGE.formatted(courseId, semester, enrollmentYear)); }
+
+    public CourseFullException(Throwable cause) { super(cause); }
+
+    public CourseFullException(String courseId, String semester, Integer enrollmentYear, Throwable cause) { super(MESSAGE.formatted(courseId, semester, enrollmentYear), cause); }
+
+}
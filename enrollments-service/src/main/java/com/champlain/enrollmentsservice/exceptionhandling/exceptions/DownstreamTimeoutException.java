@@ -0,0 +1,15 @@
+package com.champlain.enrollmentsservice.exceptionhandling.exceptions;
+
+public class DownstreamTimeoutException extends RuntimeException {
+
+    private static final String MESSAGE = "Request to %s for id=%s timed out";
+
+    public DownstreamTimeoutException() {}
+
+    public DownstreamTimeoutException(String service, String id) { super(MESSAGE.formatted(service, id)); }
+
+    public DownstreamTimeoutException(Throwable cause) { super(cause); }
+
+    public DownstreamTimeoutException(String service, String id, Throwable cause) { super(MESSAGE.formatted(service, id), cause); }
+
+}
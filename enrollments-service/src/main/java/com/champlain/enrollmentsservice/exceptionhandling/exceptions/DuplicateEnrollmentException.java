@@ -0,0 +1,15 @@
+package com.champlain.enrollmentsservice.exceptionhandling.exceptions;
+
+public class DuplicateEnrollmentException extends RuntimeException {
+
+    private static final String MESSAGE = "Student with id=%s is already enrolled in course with id=%s for %s %s";
+
+    public DuplicateEnrollmentException() {}
+
+    public DuplicateEnrollmentException(String studentId, String courseId, String semester, Integer enrollmentYear) { super(MESSAGE.formatted(studentId, courseId, semester, enrollmentYear)); }
+
+    public DuplicateEnrollmentException(Throwable cause) { super(cause); }
+
+    public DuplicateEnrollmentException(String studentId, String courseId, String semester, Integer enrollmentYear, Throwable cause) { super(MESSAGE.formatted(studentId, courseId, semester, enrollmentYear), cause); }
+
+}
@@ -2,6 +2,8 @@ package com.champlain.enrollmentsservice.mapper;
 
 import com.champlain.enrollmentsservice.businesslayer.enrollments.RequestContext;
 import com.champlain.enrollmentsservice.dataaccesslayer.Enrollment;
+import com.champlain.enrollmentsservice.dataaccesslayer.EnrollmentCounter;
+import com.champlain.enrollmentsservice.presentationlayer.enrollments.EnrollmentCountResponseModel;
 import com.champlain.enrollmentsservice.presentationlayer.enrollments.EnrollmentResponseModel;
 
 import java.util.UUID;
@@ -41,6 +43,15 @@ public class EntityModelMapper {
         );
     }
 
+    public static EnrollmentCountResponseModel toCountModel(EnrollmentCounter counter) {
+        return new EnrollmentCountResponseModel(
+                counter.getCourseId(),
+                counter.getEnrollmentYear(),
+                counter.getSemester(),
+                counter.getCount()
+        );
+    }
+
 //    public static Enrollment toUpdatedEntity(RequestContext requestContext, Enrollment existing) {
 //        return Enrollment.builder()
 //                .id(existing.getId())
@@ -1,32 +1,104 @@
 package com.champlain.enrollmentsservice.presentationlayer;
 
 import com.champlain.enrollmentsservice.businesslayer.enrollments.EnrollmentService;
+import com.champlain.enrollmentsservice.dataaccesslayer.Semester;
 import com.champlain.enrollmentsservice.exceptionhandling.ApplicationExceptions;
+import com.champlain.enrollmentsservice.presentationlayer.enrollments.EnrollmentBatchResponseModel;
+import com.champlain.enrollmentsservice.presentationlayer.enrollments.EnrollmentCountResponseModel;
+import com.champlain.enrollmentsservice.presentationlayer.enrollments.EnrollmentFieldsPageResponseModel;
+import com.champlain.enrollmentsservice.presentationlayer.enrollments.EnrollmentPageRequest;
+import com.champlain.enrollmentsservice.presentationlayer.enrollments.EnrollmentPageResponseModel;
 import com.champlain.enrollmentsservice.presentationlayer.enrollments.EnrollmentRequestModel;
 import com.champlain.enrollmentsservice.presentationlayer.enrollments.EnrollmentResponseModel;
 import com.champlain.enrollmentsservice.validation.RequestValidator;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.*;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
 @RestController
 @RequestMapping("api/v1/enrollments")
 public class EnrollmentController {
     private final EnrollmentService enrollmentService;
+    private final int defaultPageSize;
+    private final int maxPageSize;
 
-    public EnrollmentController(EnrollmentService enrollmentService) {
+    public EnrollmentController(EnrollmentService enrollmentService,
+                                @Value("${app.enrollments.page.default-size:50}") int defaultPageSize,
+                                @Value("${app.enrollments.page.max-size:500}") int maxPageSize) {
         this.enrollmentService = enrollmentService;
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
+    }
+
+    // one page as events, the last event of the page carries the nextPageToken as its id (none on the last page)
+    @GetMapping(
+            value = "",
+            produces = MediaType.TEXT_EVENT_STREAM_VALUE
+    )
+    public Flux<ServerSentEvent<EnrollmentResponseModel>> getEnrollments(EnrollmentPageRequest pageRequest) {
+        return validatePageSize(pageRequest)
+                .flatMap(enrollmentService::getEnrollmentPage)
+                .flatMapIterable(page -> toEvents(page.enrollments(), page.nextPageToken()));
+    }
+
+    // ?studentId=&courseId=&enrollmentYear=&semester= filter, size is 1 to app.enrollments.page.max-size (default-size when absent)
+    @GetMapping(
+            value = "",
+            produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    public Mono<EnrollmentPageResponseModel> getEnrollmentPage(EnrollmentPageRequest pageRequest) {
+        return validatePageSize(pageRequest)
+                .flatMap(enrollmentService::getEnrollmentPage);
     }
 
+    // ?fields=enrollmentId,courseName reads and returns only those fields, see EnrollmentResponseModel.FIELDS. the event stream is one page like above
     @GetMapping(
             value = "",
+            params = "fields",
             produces = MediaType.TEXT_EVENT_STREAM_VALUE
     )
-    public Flux<EnrollmentResponseModel> getEnrollments() {
-        return enrollmentService.getEnrollments();
+    public Flux<ServerSentEvent<Map<String, Object>>> getEnrollmentFields(EnrollmentPageRequest pageRequest, @RequestParam List<String> fields) {
+        return validatePageSize(pageRequest)
+                .flatMap(validRequest -> validateFields(fields)
+                        .flatMap(validFields -> enrollmentService.getEnrollmentFieldsPage(validRequest, validFields)))
+                .flatMapIterable(page -> toEvents(page.enrollments(), page.nextPageToken()));
+    }
+
+    @GetMapping(
+            value = "",
+            params = "fields",
+            produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    public Mono<EnrollmentFieldsPageResponseModel> getEnrollmentFieldsPage(EnrollmentPageRequest pageRequest, @RequestParam List<String> fields) {
+        return validatePageSize(pageRequest)
+                .flatMap(validRequest -> validateFields(fields)
+                        .flatMap(validFields -> enrollmentService.getEnrollmentFieldsPage(validRequest, validFields)));
+    }
+
+    //read from the per course and term counters, so the cost follows the number of courses, not of enrollments
+    @GetMapping(
+            value = "counts",
+            produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE}
+    )
+    public Flux<EnrollmentCountResponseModel> getEnrollmentCounts(@RequestParam(required = false) String courseId,
+                                                                  @RequestParam(required = false) Integer enrollmentYear,
+                                                                  @RequestParam(required = false) Semester semester) {
+        return enrollmentService.getEnrollmentCounts(courseId, enrollmentYear, semester);
+    }
+
+    @PostMapping("counts/rebuild")
+    public Mono<ResponseEntity<Void>> rebuildEnrollmentCounts() {
+        return enrollmentService.rebuildEnrollmentCounts()
+                .then(Mono.just(ResponseEntity.noContent().build()));
     }
 
     @GetMapping("{enrollmentId}")
@@ -39,6 +111,17 @@ public class EnrollmentController {
                 .switchIfEmpty(ApplicationExceptions.enrollmentNotFound(enrollmentId));
     }
 
+    @GetMapping(value = "{enrollmentId}", params = "fields")
+    public Mono<ResponseEntity<Map<String, Object>>> getEnrollmentFieldsByEnrollmentId(@PathVariable String enrollmentId, @RequestParam List<String> fields) {
+        return Mono.just(enrollmentId)
+                .filter(id -> id.length() == 36)
+                .switchIfEmpty(ApplicationExceptions.invalidEnrollmentId(enrollmentId))
+                .flatMap(validId -> validateFields(fields)
+                        .flatMap(validFields -> enrollmentService.getEnrollmentFieldsByEnrollmentId(validId, validFields)))
+                .map(ResponseEntity::ok)
+                .switchIfEmpty(ApplicationExceptions.enrollmentNotFound(enrollmentId));
+    }
+
     @PostMapping()
     public Mono<ResponseEntity<EnrollmentResponseModel>> addEnrollment(@RequestBody Mono<EnrollmentRequestModel> enrollmentRequestModel) {
         return enrollmentRequestModel
@@ -46,6 +129,15 @@ public class EnrollmentController {
                 .map(e-> ResponseEntity.status(HttpStatus.CREATED).body(e));
     }
 
+    @PostMapping(
+            value = "batch",
+            consumes = MediaType.APPLICATION_NDJSON_VALUE,
+            produces = MediaType.APPLICATION_NDJSON_VALUE
+    )
+    public Flux<EnrollmentBatchResponseModel> addEnrollments(@RequestBody Flux<EnrollmentRequestModel> enrollmentRequestModels) {
+        return enrollmentService.addEnrollments(enrollmentRequestModels);
+    }
+
     @PutMapping("{enrollmentId}")
     public Mono<ResponseEntity<EnrollmentResponseModel>> updateEnrollment(@PathVariable String enrollmentId,
                                                                   @RequestBody Mono<EnrollmentRequestModel> enrollmentRequestModel) {
@@ -67,4 +159,32 @@ public class EnrollmentController {
                 .map(ResponseEntity::ok)
                 .switchIfEmpty(ApplicationExceptions.enrollmentNotFound(enrollmentId));
     }
+
+    private Mono<EnrollmentPageRequest> validatePageSize(EnrollmentPageRequest pageRequest) {
+        return Mono.just(pageRequest.withDefaultSize(defaultPageSize))
+                .filter(request -> request.size() >= 1 && request.size() <= maxPageSize)
+                .switchIfEmpty(ApplicationExceptions.invalidPageSize(maxPageSize));
+    }
+
+    private static <T> List<ServerSentEvent<T>> toEvents(List<T> items, String nextPageToken) {
+        List<ServerSentEvent<T>> events = new ArrayList<>(items.size());
+        for (int i = 0; i < items.size(); i++) {
+            ServerSentEvent.Builder<T> event = ServerSentEvent.builder(items.get(i));
+            if (i == items.size() - 1 && nextPageToken != null) {
+                event.id(nextPageToken);
+            }
+            events.add(event.build());
+        }
+        return events;
+    }
+
+    private Mono<List<String>> validateFields(List<String> fields) {
+        List<String> unknownFields = fields.stream()
+                .filter(field -> !EnrollmentResponseModel.FIELDS.contains(field))
+                .toList();
+        if (fields.isEmpty() || !unknownFields.isEmpty()) {
+            return ApplicationExceptions.invalidFields(unknownFields, EnrollmentResponseModel.FIELDS);
+        }
+        return Mono.just(fields.stream().distinct().toList());
+    }
 }
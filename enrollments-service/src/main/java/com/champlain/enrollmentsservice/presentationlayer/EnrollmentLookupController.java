@@ -0,0 +1,45 @@
+package com.champlain.enrollmentsservice.presentationlayer;
+
+import com.champlain.enrollmentsservice.businesslayer.enrollments.EnrollmentService;
+import com.champlain.enrollmentsservice.exceptionhandling.ApplicationExceptions;
+import com.champlain.enrollmentsservice.presentationlayer.enrollments.EnrollmentResponseModel;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+//a student's transcript and a course's roster, streamed straight from the mongo cursor as the client reads them
+@RestController
+@RequestMapping("api/v1")
+public class EnrollmentLookupController {
+    private final EnrollmentService enrollmentService;
+
+    public EnrollmentLookupController(EnrollmentService enrollmentService) {
+        this.enrollmentService = enrollmentService;
+    }
+
+    @GetMapping(
+            value = "students/{studentId}/enrollments",
+            produces = {MediaType.TEXT_EVENT_STREAM_VALUE, MediaType.APPLICATION_NDJSON_VALUE}
+    )
+    public Flux<EnrollmentResponseModel> getEnrollmentsByStudentId(@PathVariable String studentId) {
+        return Mono.just(studentId)
+                .filter(id -> id.length() == 36)
+                .switchIfEmpty(ApplicationExceptions.invalidStudentId(studentId))
+                .flatMapMany(enrollmentService::getEnrollmentsByStudentId);
+    }
+
+    @GetMapping(
+            value = "courses/{courseId}/enrollments",
+            produces = {MediaType.TEXT_EVENT_STREAM_VALUE, MediaType.APPLICATION_NDJSON_VALUE}
+    )
+    public Flux<EnrollmentResponseModel> getEnrollmentsByCourseId(@PathVariable String courseId) {
+        return Mono.just(courseId)
+                .filter(id -> id.length() == 36)
+                .switchIfEmpty(ApplicationExceptions.invalidCourseId(courseId))
+                .flatMapMany(enrollmentService::getEnrollmentsByCourseId);
+    }
+}
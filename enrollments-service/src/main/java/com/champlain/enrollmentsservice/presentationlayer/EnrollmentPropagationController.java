@@ -0,0 +1,44 @@
+package com.champlain.enrollmentsservice.presentationlayer;
+
+import com.champlain.enrollmentsservice.businesslayer.enrollments.EnrollmentChangePropagator;
+import com.champlain.enrollmentsservice.exceptionhandling.ApplicationExceptions;
+import com.champlain.enrollmentsservice.presentationlayer.enrollments.CourseChangeRequestModel;
+import com.champlain.enrollmentsservice.presentationlayer.enrollments.StudentChangeRequestModel;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+//upstream renames of a course or student and course capacity changes, queued and written to the enrollments in the background, hence the 202
+@RestController
+@RequestMapping("api/v1/enrollments/propagation")
+public class EnrollmentPropagationController {
+    private final EnrollmentChangePropagator propagator;
+
+    public EnrollmentPropagationController(EnrollmentChangePropagator propagator) {
+        this.propagator = propagator;
+    }
+
+    @PostMapping("courses/{courseId}")
+    public Mono<ResponseEntity<Void>> courseChanged(@PathVariable String courseId, @RequestBody Mono<CourseChangeRequestModel> change) {
+        return Mono.just(courseId)
+                .filter(id -> id.length() == 36)
+                .switchIfEmpty(ApplicationExceptions.invalidCourseId(courseId))
+                .then(change)
+                .doOnNext(c -> propagator.courseChanged(courseId, c.courseNumber(), c.courseName(), c.capacity(), c.changedAt()))
+                .thenReturn(ResponseEntity.accepted().build());
+    }
+
+    @PostMapping("students/{studentId}")
+    public Mono<ResponseEntity<Void>> studentChanged(@PathVariable String studentId, @RequestBody Mono<StudentChangeRequestModel> change) {
+        return Mono.just(studentId)
+                .filter(id -> id.length() == 36)
+                .switchIfEmpty(ApplicationExceptions.invalidStudentId(studentId))
+                .then(change)
+                .doOnNext(c -> propagator.studentChanged(studentId, c.firstName(), c.lastName()))
+                .thenReturn(ResponseEntity.accepted().build());
+    }
+}
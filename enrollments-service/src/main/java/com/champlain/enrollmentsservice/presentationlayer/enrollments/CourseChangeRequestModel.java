@@ -0,0 +1,11 @@
+package com.champlain.enrollmentsservice.presentationlayer.enrollments;
+
+import java.time.Instant;
+
+//sent by courses-service when a course number, name or capacity changes, a null capacity means no seat limit.
+//changedAt orders the changes of one course, an older one than the last applied is ignored
+public record CourseChangeRequestModel(String courseNumber,
+                                       String courseName,
+                                       Integer capacity,
+                                       Instant changedAt) {
+}
@@ -0,0 +1,7 @@
+package com.champlain.enrollmentsservice.presentationlayer.enrollments;
+
+//one line of a bulk upload result: index is the position of the request line, exactly one of enrollment or error is set
+public record EnrollmentBatchResponseModel(Long index,
+                                           EnrollmentResponseModel enrollment,
+                                           String error) {
+}
@@ -0,0 +1,9 @@
+package com.champlain.enrollmentsservice.presentationlayer.enrollments;
+
+import com.champlain.enrollmentsservice.dataaccesslayer.Semester;
+
+public record EnrollmentCountResponseModel(String courseId,
+                                           Integer enrollmentYear,
+                                           Semester semester,
+                                           Long count) {
+}
@@ -0,0 +1,9 @@
+package com.champlain.enrollmentsservice.presentationlayer.enrollments;
+
+import java.util.List;
+import java.util.Map;
+
+//a page of ?fields= projections, each enrollment only holds the requested fields
+public record EnrollmentFieldsPageResponseModel(List<Map<String, Object>> enrollments,
+                                                String nextPageToken) {
+}
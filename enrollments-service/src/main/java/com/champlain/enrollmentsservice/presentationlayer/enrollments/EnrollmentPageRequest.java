@@ -0,0 +1,17 @@
+package com.champlain.enrollmentsservice.presentationlayer.enrollments;
+
+import com.champlain.enrollmentsservice.dataaccesslayer.Semester;
+
+//query parameters of GET api/v1/enrollments, pageToken is the nextPageToken of the previous page.
+//a missing size is filled in by the controller from app.enrollments.page.default-size
+public record EnrollmentPageRequest(String studentId,
+                                    String courseId,
+                                    Integer enrollmentYear,
+                                    Semester semester,
+                                    Integer size,
+                                    String pageToken) {
+
+    public EnrollmentPageRequest withDefaultSize(int defaultSize) {
+        return size != null ? this : new EnrollmentPageRequest(studentId, courseId, enrollmentYear, semester, defaultSize, pageToken);
+    }
+}
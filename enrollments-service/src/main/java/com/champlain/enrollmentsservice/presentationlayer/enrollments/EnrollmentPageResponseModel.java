@@ -0,0 +1,8 @@
+package com.champlain.enrollmentsservice.presentationlayer.enrollments;
+
+import java.util.List;
+
+//nextPageToken is null on the last page
+public record EnrollmentPageResponseModel(List<EnrollmentResponseModel> enrollments,
+                                          String nextPageToken) {
+}
@@ -2,6 +2,10 @@ package com.champlain.enrollmentsservice.presentationlayer.enrollments;
 
 import com.champlain.enrollmentsservice.dataaccesslayer.Semester;
 
+import java.lang.reflect.RecordComponent;
+import java.util.Arrays;
+import java.util.List;
+
 public record EnrollmentResponseModel(String enrollmentId,
                                       Integer enrollmentYear,
                                       Semester semester,
@@ -11,4 +15,9 @@ public record EnrollmentResponseModel(String enrollmentId,
                                       String courseId,
                                       String courseNumber,
                                       String courseName) {
+
+    //what ?fields= may ask for, in declaration order, each one is stored under the same name on Enrollment
+    public static final List<String> FIELDS = Arrays.stream(EnrollmentResponseModel.class.getRecordComponents())
+            .map(RecordComponent::getName)
+            .toList();
 }
@@ -0,0 +1,6 @@
+package com.champlain.enrollmentsservice.presentationlayer.enrollments;
+
+//sent when a student's first or last name changes
+public record StudentChangeRequestModel(String firstName,
+                                        String lastName) {
+}
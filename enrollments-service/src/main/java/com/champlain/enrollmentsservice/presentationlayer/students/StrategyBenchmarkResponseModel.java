@@ -0,0 +1,11 @@
+package com.champlain.enrollmentsservice.presentationlayer.students;
+
+//one row of GET api/v1/students/benchmark: latency of a whole 1000-student run, measured once the last student arrived
+public record StrategyBenchmarkResponseModel(String strategy,
+                                             Integer iterations,
+                                             Double p50Millis,
+                                             Double p95Millis,
+                                             Double p99Millis,
+                                             Double studentsPerSecond,
+                                             Integer peakThreads) {
+}
@@ -2,17 +2,18 @@ package com.champlain.enrollmentsservice.presentationlayer.students;
 
 import com.champlain.enrollmentsservice.businesslayer.students.StudentService;
 import com.champlain.enrollmentsservice.domainclientlayer.students.StudentResponseModel;
+import com.champlain.enrollmentsservice.exceptionhandling.ApplicationExceptions;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
-import java.time.LocalTime;
 import java.util.List;
 
 @RestController
@@ -20,6 +21,9 @@ import java.util.List;
 @RequestMapping("api/v1/students")
 public class StudentController {
 
+    public static final int MAX_BENCHMARK_ITERATIONS = 100;
+    public static final int MAX_BENCHMARK_WARMUP = 20;
+
     private final StudentService studentService;
 
     public StudentController(StudentService studentService) {
@@ -33,44 +37,46 @@ public class StudentController {
     }
 
 
+    //each strategy is timed in the service under enrollments.students.strategy
     @GetMapping(value = "/syncloop", produces = MediaType.APPLICATION_JSON_VALUE)
     public ResponseEntity<List<StudentResponseModel>> get1000StudentsSync() {
-        LocalTime start = LocalTime.now();
-        List<StudentResponseModel> students = studentService.get1000StudentsSyncLoop();
-        log.debug("Time taken to get 1000 students with syncloop: \t{}", LocalTime.now().minusNanos(start.toNanoOfDay()).toNanoOfDay());
-        return ResponseEntity.ok().body(students);
+        return ResponseEntity.ok().body(studentService.get1000StudentsSyncLoop());
     }
 
     @GetMapping(value = "/syncparallel", produces = MediaType.APPLICATION_JSON_VALUE)
     public ResponseEntity<List<StudentResponseModel>> get1000StudentsSyncParallel() {
-        LocalTime start = LocalTime.now();
-        List<StudentResponseModel> students = studentService.get1000StudentsSyncParallel();
-        log.debug("Time taken to get 1000 students with syncparallel: \t{}", LocalTime.now().minusNanos(start.toNanoOfDay()).toNanoOfDay());
-        return ResponseEntity.ok().body(students);
+        return ResponseEntity.ok().body(studentService.get1000StudentsSyncParallel());
+    }
+
+    @GetMapping(value = "/syncvirtual", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<List<StudentResponseModel>>> get1000StudentsSyncVirtual() {
+        return studentService.get1000StudentsSyncVirtual()
+                .map(students -> ResponseEntity.ok().body(students));
     }
 
     @GetMapping(value = "/async", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
     public Flux<StudentResponseModel> get1000StudentsAsync() {
-        LocalTime start = LocalTime.now();
-        Flux<StudentResponseModel> students = studentService.get1000StudentsAsync();
-        log.debug("Time taken to get 1000 students with async: \t\t{}", LocalTime.now().minusNanos(start.toNanoOfDay()).toNanoOfDay());
-        return students;
+        return studentService.get1000StudentsAsync();
     }
 
     @GetMapping(value = "/asyncparallel", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
     public Flux<StudentResponseModel> get1000StudentsAsyncParallel() {
-        LocalTime start = LocalTime.now();
-        Flux<StudentResponseModel> students = studentService.get1000StudentsAsyncParallel();
-        log.debug("Time taken to get 1000 students with asyncparallel: \t{}", LocalTime.now().minusNanos(start.toNanoOfDay()).toNanoOfDay());
-        return students;
+        return studentService.get1000StudentsAsyncParallel();
     }
 
     @GetMapping(value = "/asyncbounded", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
     public Flux<StudentResponseModel> get1000StudentsAsyncBounded() {
-        LocalTime start = LocalTime.now();
-        Flux<StudentResponseModel> students = studentService.get1000StudentsAsyncBounded();
-        log.debug("Time taken to get 1000 students with asyncbounded: \t{}", LocalTime.now().minusNanos(start.toNanoOfDay()).toNanoOfDay());
-        return students;
+        return studentService.get1000StudentsAsyncBounded();
+    }
+
+    //runs every strategy above and compares them, each one makes 1000 calls to students-service per iteration
+    @GetMapping(value = "/benchmark", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Flux<StrategyBenchmarkResponseModel> benchmarkStrategies(@RequestParam(defaultValue = "2") int warmup,
+                                                                    @RequestParam(defaultValue = "10") int iterations) {
+        return Mono.just(iterations)
+                .filter(i -> i >= 1 && i <= MAX_BENCHMARK_ITERATIONS && warmup >= 0 && warmup <= MAX_BENCHMARK_WARMUP)
+                .switchIfEmpty(ApplicationExceptions.invalidBenchmarkRequest(MAX_BENCHMARK_ITERATIONS, MAX_BENCHMARK_WARMUP))
+                .flatMapMany(i -> studentService.benchmarkStrategies(warmup, i));
     }
 
     @GetMapping(value = "/{studentId}", produces = MediaType.APPLICATION_JSON_VALUE)
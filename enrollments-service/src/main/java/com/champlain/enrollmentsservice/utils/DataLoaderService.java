@@ -3,12 +3,15 @@ package com.champlain.enrollmentsservice.utils;
 import com.champlain.enrollmentsservice.dataaccesslayer.Enrollment;
 import com.champlain.enrollmentsservice.dataaccesslayer.EnrollmentRepository;
 import com.champlain.enrollmentsservice.dataaccesslayer.Semester;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+@Slf4j
 @Service
 public class DataLoaderService implements CommandLineRunner {
 
@@ -17,6 +20,13 @@ public class DataLoaderService implements CommandLineRunner {
 
     @Override
     public void run(String... args) throws Exception {
+        seed().subscribe(s -> log.info("Seeded enrollment {}", s.getEnrollmentId()),
+                ex -> log.error("Could not seed enrollments: {}", ex.getMessage()));  //if you don't subscribe, nothing happens
+    }
+
+    //a persistent database keeps the seeds across restarts, so only the missing ones are inserted.
+    //enrollmentId is unique, a seed inserted concurrently by another instance is skipped too
+    public Flux<Enrollment> seed() {
 
         Enrollment enrollment1 = Enrollment.builder()
                 .enrollmentId("06a7d573-bcab-4db3-956f-773324b92a80")
@@ -42,10 +52,13 @@ public class DataLoaderService implements CommandLineRunner {
                 .courseName("Shakespeare's Greatest Works")
                 .build();
 
-        Flux.just(enrollment1, enrollment2)
-                .flatMap(s -> enrollmentRepository.insert(Mono.just(s))
-                        .log(s.toString()))
-                .subscribe();  //if you don't subscribe, nothing happens
+        return Flux.just(enrollment1, enrollment2)
+                .filterWhen(s -> enrollmentRepository.findEnrollmentByEnrollmentId(s.getEnrollmentId()).hasElement().map(exists -> !exists))
+                .concatMap(s -> enrollmentRepository.insert(s)
+                        .onErrorResume(DuplicateKeyException.class, ex -> {
+                            log.info("Seed enrollment {} already exists", s.getEnrollmentId());
+                            return Mono.empty();
+                        }));
     }
 }
 
@@ -51,7 +51,8 @@ public class TestData {
             "N45-LA",
             60,
             2.0,
-            "Computer Science"
+            "Computer Science",
+            30
     );
 
     //for update request
@@ -61,11 +62,13 @@ public class TestData {
             "Waves",
             60,
             2.5,
-            "Physics"
+            "Physics",
+            30
     );
 
+    //a different year than enrollment1, which is already loaded for the same student and course
     public EnrollmentRequestModel enrollment1RequestModel = new EnrollmentRequestModel(
-            2021,
+            2022,
             Semester.FALL,
             student1ResponseModel.studentId(),
             course1ResponseModel.courseId()
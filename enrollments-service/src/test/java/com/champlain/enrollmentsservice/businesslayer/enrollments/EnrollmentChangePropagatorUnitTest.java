@@ -0,0 +1,159 @@
+package com.champlain.enrollmentsservice.businesslayer.enrollments;
+
+import com.champlain.enrollmentsservice.dataaccesslayer.CourseSeatsRepository;
+import com.champlain.enrollmentsservice.dataaccesslayer.EnrollmentRepository;
+import com.champlain.enrollmentsservice.domainclientlayer.courses.CourseServiceClient;
+import com.champlain.enrollmentsservice.domainclientlayer.students.StudentServiceClientAsynchronous;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class EnrollmentChangePropagatorUnitTest {
+
+    private static final String COURSE_ID = "9a29fff7-564a-4cc9-8fe1-36f6ca9bc223";
+    private static final String OTHER_COURSE_ID = "d819e4f4-25af-4d33-91e9-2c45f0071606";
+    private static final String STUDENT_ID = "c3540a89-cb47-4c96-888e-ff96708db4d8";
+    private static final Instant NOW = Instant.parse("2026-10-16T12:00:00Z");
+
+    @Mock
+    private EnrollmentRepository enrollmentRepository;
+
+    @Mock
+    private CourseSeatsRepository courseSeatsRepository;
+
+    @Mock
+    private CourseServiceClient courseClient;
+
+    @Mock
+    private StudentServiceClientAsynchronous studentClient;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private EnrollmentChangePropagator propagator;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(courseSeatsRepository.resize(anyString(), any())).thenReturn(Mono.empty());
+        propagator = new EnrollmentChangePropagator(enrollmentRepository, courseSeatsRepository, courseClient, studentClient, meterRegistry, Duration.ZERO);
+    }
+
+    @AfterEach
+    void tearDown() {
+        propagator.stop();
+    }
+
+    @Test
+    void whenCourseChanged_thenEvictCourseAndUpdateItsEnrollments() {
+        when(enrollmentRepository.updateCourseDetails(COURSE_ID, "cat-420", "Renamed Course"))
+                .thenReturn(Mono.just(3L));
+
+        propagator.courseChanged(COURSE_ID, "cat-420", "Renamed Course", 30, NOW);
+
+        verify(courseClient).evictCourse(COURSE_ID);
+        verify(courseSeatsRepository, timeout(1000)).resize(COURSE_ID, 30);
+        verify(enrollmentRepository, timeout(1000)).updateCourseDetails(COURSE_ID, "cat-420", "Renamed Course");
+        assertEquals(3.0, meterRegistry.counter("enrollments.propagation.updated", "kind", "course").count());
+    }
+
+    @Test
+    void whenStudentChanged_thenEvictStudentAndUpdateItsEnrollments() {
+        when(enrollmentRepository.updateStudentNames(STUDENT_ID, "Renamed", "Student"))
+                .thenReturn(Mono.just(2L));
+
+        propagator.studentChanged(STUDENT_ID, "Renamed", "Student");
+
+        verify(studentClient).evictStudent(STUDENT_ID);
+        verify(enrollmentRepository, timeout(1000)).updateStudentNames(STUDENT_ID, "Renamed", "Student");
+    }
+
+    @Test
+    void whenCourseChangedAgainWhileQueued_thenOnlyLatestChangeIsWritten() {
+        //the first update holds the worker so the next changes pile up in the queue
+        Sinks.One<Long> firstUpdate = Sinks.one();
+        when(enrollmentRepository.updateCourseDetails(OTHER_COURSE_ID, "cat-100", "Blocking"))
+                .thenReturn(firstUpdate.asMono());
+        when(enrollmentRepository.updateCourseDetails(COURSE_ID, "cat-300", "Third"))
+                .thenReturn(Mono.just(1L));
+
+        propagator.courseChanged(OTHER_COURSE_ID, "cat-100", "Blocking", 30, NOW);
+        propagator.courseChanged(COURSE_ID, "cat-200", "Second", 30, NOW.plusSeconds(1));
+        propagator.courseChanged(COURSE_ID, "cat-300", "Third", 30, NOW.plusSeconds(2));
+        firstUpdate.tryEmitValue(1L);
+
+        verify(enrollmentRepository, timeout(1000)).updateCourseDetails(COURSE_ID, "cat-300", "Third");
+        verify(enrollmentRepository, never()).updateCourseDetails(COURSE_ID, "cat-200", "Second");
+    }
+
+    @Test
+    void whenUpdateFails_thenNextChangeIsStillApplied() {
+        when(enrollmentRepository.updateCourseDetails(OTHER_COURSE_ID, "cat-100", "Failing"))
+                .thenReturn(Mono.error(new IllegalStateException("mongo down")));
+        when(enrollmentRepository.updateCourseDetails(COURSE_ID, "cat-200", "Applied"))
+                .thenReturn(Mono.just(1L));
+
+        propagator.courseChanged(OTHER_COURSE_ID, "cat-100", "Failing", 30, NOW);
+        propagator.courseChanged(COURSE_ID, "cat-200", "Applied", 30, NOW);
+
+        verify(enrollmentRepository, timeout(1000)).updateCourseDetails(COURSE_ID, "cat-200", "Applied");
+        assertEquals(1, meterRegistry.timer("enrollments.propagation.latency", "kind", "course", "outcome", "error").count());
+    }
+
+    @Test
+    void whenOlderCourseChangeArrivesWhileNewerIsQueued_thenOnlyNewerIsWritten() {
+        Sinks.One<Long> firstUpdate = Sinks.one();
+        when(enrollmentRepository.updateCourseDetails(OTHER_COURSE_ID, "cat-100", "Blocking"))
+                .thenReturn(firstUpdate.asMono());
+        when(enrollmentRepository.updateCourseDetails(COURSE_ID, "cat-300", "Newer"))
+                .thenReturn(Mono.just(1L));
+
+        propagator.courseChanged(OTHER_COURSE_ID, "cat-100", "Blocking", 30, NOW);
+        propagator.courseChanged(COURSE_ID, "cat-300", "Newer", 40, NOW.plusSeconds(2));
+        propagator.courseChanged(COURSE_ID, "cat-200", "Older", 20, NOW.plusSeconds(1));
+        firstUpdate.tryEmitValue(1L);
+
+        verify(enrollmentRepository, timeout(1000)).updateCourseDetails(COURSE_ID, "cat-300", "Newer");
+        verify(courseSeatsRepository).resize(COURSE_ID, 40);
+        verify(courseSeatsRepository, never()).resize(COURSE_ID, 20);
+        verify(enrollmentRepository, never()).updateCourseDetails(COURSE_ID, "cat-200", "Older");
+    }
+
+    @Test
+    void whenCourseChangeIsOlderThanTheLastApplied_thenItIsDropped() {
+        when(enrollmentRepository.updateCourseDetails(COURSE_ID, "cat-300", "Newer"))
+                .thenReturn(Mono.just(1L));
+        when(enrollmentRepository.updateCourseDetails(COURSE_ID, "cat-400", "Latest"))
+                .thenReturn(Mono.just(1L));
+
+        propagator.courseChanged(COURSE_ID, "cat-300", "Newer", 40, NOW.plusSeconds(2));
+        verify(enrollmentRepository, timeout(1000)).updateCourseDetails(COURSE_ID, "cat-300", "Newer");
+
+        //a late retry of an earlier change, then the same change sent twice
+        propagator.courseChanged(COURSE_ID, "cat-200", "Older", 20, NOW.plusSeconds(1));
+        propagator.courseChanged(COURSE_ID, "cat-300", "Newer", 40, NOW.plusSeconds(2));
+        propagator.courseChanged(COURSE_ID, "cat-400", "Latest", 50, NOW.plusSeconds(3));
+
+        verify(enrollmentRepository, timeout(1000)).updateCourseDetails(COURSE_ID, "cat-400", "Latest");
+        verify(enrollmentRepository, never()).updateCourseDetails(COURSE_ID, "cat-200", "Older");
+        verify(courseSeatsRepository, never()).resize(COURSE_ID, 20);
+    }
+}
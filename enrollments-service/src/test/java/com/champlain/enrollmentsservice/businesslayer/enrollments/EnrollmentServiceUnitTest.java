@@ -1,24 +1,53 @@
 package com.champlain.enrollmentsservice.businesslayer.enrollments;
 
 import com.champlain.enrollmentsservice.TestData;
+import com.champlain.enrollmentsservice.dataaccesslayer.CourseSeatsRepository;
 import com.champlain.enrollmentsservice.dataaccesslayer.Enrollment;
+import com.champlain.enrollmentsservice.dataaccesslayer.EnrollmentCounterKey;
+import com.champlain.enrollmentsservice.dataaccesslayer.EnrollmentCounterRepository;
 import com.champlain.enrollmentsservice.dataaccesslayer.EnrollmentRepository;
 import com.champlain.enrollmentsservice.domainclientlayer.courses.CourseServiceClient;
 import com.champlain.enrollmentsservice.domainclientlayer.students.StudentServiceClientAsynchronous;
+import com.champlain.enrollmentsservice.dataaccesslayer.EnrollmentFilter;
+import com.champlain.enrollmentsservice.dataaccesslayer.Semester;
+import com.champlain.enrollmentsservice.exceptionhandling.exceptions.CourseFullException;
+import com.champlain.enrollmentsservice.exceptionhandling.exceptions.DuplicateEnrollmentException;
+import com.champlain.enrollmentsservice.exceptionhandling.exceptions.InvalidInputException;
+import com.champlain.enrollmentsservice.presentationlayer.enrollments.EnrollmentPageRequest;
 import com.champlain.enrollmentsservice.presentationlayer.enrollments.EnrollmentRequestModel;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyIterable;
 import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -30,12 +59,21 @@ class EnrollmentServiceUnitTest {
     @Mock
     private EnrollmentRepository enrollmentRepository;
 
+    @Mock
+    private EnrollmentCounterRepository enrollmentCounterRepository;
+
+    @Mock
+    private CourseSeatsRepository courseSeatsRepository;
+
     @Mock
     private StudentServiceClientAsynchronous studentClient;
 
     @Mock
     private CourseServiceClient courseClient;
 
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
     private final TestData testData = new TestData();
 
     @BeforeEach
@@ -70,15 +108,93 @@ class EnrollmentServiceUnitTest {
                         return Mono.just(testData.course2ResponseModel);
                     return Mono.empty();
                 });
+
+        lenient().when(enrollmentCounterRepository.increment(any()))
+                .thenReturn(Mono.empty());
+
+        lenient().when(courseSeatsRepository.reserve(any(), anyInt(), anyLong()))
+                .thenReturn(Mono.just(true));
+        lenient().when(courseSeatsRepository.release(any(), anyLong()))
+                .thenReturn(Mono.empty());
+
+        lenient().when(studentClient.getStudentsByIds(anyCollection()))
+                .thenAnswer(invocation -> Flux.fromIterable(invocation.<Collection<String>>getArgument(0))
+                        .filter(id -> id.equals(testData.student1ResponseModel.studentId()) || id.equals(testData.student2ResponseModel.studentId()))
+                        .map(id -> id.equals(testData.student1ResponseModel.studentId()) ? testData.student1ResponseModel : testData.student2ResponseModel));
+
+        lenient().when(courseClient.getCoursesByCourseIds(anyCollection()))
+                .thenAnswer(invocation -> Flux.fromIterable(invocation.<Collection<String>>getArgument(0))
+                        .filter(id -> id.equals(testData.course1ResponseModel.courseId()) || id.equals(testData.course2ResponseModel.courseId()))
+                        .map(id -> id.equals(testData.course1ResponseModel.courseId()) ? testData.course1ResponseModel : testData.course2ResponseModel));
     }
 
     @Test
     void whenGetAllEnrollments_thenReturnAll() {
-        when(enrollmentRepository.findAll())
+        when(enrollmentRepository.findPage(any(EnrollmentFilter.class), isNull(), eq(51)))
+                .thenReturn(Flux.just(testData.enrollment1, testData.enrollment2));
+
+        StepVerifier.create(enrollmentService.getEnrollmentPage(new EnrollmentPageRequest(null, null, null, null, 50, null)))
+                .assertNext(page -> {
+                    assertEquals(2, page.enrollments().size());
+                    assertNull(page.nextPageToken());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void whenGetEnrollmentPage_withMoreThanOnePage_thenNextPageStartsAfterLastEnrollment() {
+        testData.enrollment1.setId("66c3a5d6e4b0a1b2c3d4e5f1");
+        testData.enrollment2.setId("66c3a5d6e4b0a1b2c3d4e5f2");
+        EnrollmentPageRequest firstPage = new EnrollmentPageRequest(testData.enrollment1.getStudentId(), null, 2021, Semester.FALL, 1, null);
+        EnrollmentFilter filter = new EnrollmentFilter(testData.enrollment1.getStudentId(), null, 2021, Semester.FALL);
+
+        when(enrollmentRepository.findPage(filter, null, 2))
                 .thenReturn(Flux.just(testData.enrollment1, testData.enrollment2));
+        when(enrollmentRepository.findPage(filter, testData.enrollment1.getId(), 2))
+                .thenReturn(Flux.just(testData.enrollment2));
+
+        String nextPageToken = enrollmentService.getEnrollmentPage(firstPage)
+                .map(page -> {
+                    assertEquals(List.of(testData.enrollment1.getEnrollmentId()), page.enrollments().stream().map(e -> e.enrollmentId()).toList());
+                    return page.nextPageToken();
+                })
+                .block();
+
+        StepVerifier.create(enrollmentService.getEnrollmentPage(new EnrollmentPageRequest(
+                        testData.enrollment1.getStudentId(), null, 2021, Semester.FALL, 1, nextPageToken)))
+                .assertNext(page -> {
+                    assertEquals(List.of(testData.enrollment2.getEnrollmentId()), page.enrollments().stream().map(e -> e.enrollmentId()).toList());
+                    assertNull(page.nextPageToken());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void whenGetEnrollmentPage_withForgedToken_thenInvalidInputException() {
+        StepVerifier.create(enrollmentService.getEnrollmentPage(new EnrollmentPageRequest(null, null, null, null, 50, "not-a-token")))
+                .expectError(InvalidInputException.class)
+                .verify();
 
-        StepVerifier.create(enrollmentService.getEnrollments())
-                .expectNextCount(2)
+        verify(enrollmentRepository, never()).findPage(any(), any(), anyInt());
+    }
+
+    @Test
+    void whenGetEnrollmentsByStudentId_thenReturnTranscript() {
+        when(enrollmentRepository.findAllByStudentIdOrderByIdAsc(testData.enrollment1.getStudentId()))
+                .thenReturn(Flux.just(testData.enrollment1));
+
+        StepVerifier.create(enrollmentService.getEnrollmentsByStudentId(testData.enrollment1.getStudentId()))
+                .assertNext(enrollment -> assertEquals(testData.enrollment1.getEnrollmentId(), enrollment.enrollmentId()))
+                .verifyComplete();
+    }
+
+    @Test
+    void whenGetEnrollmentsByCourseId_thenReturnRoster() {
+        when(enrollmentRepository.findAllByCourseIdOrderByIdAsc(testData.enrollment2.getCourseId()))
+                .thenReturn(Flux.just(testData.enrollment2));
+
+        StepVerifier.create(enrollmentService.getEnrollmentsByCourseId(testData.enrollment2.getCourseId()))
+                .assertNext(enrollment -> assertEquals(testData.enrollment2.getEnrollmentId(), enrollment.enrollmentId()))
                 .verifyComplete();
     }
 
@@ -112,6 +228,132 @@ class EnrollmentServiceUnitTest {
                 .verifyComplete();
     }
 
+    @Test
+    void whenAddEnrollment_forSameCourseAndTerm_thenDuplicateEnrollmentException() {
+        when(enrollmentRepository.save(any(Enrollment.class)))
+                .thenReturn(Mono.error(new DuplicateKeyException("E11000 duplicate key error collection: enrollments.enrollment index: student_course_term")));
+
+        StepVerifier.create(enrollmentService.addEnrollment(Mono.just(testData.enrollment1RequestModel)))
+                .expectErrorMatches(ex -> ex instanceof DuplicateEnrollmentException &&
+                        ex.getMessage().equals("Student with id=" + testData.student1ResponseModel.studentId() +
+                                " is already enrolled in course with id=" + testData.course1ResponseModel.courseId() + " for FALL 2022"))
+                .verify();
+
+        verify(courseSeatsRepository).release(new EnrollmentCounterKey(testData.course1ResponseModel.courseId(), 2022, Semester.FALL), 1);
+    }
+
+    @Test
+    void whenAddEnrollment_toFullCourse_thenCourseFullExceptionAndNothingIsSaved() {
+        EnrollmentCounterKey courseTerm = new EnrollmentCounterKey(testData.course1ResponseModel.courseId(), 2022, Semester.FALL);
+        when(courseSeatsRepository.reserve(courseTerm, testData.course1ResponseModel.capacity(), 1))
+                .thenReturn(Mono.just(false));
+
+        StepVerifier.create(enrollmentService.addEnrollment(Mono.just(testData.enrollment1RequestModel)))
+                .expectErrorMatches(ex -> ex instanceof CourseFullException &&
+                        ex.getMessage().equals("Course with id=" + testData.course1ResponseModel.courseId() + " has no seats left for FALL 2022"))
+                .verify();
+
+        verify(enrollmentRepository, never()).save(any(Enrollment.class));
+        verify(enrollmentCounterRepository, never()).increment(any());
+    }
+
+    @Test
+    void whenAddEnrollment_thenStudentAndCourseAreLookedUpInParallel() {
+        when(studentClient.getStudentByStudentId(testData.student1ResponseModel.studentId()))
+                .thenAnswer(invocation -> Mono.delay(Duration.ofMillis(200)).thenReturn(testData.student1ResponseModel));
+        when(courseClient.getCourseByCourseId(testData.course1ResponseModel.courseId()))
+                .thenAnswer(invocation -> Mono.delay(Duration.ofMillis(200)).thenReturn(testData.course1ResponseModel));
+        when(enrollmentRepository.save(any(Enrollment.class)))
+                .thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+
+        // sequential lookups would need 400ms, parallel ones only the slower leg
+        StepVerifier.withVirtualTime(() -> enrollmentService.addEnrollment(Mono.just(testData.enrollment1RequestModel)))
+                .thenAwait(Duration.ofMillis(200))
+                .expectNextMatches(enrollment -> enrollment.studentId().equals(testData.student1ResponseModel.studentId()) &&
+                        enrollment.courseId().equals(testData.course1ResponseModel.courseId()))
+                .verifyComplete();
+
+        assertEquals(1, meterRegistry.get("enrollments.downstream.latency").tag("service", "students-service").timer().count());
+        assertEquals(1, meterRegistry.get("enrollments.downstream.latency").tag("service", "courses-service").timer().count());
+    }
+
+    @Test
+    void whenAddEnrollments_thenEachLineIsReportedAndValidOnesAreInsertedTogether() {
+        EnrollmentRequestModel missingSemester = new EnrollmentRequestModel(2023, null,
+                testData.student2ResponseModel.studentId(), testData.course2ResponseModel.courseId());
+
+        when(enrollmentRepository.insert(anyIterable()))
+                .thenAnswer(invocation -> Flux.fromIterable(invocation.<Iterable<Enrollment>>getArgument(0)));
+
+        StepVerifier.create(enrollmentService.addEnrollments(Flux.just(
+                        testData.enrollment1RequestModel,
+                        testData.enrollment_withNonExistingCourseId_RequestModel,
+                        testData.enrollment2RequestModel,
+                        missingSemester)))
+                .expectNextMatches(result -> result.index() == 0 && result.error() == null &&
+                        result.enrollment().courseId().equals(testData.course1ResponseModel.courseId()))
+                .expectNextMatches(result -> result.index() == 1 && result.enrollment() == null &&
+                        result.error().equals("Course with id=" + TestData.NON_EXISTING_COURSEID + " is not found"))
+                .expectNextMatches(result -> result.index() == 2 && result.error() == null &&
+                        result.enrollment().studentId().equals(testData.student2ResponseModel.studentId()))
+                .expectNextMatches(result -> result.index() == 3 && result.error().equals("Semester is required"))
+                .verifyComplete();
+
+        // the whole batch shares one lookup per service and the two valid lines share a single insert
+        verify(studentClient, times(1)).getStudentsByIds(anyCollection());
+        verify(courseClient, times(1)).getCoursesByCourseIds(anyCollection());
+        verify(studentClient, never()).getStudentByStudentId(anyString());
+        verify(enrollmentRepository, times(1)).insert(anyIterable());
+    }
+
+    @Test
+    void whenAddEnrollments_toCourseWithFewerSeatsThanLines_thenLinesAfterTheLastSeatAreRejected() {
+        EnrollmentRequestModel sameTerm = new EnrollmentRequestModel(2022, Semester.FALL,
+                testData.student2ResponseModel.studentId(), testData.course1ResponseModel.courseId());
+        EnrollmentCounterKey courseTerm = new EnrollmentCounterKey(testData.course1ResponseModel.courseId(), 2022, Semester.FALL);
+
+        when(courseSeatsRepository.reserve(courseTerm, testData.course1ResponseModel.capacity(), 2))
+                .thenReturn(Mono.just(false));
+        when(courseSeatsRepository.reserve(courseTerm, testData.course1ResponseModel.capacity(), 1))
+                .thenReturn(Mono.just(true), Mono.just(false));
+        when(enrollmentRepository.insert(anyIterable()))
+                .thenAnswer(invocation -> Flux.fromIterable(invocation.<Iterable<Enrollment>>getArgument(0)));
+
+        StepVerifier.create(enrollmentService.addEnrollments(Flux.just(testData.enrollment1RequestModel, sameTerm)))
+                .expectNextMatches(result -> result.index() == 0 && result.error() == null)
+                .expectNextMatches(result -> result.index() == 1 && result.enrollment() == null &&
+                        result.error().equals("Course with id=" + testData.course1ResponseModel.courseId() + " has no seats left for FALL 2022"))
+                .verifyComplete();
+
+        verify(enrollmentCounterRepository).increment(Map.of(courseTerm, 1L));
+    }
+
+    @Test
+    void whenAddEnrollments_andBulkInsertFails_thenEachEnrollmentIsSavedOnItsOwn() {
+        when(enrollmentRepository.insert(anyIterable()))
+                .thenReturn(Flux.error(new RuntimeException("bulk write failed")));
+        when(enrollmentRepository.findEnrollmentByEnrollmentId(anyString()))
+                .thenReturn(Mono.empty());
+        when(enrollmentRepository.save(any(Enrollment.class)))
+                .thenAnswer(invocation -> {
+                    Enrollment enrollment = invocation.getArgument(0);
+                    return enrollment.getSemester() == Semester.WINTER
+                            ? Mono.error(new RuntimeException("duplicate"))
+                            : Mono.just(enrollment);
+                });
+
+        EnrollmentRequestModel winter = new EnrollmentRequestModel(2023, Semester.WINTER,
+                testData.student2ResponseModel.studentId(), testData.course2ResponseModel.courseId());
+
+        StepVerifier.create(enrollmentService.addEnrollments(Flux.just(testData.enrollment1RequestModel, winter)))
+                .expectNextMatches(result -> result.index() == 0 && result.enrollment() != null)
+                .consumeNextWith(result -> {
+                    assertNull(result.enrollment());
+                    assertEquals("duplicate", result.error());
+                })
+                .verifyComplete();
+    }
+
     @Test
     void whenUpdateEnrollment_thenReturnUpdatedEnrollment() {
         EnrollmentRequestModel updateRequest = testData.enrollment2RequestModel;
@@ -125,6 +367,13 @@ class EnrollmentServiceUnitTest {
                 .expectNextMatches(enrollment -> enrollment.enrollmentYear() == updateRequest.enrollmentYear() &&
                         enrollment.semester() == updateRequest.semester())
                 .verifyComplete();
+
+        verify(courseSeatsRepository).reserve(new EnrollmentCounterKey(updateRequest.courseId(), updateRequest.enrollmentYear(), updateRequest.semester()),
+                testData.course2ResponseModel.capacity(), 1);
+        verify(courseSeatsRepository).release(EnrollmentCounterKey.of(testData.enrollment1), 1);
+        verify(enrollmentCounterRepository).increment(Map.of(
+                EnrollmentCounterKey.of(testData.enrollment1), -1L,
+                new EnrollmentCounterKey(updateRequest.courseId(), updateRequest.enrollmentYear(), updateRequest.semester()), 1L));
     }
 
     @Test
@@ -136,5 +385,8 @@ class EnrollmentServiceUnitTest {
         StepVerifier.create(enrollmentService.deleteEnrollment(testData.enrollment1.getEnrollmentId()))
                 .expectNextMatches(enrollment -> enrollment.enrollmentId().equals(testData.enrollment1.getEnrollmentId()))
                 .verifyComplete();
+
+        verify(courseSeatsRepository).release(EnrollmentCounterKey.of(testData.enrollment1), 1);
+        verify(enrollmentCounterRepository).increment(Map.of(EnrollmentCounterKey.of(testData.enrollment1), -1L));
     }
 }
@@ -0,0 +1,112 @@
+package com.champlain.enrollmentsservice.businesslayer.students;
+
+import com.champlain.enrollmentsservice.TestData;
+import com.champlain.enrollmentsservice.domainclientlayer.students.StudentResponseModel;
+import com.champlain.enrollmentsservice.domainclientlayer.students.StudentServiceClientAsynchronous;
+import com.champlain.enrollmentsservice.domainclientlayer.students.StudentServiceClientSynchronous;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class StudentServiceUnitTest {
+
+    @InjectMocks
+    private StudentServiceImpl studentService;
+
+    @Mock
+    private StudentServiceClientSynchronous studentServiceClientSynchronous;
+
+    @Mock
+    private StudentServiceClientAsynchronous studentServiceClientAsynchronous;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final TestData testData = new TestData();
+
+    @Test
+    void whenAsyncStudentsComplete_thenStrategyTimerRecordsOnce() {
+        Sinks.Many<StudentResponseModel> students = Sinks.many().unicast().onBackpressureBuffer();
+        when(studentServiceClientAsynchronous.get1000StudentsAsync()).thenReturn(students.asFlux());
+
+        StepVerifier.create(studentService.get1000StudentsAsync())
+                .then(() -> {
+                    students.tryEmitNext(testData.student1ResponseModel);
+                    //assembled and streaming is not done yet
+                    assertNull(strategyTimer("async", "success"));
+                    students.tryEmitComplete();
+                })
+                .expectNext(testData.student1ResponseModel)
+                .verifyComplete();
+
+        assertEquals(1, strategyTimer("async", "success").count());
+    }
+
+    @Test
+    void whenAsyncStudentsFail_thenStrategyTimerIsTaggedError() {
+        when(studentServiceClientAsynchronous.get1000StudentsAsyncBounded()).thenReturn(Flux.error(new IllegalStateException("down")));
+
+        StepVerifier.create(studentService.get1000StudentsAsyncBounded())
+                .verifyError(IllegalStateException.class);
+
+        assertEquals(1, strategyTimer("asyncbounded", "error").count());
+    }
+
+    @Test
+    void whenSyncLoop_thenStrategyTimerRecordsOnce() {
+        when(studentServiceClientSynchronous.get1000StudentsLoop()).thenReturn(List.of(testData.student1ResponseModel));
+
+        assertEquals(1, studentService.get1000StudentsSyncLoop().size());
+        assertEquals(1, strategyTimer("syncloop", "success").count());
+    }
+
+    @Test
+    void whenBenchmarkStrategies_thenOneRowPerStrategyOverMeasuredRunsOnly() {
+        List<StudentResponseModel> students = List.of(testData.student1ResponseModel, testData.student2ResponseModel);
+        when(studentServiceClientSynchronous.get1000StudentsLoop()).thenReturn(students);
+        when(studentServiceClientSynchronous.get1000StudentsSyncParallel()).thenReturn(students);
+        when(studentServiceClientSynchronous.get1000StudentsVirtualThreads()).thenReturn(students);
+        when(studentServiceClientAsynchronous.get1000StudentsAsync()).thenReturn(Flux.fromIterable(students));
+        when(studentServiceClientAsynchronous.get1000StudentsAsyncParallel()).thenReturn(Flux.fromIterable(students));
+        when(studentServiceClientAsynchronous.get1000StudentsAsyncBounded()).thenReturn(Flux.fromIterable(students));
+
+        StepVerifier.create(studentService.benchmarkStrategies(1, 3).collectList())
+                .assertNext(results -> {
+                    assertEquals(List.of("syncloop", "syncparallel", "syncvirtual", "async", "asyncparallel", "asyncbounded"),
+                            results.stream().map(r -> r.strategy()).toList());
+                    results.forEach(r -> {
+                        assertEquals(3, r.iterations());
+                        assertTrue(r.p50Millis() <= r.p95Millis() && r.p95Millis() <= r.p99Millis());
+                        assertTrue(r.studentsPerSecond() > 0);
+                        assertTrue(r.peakThreads() > 0);
+                    });
+                })
+                .verifyComplete();
+
+        //warmup plus measured runs all go through the timers
+        assertEquals(4, strategyTimer("async", "success").count());
+    }
+
+    private Timer strategyTimer(String strategy, String outcome) {
+        return meterRegistry.find(StudentServiceImpl.STRATEGY_TIMER)
+                .tags("strategy", strategy, "outcome", outcome)
+                .timer();
+    }
+}
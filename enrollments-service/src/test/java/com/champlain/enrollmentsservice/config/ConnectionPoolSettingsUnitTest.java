@@ -0,0 +1,38 @@
+package com.champlain.enrollmentsservice.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ConnectionPoolSettingsUnitTest {
+
+    @Test
+    void whenNoPoolPropertiesAreSet_thenDefaultsAreUsed() {
+        ConnectionPoolSettings pool = ConnectionPoolSettings.of(new MockEnvironment(), "students-service");
+
+        assertEquals(100, pool.maxConnections());
+        assertEquals(Duration.ofSeconds(1), pool.pendingAcquireTimeout());
+        assertEquals(0, pool.warmupConnections());
+        //above the 2s per-call timeout, so the call timeout fires first
+        assertEquals(Duration.ofSeconds(3), pool.responseTimeout());
+    }
+
+    @Test
+    void whenPoolPropertiesAreSet_thenTheyAreBoundForThatServiceOnly() {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("app.students-service.pool.max-connections", "20")
+                .withProperty("app.students-service.pool.pending-acquire-timeout", "250ms")
+                .withProperty("app.students-service.pool.warmup-connections", "4");
+
+        ConnectionPoolSettings students = ConnectionPoolSettings.of(environment, "students-service");
+        ConnectionPoolSettings courses = ConnectionPoolSettings.of(environment, "courses-service");
+
+        assertEquals(20, students.maxConnections());
+        assertEquals(Duration.ofMillis(250), students.pendingAcquireTimeout());
+        assertEquals(4, students.warmupConnections());
+        assertEquals(100, courses.maxConnections());
+    }
+}
@@ -0,0 +1,153 @@
+package com.champlain.enrollmentsservice.dataaccesslayer;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataMongoTest
+@ActiveProfiles("test")
+@Import(EnrollmentIndexInitializer.class)
+class CourseSeatsRepositoryIntegrationTest {
+
+    private static final EnrollmentCounterKey COURSE_TERM = new EnrollmentCounterKey("9a29fff7-564a-4cc9-8fe1-36f6ca9bc223", 2025, Semester.FALL);
+
+    @Autowired
+    private CourseSeatsRepository courseSeatsRepository;
+
+    @Autowired
+    private EnrollmentCounterRepository enrollmentCounterRepository;
+
+    @Autowired
+    private EnrollmentRepository enrollmentRepository;
+
+    @Autowired
+    private EnrollmentIndexInitializer enrollmentIndexInitializer;
+
+    @BeforeEach
+    public void setUpDB() {
+        StepVerifier
+                .create(courseSeatsRepository.deleteAll()
+                        .then(enrollmentCounterRepository.deleteAll())
+                        .then(enrollmentRepository.deleteAll())
+                        .then(enrollmentIndexInitializer.ensureIndexes()))
+                .verifyComplete();
+    }
+
+    @Test
+    public void whenMoreRequestsThanSeatsArriveTogether_thenExactlyCapacityAreReserved() {
+        int capacity = 50;
+
+        StepVerifier
+                .create(Flux.range(0, 500)
+                        .parallel(32)
+                        .runOn(Schedulers.parallel())
+                        .flatMap(i -> courseSeatsRepository.reserve(COURSE_TERM, capacity, 1))
+                        .sequential()
+                        .filter(Boolean::booleanValue)
+                        .count())
+                .expectNext((long) capacity)
+                .verifyComplete();
+
+        StepVerifier
+                .create(courseSeatsRepository.findAll())
+                .consumeNextWith(seats -> assertEquals(0L, seats.getSeatsLeft()))
+                .verifyComplete();
+    }
+
+    @Test
+    public void whenSeatsAreReleased_thenTheyCanBeReservedAgain() {
+        StepVerifier
+                .create(courseSeatsRepository.reserve(COURSE_TERM, 2, 2)
+                        .then(courseSeatsRepository.reserve(COURSE_TERM, 2, 1)))
+                .expectNext(false)
+                .verifyComplete();
+
+        StepVerifier
+                .create(courseSeatsRepository.release(COURSE_TERM, 1)
+                        .then(courseSeatsRepository.reserve(COURSE_TERM, 2, 1)))
+                .expectNext(true)
+                .verifyComplete();
+    }
+
+    @Test
+    public void whenCourseAlreadyHasEnrollments_thenTheyAreTakenFromTheCapacity() {
+        //the counters are not what the seats start from, the enrollments themselves are
+        StepVerifier
+                .create(enrollmentRepository.saveAll(Flux.range(0, 3).map(i -> enrollment(COURSE_TERM)))
+                        .then(enrollmentCounterRepository.increment(Map.of(COURSE_TERM, 1L)))
+                        .then(courseSeatsRepository.reserve(COURSE_TERM, 4, 2)))
+                .expectNext(false)
+                .verifyComplete();
+
+        StepVerifier
+                .create(courseSeatsRepository.reserve(COURSE_TERM, 4, 1))
+                .expectNext(true)
+                .verifyComplete();
+    }
+
+    @Test
+    public void whenCapacityIsRaised_thenEveryTermOfTheCourseGetsTheExtraSeats() {
+        EnrollmentCounterKey otherTerm = new EnrollmentCounterKey(COURSE_TERM.courseId(), 2026, Semester.WINTER);
+        StepVerifier
+                .create(courseSeatsRepository.reserve(COURSE_TERM, 2, 2)
+                        .then(courseSeatsRepository.reserve(otherTerm, 2, 1))
+                        .then(courseSeatsRepository.resize(COURSE_TERM.courseId(), 5)))
+                .verifyComplete();
+
+        StepVerifier
+                .create(courseSeatsRepository.findAll().collectMap(seats -> seats.getEnrollmentYear()))
+                .consumeNextWith(seats -> {
+                    assertEquals(3L, seats.get(2025).getSeatsLeft());
+                    assertEquals(4L, seats.get(2026).getSeatsLeft());
+                    assertEquals(5, seats.get(2025).getCapacity());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    public void whenCapacityIsLoweredUnderTheEnrollments_thenNoSeatIsLeftUntilEnoughAreReleased() {
+        StepVerifier
+                .create(courseSeatsRepository.reserve(COURSE_TERM, 5, 4)
+                        .then(courseSeatsRepository.resize(COURSE_TERM.courseId(), 3))
+                        .then(courseSeatsRepository.reserve(COURSE_TERM, 3, 1)))
+                .expectNext(false)
+                .verifyComplete();
+
+        StepVerifier
+                .create(courseSeatsRepository.release(COURSE_TERM, 2)
+                        .then(courseSeatsRepository.reserve(COURSE_TERM, 3, 1)))
+                .expectNext(true)
+                .verifyComplete();
+    }
+
+    @Test
+    public void whenCapacityIsRemoved_thenTheSeatCountsOfTheCourseAreDropped() {
+        StepVerifier
+                .create(courseSeatsRepository.reserve(COURSE_TERM, 2, 1)
+                        .then(courseSeatsRepository.resize(COURSE_TERM.courseId(), null))
+                        .then(courseSeatsRepository.count()))
+                .expectNext(0L)
+                .verifyComplete();
+    }
+
+    private static Enrollment enrollment(EnrollmentCounterKey courseTerm) {
+        return Enrollment.builder()
+                .enrollmentId(UUID.randomUUID().toString())
+                .studentId(UUID.randomUUID().toString())
+                .courseId(courseTerm.courseId())
+                .enrollmentYear(courseTerm.enrollmentYear())
+                .semester(courseTerm.semester())
+                .build();
+    }
+}
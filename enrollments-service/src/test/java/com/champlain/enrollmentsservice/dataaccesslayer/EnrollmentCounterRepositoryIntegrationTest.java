@@ -0,0 +1,122 @@
+package com.champlain.enrollmentsservice.dataaccesslayer;
+
+import com.champlain.enrollmentsservice.TestData;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.test.context.ActiveProfiles;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataMongoTest
+@ActiveProfiles("test")
+class EnrollmentCounterRepositoryIntegrationTest {
+
+    @Autowired
+    private EnrollmentCounterRepository enrollmentCounterRepository;
+
+    @Autowired
+    private EnrollmentRepository enrollmentRepository;
+
+    private final TestData testData = new TestData();
+
+    @BeforeEach
+    public void setUpDB() {
+        StepVerifier
+                .create(enrollmentRepository.deleteAll().then(enrollmentCounterRepository.deleteAll()))
+                .verifyComplete();
+    }
+
+    @Test
+    public void whenIncrement_thenCountersAddUpPerCourseAndTerm() {
+        EnrollmentCounterKey course1 = EnrollmentCounterKey.of(testData.enrollment1);
+        EnrollmentCounterKey course2 = EnrollmentCounterKey.of(testData.enrollment2);
+
+        StepVerifier
+                .create(enrollmentCounterRepository.increment(Map.of(course1, 2L, course2, 1L))
+                        .then(enrollmentCounterRepository.increment(Map.of(course1, -1L))))
+                .verifyComplete();
+
+        StepVerifier
+                .create(enrollmentCounterRepository.findCounts(course1.courseId(), course1.enrollmentYear(), course1.semester()))
+                .consumeNextWith(counter -> assertEquals(1L, counter.getCount()))
+                .verifyComplete();
+
+        StepVerifier
+                .create(enrollmentCounterRepository.findCounts(null, course1.enrollmentYear(), course1.semester()))
+                .expectNextCount(2)
+                .verifyComplete();
+    }
+
+    @Test
+    public void whenRebuild_thenCountersMatchEnrollments() {
+        StepVerifier
+                .create(enrollmentRepository.saveAll(List.of(testData.enrollment1, testData.enrollment2))
+                        .then(enrollmentCounterRepository.increment(Map.of(EnrollmentCounterKey.of(testData.enrollment1), 5L))))
+                .verifyComplete();
+
+        StepVerifier
+                .create(enrollmentCounterRepository.rebuild()
+                        .thenMany(enrollmentCounterRepository.findCounts(null, null, null)))
+                .thenConsumeWhile(counter -> counter.getCount() == 1L)
+                .verifyComplete();
+
+        StepVerifier
+                .create(enrollmentCounterRepository.count())
+                .expectNext(2L)
+                .verifyComplete();
+    }
+
+    @Test
+    public void whenRebuild_withCounterForCourseWithoutEnrollments_thenCounterIsRemovedAndOthersAreKept() {
+        EnrollmentCounterKey emptyCourse = new EnrollmentCounterKey(TestData.NON_EXISTING_COURSEID, 2021, Semester.FALL);
+        StepVerifier
+                .create(enrollmentRepository.save(testData.enrollment1)
+                        .then(enrollmentCounterRepository.increment(Map.of(EnrollmentCounterKey.of(testData.enrollment1), 1L, emptyCourse, 3L))))
+                .verifyComplete();
+
+        StepVerifier
+                .create(enrollmentCounterRepository.rebuild()
+                        .thenMany(enrollmentCounterRepository.findCounts(null, null, null)))
+                .consumeNextWith(counter -> {
+                    assertEquals(testData.enrollment1.getCourseId(), counter.getCourseId());
+                    assertEquals(1L, counter.getCount());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    public void whenRebuild_withIncrementLandingAfterTheFirstPass_thenCounterIsNotCountedTwice() {
+        EnrollmentCounterKey course1 = EnrollmentCounterKey.of(testData.enrollment1);
+        Enrollment sameCourse = Enrollment.builder()
+                .enrollmentId("2a4b7e1c-9f0d-4c6a-8e3b-5d1f7a9c0b2e")
+                .enrollmentYear(course1.enrollmentYear())
+                .semester(course1.semester())
+                .studentId(testData.enrollment2.getStudentId())
+                .courseId(course1.courseId())
+                .build();
+        StepVerifier
+                .create(enrollmentRepository.save(testData.enrollment1)
+                        .then(enrollmentCounterRepository.increment(Map.of(course1, 1L))))
+                .verifyComplete();
+
+        //the second enrollment is saved but its $inc only lands while the rebuild waits between its two passes
+        StepVerifier
+                .create(enrollmentRepository.save(sameCourse)
+                        .then(Mono.when(enrollmentCounterRepository.rebuild(),
+                                Mono.delay(Duration.ofMillis(100)).then(enrollmentCounterRepository.increment(Map.of(course1, 1L))))))
+                .verifyComplete();
+
+        StepVerifier
+                .create(enrollmentCounterRepository.findCounts(course1.courseId(), course1.enrollmentYear(), course1.semester()))
+                .consumeNextWith(counter -> assertEquals(2L, counter.getCount()))
+                .verifyComplete();
+    }
+}
@@ -0,0 +1,76 @@
+package com.champlain.enrollmentsservice.dataaccesslayer;
+
+import com.champlain.enrollmentsservice.TestData;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.test.context.ActiveProfiles;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataMongoTest
+@ActiveProfiles("test")
+@Import(EnrollmentIndexInitializer.class)
+class EnrollmentIndexInitializerIntegrationTest {
+
+    @Autowired
+    private EnrollmentIndexInitializer enrollmentIndexInitializer;
+
+    @Autowired
+    private EnrollmentRepository enrollmentRepository;
+
+    @Autowired
+    private ReactiveMongoTemplate mongoTemplate;
+
+    private final TestData testData = new TestData();
+
+    @BeforeEach
+    public void setUpDB() {
+        StepVerifier
+                .create(enrollmentRepository.deleteAll().then(enrollmentIndexInitializer.ensureIndexes()))
+                .verifyComplete();
+    }
+
+    @Test
+    void whenIndexesAreEnsured_thenEnrollmentIdIsUniquelyIndexed() {
+        StepVerifier
+                .create(mongoTemplate.indexOps(Enrollment.class).getIndexInfo()
+                        .filter(index -> index.isIndexForFields(List.of("enrollmentId")))
+                        .map(IndexInfo::isUnique))
+                .expectNext(true)
+                .verifyComplete();
+    }
+
+    @Test
+    void whenSameStudentCourseAndTermIsSavedTwice_thenDuplicateKeyException() {
+        Enrollment sameTerm = Enrollment.builder()
+                .enrollmentId(UUID.randomUUID().toString())
+                .enrollmentYear(testData.enrollment1.getEnrollmentYear())
+                .semester(testData.enrollment1.getSemester())
+                .studentId(testData.enrollment1.getStudentId())
+                .courseId(testData.enrollment1.getCourseId())
+                .build();
+
+        StepVerifier
+                .create(enrollmentRepository.save(testData.enrollment1).then(enrollmentRepository.save(sameTerm)))
+                .expectError(DuplicateKeyException.class)
+                .verify();
+    }
+
+    @Test
+    void whenIndexesAreEnsuredAgain_thenNothingChanges() {
+        StepVerifier
+                .create(enrollmentIndexInitializer.ensureIndexes().thenMany(mongoTemplate.indexOps(Enrollment.class).getIndexInfo()).count())
+                .assertNext(count -> assertTrue(count >= 3))
+                .verifyComplete();
+    }
+}
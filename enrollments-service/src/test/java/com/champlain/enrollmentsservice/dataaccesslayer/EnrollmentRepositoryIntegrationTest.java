@@ -8,6 +8,9 @@ import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
 import org.springframework.test.context.ActiveProfiles;
 import reactor.test.StepVerifier;
 
+import java.util.List;
+import java.util.Set;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 @DataMongoTest
@@ -135,4 +138,125 @@ class EnrollmentRepositoryIntegrationTest {
                 .expectNextCount(0)
                 .verifyComplete();
     }
+
+    @Test
+    public void whenFindPage_thenPagesFollowIdOrderAndFilters() {
+        Enrollment otherTerm = Enrollment.builder()
+                .enrollmentId("3f5a1c40-6a7b-4c1d-9e2f-8a9b0c1d2e3f")
+                .enrollmentYear(2022)
+                .semester(Semester.WINTER)
+                .studentId(testData.enrollment1.getStudentId())
+                .courseId(testData.enrollment1.getCourseId())
+                .build();
+
+        StepVerifier
+                .create(enrollmentRepository.saveAll(List.of(testData.enrollment1, testData.enrollment2, otherTerm)))
+                .expectNextCount(3)
+                .verifyComplete();
+
+        EnrollmentFilter byStudent = new EnrollmentFilter(testData.enrollment1.getStudentId(), null, null, null);
+        Enrollment first = enrollmentRepository.findPage(byStudent, null, 1).blockFirst();
+        assertNotNull(first);
+
+        StepVerifier
+                .create(enrollmentRepository.findPage(byStudent, first.getId(), 10))
+                .expectNextCount(2)
+                .verifyComplete();
+
+        StepVerifier
+                .create(enrollmentRepository.findPage(new EnrollmentFilter(null, testData.enrollment1.getCourseId(), 2022, Semester.WINTER), null, 10))
+                .consumeNextWith(found -> assertEquals(otherTerm.getEnrollmentId(), found.getEnrollmentId()))
+                .verifyComplete();
+    }
+
+    @Test
+    public void whenFindFields_thenReturnOnlyRequestedFields() {
+        StepVerifier
+                .create(enrollmentRepository.saveAll(List.of(testData.enrollment1, testData.enrollment2)))
+                .expectNextCount(2)
+                .verifyComplete();
+
+        StepVerifier
+                .create(enrollmentRepository.findFieldsByEnrollmentId(testData.enrollment1.getEnrollmentId(), List.of("courseName", "semester")))
+                .consumeNextWith(fields -> {
+                    assertEquals(Set.of("courseName", "semester"), fields.keySet());
+                    assertEquals(testData.enrollment1.getCourseName(), fields.get("courseName"));
+                    assertEquals(testData.enrollment1.getSemester().name(), fields.get("semester"));
+                })
+                .verifyComplete();
+
+        StepVerifier
+                .create(enrollmentRepository.findPageFields(new EnrollmentFilter(null, null, null, null), null, 10, List.of("enrollmentId")))
+                .thenConsumeWhile(fields -> fields.keySet().equals(Set.of("_id", "enrollmentId")))
+                .verifyComplete();
+    }
+
+    @Test
+    public void whenFindAllByStudentIdAndByCourseId_thenReturnOnlyMatchingEnrollments() {
+        StepVerifier
+                .create(enrollmentRepository.saveAll(List.of(testData.enrollment1, testData.enrollment2)))
+                .expectNextCount(2)
+                .verifyComplete();
+
+        StepVerifier
+                .create(enrollmentRepository.findAllByStudentIdOrderByIdAsc(testData.enrollment1.getStudentId()))
+                .thenConsumeWhile(found -> found.getStudentId().equals(testData.enrollment1.getStudentId()))
+                .verifyComplete();
+
+        StepVerifier
+                .create(enrollmentRepository.findAllByCourseIdOrderByIdAsc(testData.enrollment2.getCourseId()))
+                .consumeNextWith(found -> assertEquals(testData.enrollment2.getEnrollmentId(), found.getEnrollmentId()))
+                .verifyComplete();
+    }
+
+    @Test
+    public void whenUpdateCourseDetails_thenRewriteOnlyThatCourseAndSkipUpToDateEnrollments() {
+        String courseId = testData.enrollment1.getCourseId();
+        StepVerifier
+                .create(enrollmentRepository.saveAll(List.of(testData.enrollment1, testData.enrollment2)))
+                .expectNextCount(2)
+                .verifyComplete();
+
+        StepVerifier
+                .create(enrollmentRepository.updateCourseDetails(courseId, "cat-420", "Renamed Course"))
+                .expectNext(1L)
+                .verifyComplete();
+
+        //same values again, nothing left to change
+        StepVerifier
+                .create(enrollmentRepository.updateCourseDetails(courseId, "cat-420", "Renamed Course"))
+                .expectNext(0L)
+                .verifyComplete();
+
+        StepVerifier
+                .create(enrollmentRepository.findEnrollmentByEnrollmentId(testData.enrollment1.getEnrollmentId()))
+                .consumeNextWith(found -> {
+                    assertEquals("cat-420", found.getCourseNumber());
+                    assertEquals("Renamed Course", found.getCourseName());
+                })
+                .verifyComplete();
+
+        StepVerifier
+                .create(enrollmentRepository.findEnrollmentByEnrollmentId(testData.enrollment2.getEnrollmentId()))
+                .consumeNextWith(found -> assertEquals(testData.enrollment2.getCourseName(), found.getCourseName()))
+                .verifyComplete();
+    }
+
+    @Test
+    public void whenUpdateStudentNames_thenRewriteEveryEnrollmentOfTheStudent() {
+        StepVerifier
+                .create(enrollmentRepository.saveAll(List.of(testData.enrollment1, testData.enrollment2)))
+                .expectNextCount(2)
+                .verifyComplete();
+
+        StepVerifier
+                .create(enrollmentRepository.updateStudentNames(testData.enrollment1.getStudentId(), "Renamed", "Student"))
+                .expectNext(2L)
+                .verifyComplete();
+
+        StepVerifier
+                .create(enrollmentRepository.findAllByStudentIdOrderByIdAsc(testData.enrollment1.getStudentId()))
+                .thenConsumeWhile(found -> found.getStudentFirstName().equals("Renamed") && found.getStudentLastName().equals("Student"))
+                .verifyComplete();
+    }
 }
@@ -0,0 +1,94 @@
+package com.champlain.enrollmentsservice.domainclientlayer;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class RequestCollapserUnitTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<Set<String>> batches = new CopyOnWriteArrayList<>();
+
+    private RequestCollapser<String, String> collapser(int maxBatchSize, Function<Set<String>, Mono<Map<String, String>>> loader) {
+        return new RequestCollapser<>("test", new RequestCollapser.Settings(true, Duration.ofMillis(50), maxBatchSize), meterRegistry,
+                keys -> {
+                    batches.add(Set.copyOf(keys));
+                    return loader.apply(keys);
+                });
+    }
+
+    private static Mono<Map<String, String>> upperCase(Set<String> keys) {
+        return Mono.just(keys.stream()
+                .filter(key -> !key.startsWith("missing"))
+                .collect(Collectors.toMap(Function.identity(), String::toUpperCase)));
+    }
+
+    @Test
+    void whenConcurrentLookupsArriveWithinWindow_thenOneBatchIsLoaded() {
+        RequestCollapser<String, String> collapser = collapser(100, RequestCollapserUnitTest::upperCase);
+
+        StepVerifier.create(Flux.just("a", "b", "c", "a")
+                        .flatMap(key -> collapser.get(key).map(value -> key + "=" + value))
+                        .collectList())
+                .consumeNextWith(results -> assertEquals(Set.of("a=A", "b=B", "c=C"), Set.copyOf(results)))
+                .verifyComplete();
+
+        assertEquals(1, batches.size());
+        assertEquals(Set.of("a", "b", "c"), batches.get(0));
+        assertEquals(3.0, meterRegistry.get("enrollments.collapser.batch.size").summary().totalAmount());
+        assertEquals(4, meterRegistry.get("enrollments.collapser.window.wait").timer().count());
+    }
+
+    @Test
+    void whenMaxBatchSizeIsReached_thenBatchIsDispatchedWithoutWaitingForWindow() {
+        RequestCollapser<String, String> collapser = collapser(2, RequestCollapserUnitTest::upperCase);
+
+        StepVerifier.create(Flux.just("a", "b", "c", "d").flatMap(collapser::get))
+                .expectNextCount(4)
+                .verifyComplete();
+
+        assertEquals(2, batches.size());
+    }
+
+    @Test
+    void whenKeyIsMissingFromBatch_thenOnlyItsCallerCompletesEmpty() {
+        RequestCollapser<String, String> collapser = collapser(100, RequestCollapserUnitTest::upperCase);
+
+        Mono<String> missing = collapser.get("missing");
+        Mono<String> found = collapser.get("found");
+
+        StepVerifier.create(Mono.zip(missing.defaultIfEmpty("empty"), found))
+                .consumeNextWith(results -> {
+                    assertEquals("empty", results.getT1());
+                    assertEquals("FOUND", results.getT2());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void whenBatchFails_thenEveryCallerInItFailsAndLaterBatchesStillWork() {
+        RequestCollapser<String, String> collapser = collapser(100,
+                keys -> keys.contains("boom") ? Mono.error(new IllegalStateException("boom")) : upperCase(keys));
+
+        StepVerifier.create(Flux.just("boom", "a").flatMap(collapser::get))
+                .expectError(IllegalStateException.class)
+                .verify();
+
+        StepVerifier.create(collapser.get("b"))
+                .expectNext("B")
+                .verifyComplete();
+    }
+}
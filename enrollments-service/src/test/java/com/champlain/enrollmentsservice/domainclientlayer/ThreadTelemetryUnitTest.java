@@ -0,0 +1,70 @@
+package com.champlain.enrollmentsservice.domainclientlayer;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ThreadTelemetryUnitTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ThreadTelemetry threadTelemetry = new ThreadTelemetry(meterRegistry);
+
+    @Test
+    void whenStageRunsOnScheduler_thenElementsAreCountedUnderItsPool() {
+        StepVerifier.create(Flux.range(1, 10)
+                        .transform(threadTelemetry.stage("test", "request"))
+                        .subscribeOn(Schedulers.single()))
+                .expectNextCount(10)
+                .verifyComplete();
+
+        assertEquals(10, meterRegistry.get("enrollments.pipeline.stage.elements")
+                .tags("pipeline", "test", "stage", "request", "pool", "single")
+                .counter()
+                .count());
+        assertEquals(1, meterRegistry.get("enrollments.pipeline.threads").tags("pipeline", "test").summary().max());
+        assertEquals(0, meterRegistry.get("enrollments.pipeline.thread.hops").tags("pipeline", "test").summary().max());
+    }
+
+    @Test
+    void whenElementsMoveBetweenThreads_thenHopsAreRecordedPerRun() {
+        StepVerifier.create(Flux.range(1, 4)
+                        .concatMap(i -> Flux.just(i).publishOn(Schedulers.newSingle("hop-" + i)))
+                        .transform(threadTelemetry.stage("test", "response")))
+                .expectNextCount(4)
+                .verifyComplete();
+
+        assertEquals(4, meterRegistry.get("enrollments.pipeline.threads").tags("stage", "response").summary().max());
+        assertEquals(3, meterRegistry.get("enrollments.pipeline.thread.hops").tags("stage", "response").summary().max());
+    }
+
+    @Test
+    void whenBlockingRunRecordsFromParallelStream_thenEveryElementIsCounted() {
+        ThreadTelemetry.Run run = threadTelemetry.start("test", "parallel");
+        IntStream.range(0, 100).parallel().forEach(i -> run.record());
+        run.finish();
+
+        double total = meterRegistry.find("enrollments.pipeline.stage.elements")
+                .tags("stage", "parallel")
+                .counters()
+                .stream()
+                .mapToDouble(c -> c.count())
+                .sum();
+        assertEquals(100, total);
+        assertEquals(1, meterRegistry.get("enrollments.pipeline.threads").tags("stage", "parallel").summary().count());
+    }
+
+    @Test
+    void poolOf_stripsThreadNumber() {
+        assertEquals("reactor-http-epoll", ThreadTelemetry.poolOf(new Thread(() -> {}, "reactor-http-epoll-3")));
+        assertEquals("ForkJoinPool.commonPool-worker", ThreadTelemetry.poolOf(new Thread(() -> {}, "ForkJoinPool.commonPool-worker-12")));
+        assertEquals("main", ThreadTelemetry.poolOf(new Thread(() -> {}, "main")));
+        assertEquals("virtual", ThreadTelemetry.poolOf(Thread.ofVirtual().unstarted(() -> {})));
+    }
+}
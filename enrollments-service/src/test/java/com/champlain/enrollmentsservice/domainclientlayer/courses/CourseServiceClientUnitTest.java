@@ -0,0 +1,162 @@
+package com.champlain.enrollmentsservice.domainclientlayer.courses;
+
+import com.champlain.enrollmentsservice.TestData;
+import com.champlain.enrollmentsservice.domainclientlayer.RequestCollapser;
+import com.champlain.enrollmentsservice.exceptionhandling.exceptions.CourseNotFoundException;
+import com.champlain.enrollmentsservice.exceptionhandling.exceptions.DownstreamTimeoutException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.netty.handler.timeout.ReadTimeoutException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CourseServiceClientUnitTest {
+
+    private final TestData testData = new TestData();
+    private final AtomicInteger requests = new AtomicInteger();
+    private HttpStatus status;
+    private String batchBody;
+    private CourseServiceClient courseClient;
+
+    @BeforeEach
+    void setUp() throws JsonProcessingException {
+        ObjectMapper mapper = new ObjectMapper();
+        String body = mapper.writeValueAsString(testData.course1ResponseModel);
+        batchBody = mapper.writeValueAsString(List.of(testData.course1ResponseModel));
+        status = HttpStatus.OK;
+
+        WebClient webClient = WebClient.builder()
+                .baseUrl("http://courses-service/api/v1/courses")
+                .exchangeFunction(request -> {
+                    requests.incrementAndGet();
+                    return Mono.just(ClientResponse.create(status)
+                                    .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                                    .body(request.url().getPath().endsWith("/batch") ? batchBody : body)
+                                    .build())
+                            .delayElement(Duration.ofMillis(50));
+                })
+                .build();
+
+        courseClient = new CourseServiceClient(webClient, Duration.ofSeconds(2),
+                Caffeine.newBuilder().maximumSize(10).expireAfterWrite(Duration.ofMinutes(1)).buildAsync(), new SimpleMeterRegistry());
+    }
+
+    @Test
+    void whenConcurrentCallsForSameCourse_thenOnlyOneRequestIsSent() {
+        String courseId = testData.course1ResponseModel.courseId();
+
+        StepVerifier
+                .create(Flux.range(0, 10)
+                        .flatMap(i -> courseClient.getCourseByCourseId(courseId)))
+                .expectNextCount(10)
+                .verifyComplete();
+
+        StepVerifier
+                .create(courseClient.getCourseByCourseId(courseId))
+                .expectNext(testData.course1ResponseModel)
+                .verifyComplete();
+
+        assertEquals(1, requests.get());
+    }
+
+    @Test
+    void whenCourseNotFound_thenErrorIsNotCached() {
+        String courseId = testData.course1ResponseModel.courseId();
+        status = HttpStatus.NOT_FOUND;
+
+        StepVerifier
+                .create(courseClient.getCourseByCourseId(courseId))
+                .expectError(CourseNotFoundException.class)
+                .verify();
+
+        status = HttpStatus.OK;
+
+        StepVerifier
+                .create(courseClient.getCourseByCourseId(courseId))
+                .expectNext(testData.course1ResponseModel)
+                .verifyComplete();
+
+        assertEquals(2, requests.get());
+    }
+
+    @Test
+    void whenGetCoursesByCourseIds_thenOneBatchRequestIsSentAndResultsAreCached() {
+        String courseId = testData.course1ResponseModel.courseId();
+
+        StepVerifier
+                .create(courseClient.getCoursesByCourseIds(List.of(courseId, courseId, TestData.NON_EXISTING_COURSEID)))
+                .expectNext(testData.course1ResponseModel)
+                .verifyComplete();
+
+        StepVerifier
+                .create(courseClient.getCourseByCourseId(courseId))
+                .expectNext(testData.course1ResponseModel)
+                .verifyComplete();
+
+        assertEquals(1, requests.get());
+    }
+
+    @Test
+    void whenCollapsingIsEnabled_thenConcurrentMissesForDifferentCoursesShareOneBatchRequest() {
+        WebClient webClient = WebClient.builder()
+                .baseUrl("http://courses-service/api/v1/courses")
+                .exchangeFunction(request -> {
+                    requests.incrementAndGet();
+                    assertEquals("/api/v1/courses/batch", request.url().getPath());
+                    return Mono.just(ClientResponse.create(HttpStatus.OK)
+                            .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                            .body(batchBody)
+                            .build());
+                })
+                .build();
+        CourseServiceClient collapsingClient = new CourseServiceClient(webClient, Duration.ofSeconds(2),
+                Caffeine.newBuilder().maximumSize(10).buildAsync(),
+                new RequestCollapser.Settings(true, Duration.ofMillis(20), 100), new SimpleMeterRegistry());
+
+        StepVerifier
+                .create(Mono.zip(
+                        collapsingClient.getCourseByCourseId(testData.course1ResponseModel.courseId()),
+                        collapsingClient.getCourseByCourseId(TestData.NON_EXISTING_COURSEID).onErrorReturn(CourseNotFoundException.class, testData.course2ResponseModel)))
+                .consumeNextWith(courses -> {
+                    assertEquals(testData.course1ResponseModel, courses.getT1());
+                    assertEquals(testData.course2ResponseModel, courses.getT2());
+                })
+                .verifyComplete();
+
+        assertEquals(1, requests.get());
+    }
+
+    @Test
+    void whenNettyResponseTimeoutFires_thenDownstreamTimeoutIsRaised() {
+        WebClient webClient = WebClient.builder()
+                .baseUrl("http://courses-service/api/v1/courses")
+                .exchangeFunction(request -> Mono.error(new WebClientRequestException(ReadTimeoutException.INSTANCE,
+                        HttpMethod.GET, request.url(), new HttpHeaders())))
+                .build();
+        CourseServiceClient timingOutClient = new CourseServiceClient(webClient, Duration.ofSeconds(2),
+                Caffeine.newBuilder().maximumSize(10).buildAsync(), new SimpleMeterRegistry());
+
+        StepVerifier
+                .create(timingOutClient.getCourseByCourseId(testData.course1ResponseModel.courseId()))
+                .expectError(DownstreamTimeoutException.class)
+                .verify();
+    }
+}
@@ -0,0 +1,134 @@
+package com.champlain.enrollmentsservice.domainclientlayer.students;
+
+import com.champlain.enrollmentsservice.TestData;
+import com.champlain.enrollmentsservice.exceptionhandling.exceptions.StudentNotFoundException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class StudentServiceClientAsynchronousUnitTest {
+
+    private final TestData testData = new TestData();
+    private final AtomicInteger requests = new AtomicInteger();
+    private HttpStatus status;
+    private StudentServiceClientAsynchronous studentClient;
+
+    @BeforeEach
+    void setUp() throws JsonProcessingException {
+        ObjectMapper mapper = new ObjectMapper();
+        String body = mapper.writeValueAsString(testData.student1ResponseModel);
+        String batchBody = mapper.writeValueAsString(List.of(testData.student1ResponseModel));
+        status = HttpStatus.OK;
+
+        WebClient webClient = WebClient.builder()
+                .baseUrl("http://students-service/api/v1/students")
+                .exchangeFunction(request -> {
+                    requests.incrementAndGet();
+                    return Mono.just(ClientResponse.create(status)
+                                    .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                                    .body(request.url().getPath().endsWith("/batch") ? batchBody : body)
+                                    .build())
+                            .delayElement(Duration.ofMillis(50));
+                })
+                .build();
+
+        studentClient = new StudentServiceClientAsynchronous(webClient, Duration.ofSeconds(2),
+                Caffeine.newBuilder()
+                        .maximumWeight(10_000)
+                        .<String, StudentSnapshot>weigher((id, snapshot) -> snapshot.weight())
+                        .expireAfterWrite(Duration.ofMinutes(1))
+                        .buildAsync(),
+                new SimpleMeterRegistry());
+    }
+
+    @Test
+    void whenGetStudentByStudentId_thenSnapshotWithoutStuffIsReturned() {
+        StudentResponseModel expected = testData.student1ResponseModel;
+
+        StepVerifier
+                .create(studentClient.getStudentByStudentId(expected.studentId()))
+                .consumeNextWith(student -> {
+                    assertEquals(expected.studentId(), student.studentId());
+                    assertEquals(expected.firstName(), student.firstName());
+                    assertEquals(expected.lastName(), student.lastName());
+                    assertNull(student.stuff());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void whenRepeatedCallsForSameStudent_thenOnlyOneRequestIsSent() {
+        String studentId = testData.student1ResponseModel.studentId();
+
+        StepVerifier
+                .create(Flux.range(0, 10)
+                        .flatMap(i -> studentClient.getStudentByStudentId(studentId)))
+                .expectNextCount(10)
+                .verifyComplete();
+
+        StepVerifier
+                .create(studentClient.getStudentByStudentId(studentId))
+                .expectNextCount(1)
+                .verifyComplete();
+
+        assertEquals(1, requests.get());
+    }
+
+    @Test
+    void whenStudentNotFound_thenErrorIsNotCached() {
+        String studentId = testData.student1ResponseModel.studentId();
+        status = HttpStatus.NOT_FOUND;
+
+        StepVerifier
+                .create(studentClient.getStudentByStudentId(studentId))
+                .expectError(StudentNotFoundException.class)
+                .verify();
+
+        status = HttpStatus.OK;
+
+        StepVerifier
+                .create(studentClient.getStudentByStudentId(studentId))
+                .expectNextCount(1)
+                .verifyComplete();
+
+        assertEquals(2, requests.get());
+    }
+
+    @Test
+    void whenGetStudentsByIds_thenOneBatchRequestIsSentAndResultsAreCached() {
+        String studentId = testData.student1ResponseModel.studentId();
+
+        StepVerifier
+                .create(studentClient.getStudentsByIds(List.of(studentId, studentId, TestData.NON_EXISTING_STUDENTID)))
+                .consumeNextWith(student -> {
+                    assertEquals(studentId, student.studentId());
+                    assertNull(student.stuff());
+                })
+                .verifyComplete();
+
+        StepVerifier
+                .create(studentClient.getStudentByStudentId(studentId))
+                .expectNextCount(1)
+                .verifyComplete();
+
+        assertEquals(1, requests.get());
+    }
+}
@@ -0,0 +1,50 @@
+package com.champlain.enrollmentsservice.domainclientlayer.students;
+
+import com.champlain.enrollmentsservice.presentationlayer.AbstractIntegrationClass;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.mockserver.model.HttpRequest;
+import org.mockserver.model.HttpResponse;
+import org.mockserver.model.MediaType;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.client.HttpServerErrorException;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class StudentServiceClientSynchronousIntegrationTest extends AbstractIntegrationClass {
+
+    @Autowired
+    private StudentServiceClientSynchronous studentClient;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void whenGet1000StudentsVirtualThreads_thenEveryStudentIsReturned() throws JsonProcessingException {
+        mockServerClient.when(HttpRequest.request().withMethod("GET").withPath("/api/v1/students/row/[0-9]+"))
+                .respond(HttpResponse.response(objectMapper.writeValueAsString(testData.student1ResponseModel))
+                        .withStatusCode(200)
+                        .withContentType(MediaType.APPLICATION_JSON));
+
+        List<StudentResponseModel> students = studentClient.get1000StudentsVirtualThreads();
+
+        assertEquals(1000, students.size());
+        students.forEach(student -> assertEquals(testData.student1ResponseModel, student));
+    }
+
+    @Test
+    void whenStudentsServiceFails_thenGet1000StudentsVirtualThreadsPropagatesTheError() {
+        mockServerClient.when(HttpRequest.request().withMethod("GET").withPath("/api/v1/students/row/[0-9]+"))
+                .respond(HttpResponse.response()
+                        .withStatusCode(503)
+                        .withContentType(MediaType.APPLICATION_JSON));
+
+        HttpServerErrorException ex = assertThrows(HttpServerErrorException.class,
+                () -> studentClient.get1000StudentsVirtualThreads());
+
+        assertEquals(503, ex.getStatusCode().value());
+    }
+}
@@ -11,7 +11,9 @@ import org.junit.jupiter.api.Order;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestMethodOrder;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
@@ -91,6 +93,25 @@ class EnrollmentControllerIntegrationTest extends AbstractIntegrationClass {
                 .verify();
     }
 
+    //the event stream is one page too, the token for the next one is the id of its last event
+    @Test
+    @Order(3)
+    public void whenGetEnrollmentsEventStream_withPageSizeOne_thenOnlyOneEventWithTheNextPageTokenIsSent() {
+        webTestClient.get()
+                .uri("/api/v1/enrollments?size=1")
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(new ParameterizedTypeReference<ServerSentEvent<EnrollmentResponseModel>>() {})
+                .getResponseBody()
+                .as(StepVerifier::create)
+                .assertNext(event -> {
+                    assertNotNull(event.data());
+                    assertNotNull(event.id());
+                })
+                .verifyComplete();
+    }
+
 
 
     @Test
@@ -3,13 +3,16 @@ package com.champlain.enrollmentsservice.presentationlayer;
 import com.champlain.enrollmentsservice.TestData;
 import com.champlain.enrollmentsservice.businesslayer.enrollments.EnrollmentService;
 import com.champlain.enrollmentsservice.exceptionhandling.exceptions.InvalidEnrollmentIdException;
+import com.champlain.enrollmentsservice.exceptionhandling.exceptions.InvalidInputException;
 import com.champlain.enrollmentsservice.exceptionhandling.exceptions.StudentNotFoundException;
+import com.champlain.enrollmentsservice.presentationlayer.enrollments.EnrollmentBatchResponseModel;
+import com.champlain.enrollmentsservice.presentationlayer.enrollments.EnrollmentPageRequest;
+import com.champlain.enrollmentsservice.presentationlayer.enrollments.EnrollmentPageResponseModel;
 import com.champlain.enrollmentsservice.presentationlayer.enrollments.EnrollmentResponseModel;
 import com.champlain.enrollmentsservice.presentationlayer.enrollments.EnrollmentRequestModel;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.ResponseEntity;
@@ -17,14 +20,22 @@ import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
+import java.util.List;
+import java.util.Map;
+
 import static com.champlain.enrollmentsservice.mapper.EntityModelMapper.toModel;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
 class EnrollmentControllerUnitTest {
 
-    @InjectMocks
+    private static final int DEFAULT_PAGE_SIZE = 2;
+    private static final int MAX_PAGE_SIZE = 10;
+
     private EnrollmentController enrollmentController;
 
     @Mock
@@ -35,20 +46,77 @@ class EnrollmentControllerUnitTest {
     @BeforeEach
     void setUp() {
         testData = new TestData();
+        enrollmentController = new EnrollmentController(enrollmentService, DEFAULT_PAGE_SIZE, MAX_PAGE_SIZE);
     }
 
     @Test
-    void whenGetAllEnrollments_thenReturnAllEnrollments() {
-        when(enrollmentService.getEnrollments())
-                .thenReturn(Flux.just(
-                        toModel(testData.enrollment1),
-                        toModel(testData.enrollment2)
-                ));
+    void whenGetEnrollmentsEventStream_thenOnlyOnePageIsSentWithTheNextPageTokenOnItsLastEvent() {
+        EnrollmentPageRequest firstPage = new EnrollmentPageRequest(null, null, null, null, null, null);
+        when(enrollmentService.getEnrollmentPage(firstPage.withDefaultSize(DEFAULT_PAGE_SIZE)))
+                .thenReturn(Mono.just(new EnrollmentPageResponseModel(
+                        List.of(toModel(testData.enrollment1), toModel(testData.enrollment2)), "next-token")));
+
+        StepVerifier.create(enrollmentController.getEnrollments(firstPage))
+                .assertNext(event -> {
+                    assertEquals(testData.enrollment1.getEnrollmentId(), event.data().enrollmentId());
+                    assertNull(event.id());
+                })
+                .assertNext(event -> {
+                    assertEquals(testData.enrollment2.getEnrollmentId(), event.data().enrollmentId());
+                    assertEquals("next-token", event.id());
+                })
+                .verifyComplete();
+    }
 
-        Flux<EnrollmentResponseModel> result = enrollmentController.getEnrollments();
+    @Test
+    void whenGetEnrollmentsEventStream_onTheLastPage_thenNoEventCarriesAnId() {
+        EnrollmentPageRequest lastPage = new EnrollmentPageRequest(null, null, null, null, 5, "last-token");
+        when(enrollmentService.getEnrollmentPage(lastPage))
+                .thenReturn(Mono.just(new EnrollmentPageResponseModel(List.of(toModel(testData.enrollment1)), null)));
 
-        StepVerifier.create(result)
-                .expectNextCount(2)
+        StepVerifier.create(enrollmentController.getEnrollments(lastPage))
+                .assertNext(event -> assertNull(event.id()))
+                .verifyComplete();
+    }
+
+    @Test
+    void whenGetEnrollmentPage_withSizeOverConfiguredMax_thenThrowInvalidInputException() {
+        EnrollmentPageRequest tooLarge = new EnrollmentPageRequest(null, null, null, null, MAX_PAGE_SIZE + 1, null);
+
+        StepVerifier.create(enrollmentController.getEnrollmentPage(tooLarge))
+                .expectErrorMatches(ex -> ex instanceof InvalidInputException
+                        && ex.getMessage().equals("Page size must be between 1 and " + MAX_PAGE_SIZE))
+                .verify();
+    }
+
+    @Test
+    void whenGetEnrollmentPage_withoutSize_thenConfiguredDefaultSizeIsUsed() {
+        EnrollmentPageRequest withoutSize = new EnrollmentPageRequest(null, null, null, null, null, null);
+        when(enrollmentService.getEnrollmentPage(any(EnrollmentPageRequest.class)))
+                .thenReturn(Mono.just(new EnrollmentPageResponseModel(List.of(), null)));
+
+        StepVerifier.create(enrollmentController.getEnrollmentPage(withoutSize))
+                .expectNextCount(1)
+                .verifyComplete();
+
+        verify(enrollmentService).getEnrollmentPage(withoutSize.withDefaultSize(DEFAULT_PAGE_SIZE));
+    }
+
+    @Test
+    void whenGetEnrollmentFieldsByEnrollmentId_withUnknownField_thenThrowInvalidInputException() {
+        StepVerifier.create(enrollmentController.getEnrollmentFieldsByEnrollmentId(testData.enrollment1.getEnrollmentId(), List.of("courseName", "id")))
+                .expectErrorMatches(ex -> ex instanceof InvalidInputException
+                        && ex.getMessage().equals("Fields [id] are not valid, allowed fields are " + EnrollmentResponseModel.FIELDS))
+                .verify();
+    }
+
+    @Test
+    void whenGetEnrollmentFieldsByEnrollmentId_thenReturnOnlyThoseFields() {
+        when(enrollmentService.getEnrollmentFieldsByEnrollmentId(testData.enrollment1.getEnrollmentId(), List.of("courseName")))
+                .thenReturn(Mono.just(Map.of("courseName", testData.enrollment1.getCourseName())));
+
+        StepVerifier.create(enrollmentController.getEnrollmentFieldsByEnrollmentId(testData.enrollment1.getEnrollmentId(), List.of("courseName", "courseName")))
+                .expectNextMatches(response -> response.getBody().equals(Map.of("courseName", testData.enrollment1.getCourseName())))
                 .verifyComplete();
     }
 
@@ -118,6 +186,24 @@ class EnrollmentControllerUnitTest {
                 .verify();
     }
 
+    @Test
+    void whenAddEnrollments_thenReturnOneResultPerLine() {
+        when(enrollmentService.addEnrollments(any(Flux.class)))
+                .thenReturn(Flux.just(
+                        new EnrollmentBatchResponseModel(0L, toModel(testData.enrollment1), null),
+                        new EnrollmentBatchResponseModel(1L, null, "Student with id=" + TestData.NON_EXISTING_STUDENTID + " is not found")
+                ));
+
+        Flux<EnrollmentBatchResponseModel> result = enrollmentController.addEnrollments(Flux.just(
+                testData.enrollment1RequestModel,
+                testData.enrollment_withNonExistingStudentId_RequestModel));
+
+        StepVerifier.create(result)
+                .expectNextMatches(line -> line.index() == 0 && line.enrollment() != null)
+                .expectNextMatches(line -> line.index() == 1 && line.error() != null)
+                .verifyComplete();
+    }
+
     @Test
     void whenUpdateEnrollment_withExistingId_thenReturnUpdatedEnrollment() {
         when(enrollmentService.updateEnrollment(any(Mono.class), any(String.class)))
@@ -0,0 +1,46 @@
+package com.champlain.enrollmentsservice.utils;
+
+import com.champlain.enrollmentsservice.dataaccesslayer.EnrollmentIndexInitializer;
+import com.champlain.enrollmentsservice.dataaccesslayer.EnrollmentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import reactor.test.StepVerifier;
+
+@DataMongoTest
+@ActiveProfiles("test")
+@Import({EnrollmentIndexInitializer.class, DataLoaderService.class})
+class DataLoaderServiceIntegrationTest {
+
+    @Autowired
+    private DataLoaderService dataLoaderService;
+
+    @Autowired
+    private EnrollmentIndexInitializer enrollmentIndexInitializer;
+
+    @Autowired
+    private EnrollmentRepository enrollmentRepository;
+
+    @BeforeEach
+    public void setUpDB() {
+        StepVerifier
+                .create(enrollmentRepository.deleteAll().then(enrollmentIndexInitializer.ensureIndexes()))
+                .verifyComplete();
+    }
+
+    @Test
+    void whenSeededAgain_thenNothingIsInsertedAndNoErrorIsRaised() {
+        StepVerifier
+                .create(dataLoaderService.seed().then(dataLoaderService.seed().count()))
+                .expectNext(0L)
+                .verifyComplete();
+
+        StepVerifier
+                .create(enrollmentRepository.count())
+                .expectNext(2L)
+                .verifyComplete();
+    }
+}
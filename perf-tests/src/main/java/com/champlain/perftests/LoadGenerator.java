@@ -0,0 +1,132 @@
+package com.champlain.perftests;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/*
+   Open loop: requests are scheduled at a fixed rate and latency is measured from when a request
+   was due, not from when it was sent, so a stalled server is charged for the requests queued
+   behind it (no coordinated omission). At most perf.max-in-flight requests are outstanding,
+   anything over that is counted as an error instead of being sent.
+
+   Closed loop: perf.concurrency virtual threads each send, wait for the response and send again,
+   which measures the throughput the services sustain rather than the latency at a given rate.
+ */
+class LoadGenerator {
+
+    private static final Duration DRAIN_TIMEOUT = Duration.ofSeconds(30);
+
+    private final HttpClient client;
+    private final LoadTestSettings settings;
+
+    LoadGenerator(HttpClient client, LoadTestSettings settings) {
+        this.client = client;
+        this.settings = settings;
+    }
+
+    ScenarioResult run(Scenario scenario) throws InterruptedException {
+        AtomicLong sequence = new AtomicLong();
+        //warmup results are thrown away
+        phase(scenario, sequence, settings.warmup(), new Recorder(3), new LongAdder());
+
+        Recorder recorder = new Recorder(3);
+        LongAdder errors = new LongAdder();
+        long start = System.nanoTime();
+        phase(scenario, sequence, settings.duration(), recorder, errors);
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        Histogram histogram = recorder.getIntervalHistogram();
+        return ScenarioResult.of(scenario, settings.mode(), histogram, errors.sum(), seconds);
+    }
+
+    private void phase(Scenario scenario, AtomicLong sequence, Duration duration, Recorder recorder, LongAdder errors) throws InterruptedException {
+        if (duration.isZero()) {
+            return;
+        }
+        switch (settings.mode()) {
+            case OPEN -> openLoop(scenario, sequence, duration, recorder, errors);
+            case CLOSED -> closedLoop(scenario, sequence, duration, recorder, errors);
+        }
+    }
+
+    private void openLoop(Scenario scenario, AtomicLong sequence, Duration duration, Recorder recorder, LongAdder errors) throws InterruptedException {
+        long interval = TimeUnit.SECONDS.toNanos(1) / settings.rate();
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+        Semaphore inFlight = new Semaphore(settings.maxInFlight());
+
+        for (long i = 0; ; i++) {
+            long due = start + i * interval;
+            if (due >= end) {
+                break;
+            }
+            long wait;
+            while ((wait = due - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            if (!inFlight.tryAcquire()) {
+                errors.increment();
+                continue;
+            }
+            client.sendAsync(scenario.request().apply(sequence.getAndIncrement()), bodyHandler(scenario))
+                    .whenComplete((response, ex) -> {
+                        record(scenario, response, ex, System.nanoTime() - due, recorder, errors);
+                        inFlight.release();
+                    });
+        }
+
+        if (!inFlight.tryAcquire(settings.maxInFlight(), DRAIN_TIMEOUT.toSeconds(), TimeUnit.SECONDS)) {
+            throw new IllegalStateException(scenario.name() + ": requests still outstanding after " + DRAIN_TIMEOUT);
+        }
+    }
+
+    private void closedLoop(Scenario scenario, AtomicLong sequence, Duration duration, Recorder recorder, LongAdder errors) throws InterruptedException {
+        long end = System.nanoTime() + duration.toNanos();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < settings.concurrency(); c++) {
+                executor.submit(() -> {
+                    while (System.nanoTime() < end) {
+                        long sent = System.nanoTime();
+                        HttpResponse<String> response = null;
+                        Throwable failure = null;
+                        try {
+                            response = client.send(scenario.request().apply(sequence.getAndIncrement()), bodyHandler(scenario));
+                        } catch (Exception e) {
+                            failure = e;
+                        }
+                        record(scenario, response, failure, System.nanoTime() - sent, recorder, errors);
+                    }
+                });
+            }
+        }
+    }
+
+    //only scenarios that look at the body pay for reading it into a string
+    private static HttpResponse.BodyHandler<String> bodyHandler(Scenario scenario) {
+        return scenario.onBody() == null
+                ? HttpResponse.BodyHandlers.replacing(null)
+                : HttpResponse.BodyHandlers.ofString();
+    }
+
+    private static void record(Scenario scenario, HttpResponse<String> response, Throwable ex, long nanos, Recorder recorder, LongAdder errors) {
+        if (ex != null || response.statusCode() >= 400) {
+            errors.increment();
+            return;
+        }
+        recorder.recordValue(TimeUnit.NANOSECONDS.toMicros(nanos));
+        if (scenario.onBody() != null) {
+            scenario.onBody().accept(response.body());
+        }
+    }
+}
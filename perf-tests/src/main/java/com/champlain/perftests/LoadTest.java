@@ -0,0 +1,261 @@
+package com.champlain.perftests;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.Year;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+
+/*
+   Drives POST /api/v1/enrollments, GET /api/v1/enrollments/{id} and the single course and student
+   reads one after the other, then writes one ScenarioResult per endpoint to perf.output.
+   seat-contention sends every enrollment to one course and term with perf.seat-capacity seats,
+   so all requests race for the same seats; the run fails if the course ends up over capacity.
+   With perf.compare-students-stacks only students-service is started, once per stack on the same rows,
+   and its single and batch reads are driven at the same load so the stacks can be compared side by side.
+ */
+public class LoadTest {
+
+    private static final String[] SEMESTERS = {"SPRING", "SUMMER", "FALL", "WINTER"};
+    //kept small so the enrollment reads are spread over ids without holding every created one
+    private static final int MAX_ENROLLMENT_IDS = 10_000;
+    //studentIds per batch read in the stack comparison
+    private static final int STUDENT_BATCH_SIZE = 100;
+
+    private static final ObjectMapper mapper = new ObjectMapper();
+
+    public static void main(String[] args) throws Exception {
+        LoadTestSettings settings = LoadTestSettings.fromSystemProperties();
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(2))
+                .build();
+
+        if (!settings.compareStudentsStacks().isEmpty()) {
+            compareStudentsStacks(settings, client);
+            return;
+        }
+        try (ServiceLauncher launcher = new ServiceLauncher(settings, client)) {
+            if (settings.launch()) {
+                launcher.start();
+            }
+            List<ScenarioResult> results = run(settings, client);
+            write(settings, settings.studentsStack().name().toLowerCase(), results);
+        }
+    }
+
+    //the scenarios are named after the stack, e.g. get-student/virtual
+    private static void compareStudentsStacks(LoadTestSettings settings, HttpClient client) throws IOException, InterruptedException {
+        if (!settings.launch()) {
+            throw new IllegalStateException("perf.compare-students-stacks starts students-service itself, it needs perf.launch=true");
+        }
+        List<ScenarioResult> results = new ArrayList<>();
+        for (LoadTestSettings.StudentsStack stack : settings.compareStudentsStacks()) {
+            String suffix = "/" + stack.name().toLowerCase();
+            try (ServiceLauncher launcher = new ServiceLauncher(settings, client)) {
+                launcher.startStudents(stack);
+                List<String> studentIds = ids(client, settings.studentsUrl() + "/api/v1/students", "application/json", "studentId");
+                if (studentIds.isEmpty()) {
+                    throw new IllegalStateException("the stack comparison needs at least one student");
+                }
+                LoadGenerator generator = new LoadGenerator(client, settings);
+                results.add(report(generator.run(new Scenario("get-student" + suffix,
+                        n -> get(settings.studentsUrl() + "/api/v1/students/" + studentIds.get((int) (n % studentIds.size())))))));
+                results.add(report(generator.run(new Scenario("get-students-batch" + suffix,
+                        n -> post(settings.studentsUrl() + "/api/v1/students/batch", batch(studentIds, n))))));
+            }
+        }
+        write(settings, settings.compareStudentsStacks().stream()
+                .map(stack -> stack.name().toLowerCase())
+                .collect(Collectors.joining(",")), results);
+    }
+
+    //STUDENT_BATCH_SIZE consecutive studentIds starting at the n-th batch, wrapping around
+    private static List<String> batch(List<String> studentIds, long n) {
+        int size = Math.min(STUDENT_BATCH_SIZE, studentIds.size());
+        int from = (int) (n * size % studentIds.size());
+        List<String> batch = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            batch.add(studentIds.get((from + i) % studentIds.size()));
+        }
+        return batch;
+    }
+
+    private static List<ScenarioResult> run(LoadTestSettings settings, HttpClient client) throws IOException, InterruptedException {
+        List<String> studentIds = ids(client, settings.studentsUrl() + "/api/v1/students", "application/json", "studentId");
+        List<String> courseIds = ids(client, settings.coursesUrl() + "/api/v1/courses", "text/event-stream", "courseId");
+        if (studentIds.isEmpty() || courseIds.isEmpty()) {
+            throw new IllegalStateException("load test needs at least one student and one course");
+        }
+
+        List<String> enrollmentIds = new CopyOnWriteArrayList<>();
+        LoadGenerator generator = new LoadGenerator(client, settings);
+        List<ScenarioResult> results = new ArrayList<>();
+
+        //each request gets a different student, course, semester and year so none are duplicates
+        results.add(report(generator.run(new Scenario("create-enrollment",
+                n -> {
+                    int students = studentIds.size();
+                    int courses = courseIds.size();
+                    long combinations = (long) students * courses * SEMESTERS.length;
+                    Map<String, Object> body = Map.of(
+                            "enrollmentYear", 2000 + (int) (n / combinations),
+                            "semester", SEMESTERS[(int) (n / ((long) students * courses) % SEMESTERS.length)],
+                            "studentId", studentIds.get((int) (n % students)),
+                            "courseId", courseIds.get((int) (n / students % courses)));
+                    return post(settings.enrollmentsUrl() + "/api/v1/enrollments", body);
+                },
+                body -> {
+                    if (enrollmentIds.size() < MAX_ENROLLMENT_IDS) {
+                        enrollmentIds.add(field(body, "enrollmentId"));
+                    }
+                }))));
+
+        if (enrollmentIds.isEmpty()) {
+            throw new IllegalStateException("no enrollment was created, see the create-enrollment errors");
+        }
+        results.add(report(generator.run(new Scenario("get-enrollment",
+                n -> get(settings.enrollmentsUrl() + "/api/v1/enrollments/" + enrollmentIds.get((int) (n % enrollmentIds.size())))))));
+        results.add(report(generator.run(new Scenario("get-course",
+                n -> get(settings.coursesUrl() + "/api/v1/courses/" + courseIds.get((int) (n % courseIds.size())))))));
+        results.add(report(generator.run(new Scenario("get-student",
+                n -> get(settings.studentsUrl() + "/api/v1/students/" + studentIds.get((int) (n % studentIds.size())))))));
+        results.add(report(seatContention(settings, client, generator, studentIds)));
+        return results;
+    }
+
+    //past the capacity every request is expected to fail with 409, the count is what matters
+    private static ScenarioResult seatContention(LoadTestSettings settings, HttpClient client, LoadGenerator generator,
+                                                 List<String> studentIds) throws IOException, InterruptedException {
+        Map<String, Object> course = Map.of(
+                "courseNumber", "prf-001",
+                "courseName", "Seat Contention",
+                "numHours", 45,
+                "numCredits", 3.0,
+                "department", "Performance",
+                "capacity", settings.seatCapacity());
+        HttpResponse<String> created = client.send(post(settings.coursesUrl() + "/api/v1/courses", course), HttpResponse.BodyHandlers.ofString());
+        if (created.statusCode() >= 400) {
+            throw new IllegalStateException("seat-contention course could not be created: " + created.body());
+        }
+        String courseId = field(created.body(), "courseId");
+        int year = Year.now().getValue();
+
+        ScenarioResult result = generator.run(new Scenario("seat-contention",
+                n -> post(settings.enrollmentsUrl() + "/api/v1/enrollments", Map.of(
+                        "enrollmentYear", year,
+                        "semester", "FALL",
+                        "studentId", studentIds.get((int) (n % studentIds.size())),
+                        "courseId", courseId))));
+
+        long enrolled = countEnrollments(settings, client, courseId);
+        System.out.printf("%-18s enrolled=%d capacity=%d%n", "seat-contention", enrolled, settings.seatCapacity());
+        if (enrolled > settings.seatCapacity()) {
+            throw new IllegalStateException("course " + courseId + " is over capacity: " + enrolled + " > " + settings.seatCapacity());
+        }
+        return result;
+    }
+
+    //counts the stored enrollments page by page rather than trusting /enrollments/counts, which can lag behind them
+    private static long countEnrollments(LoadTestSettings settings, HttpClient client, String courseId) throws IOException, InterruptedException {
+        String firstPage = settings.enrollmentsUrl() + "/api/v1/enrollments?size=500&courseId=" + courseId;
+        String url = firstPage;
+        long enrolled = 0;
+        while (url != null) {
+            HttpResponse<String> response = client.send(get(url), HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() >= 400) {
+                throw new IllegalStateException("enrollments of course " + courseId + " could not be read: " + response.body());
+            }
+            JsonNode page = mapper.readTree(response.body());
+            enrolled += page.get("enrollments").size();
+            JsonNode next = page.get("nextPageToken");
+            url = next == null || next.isNull()
+                    ? null
+                    : firstPage + "&pageToken=" + URLEncoder.encode(next.asText(), StandardCharsets.UTF_8);
+        }
+        return enrolled;
+    }
+
+    //reads the ids from a json array or from the data: lines of an event stream
+    private static List<String> ids(HttpClient client, String url, String accept, String field) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+                .header("Accept", accept)
+                .build();
+        String body = client.send(request, HttpResponse.BodyHandlers.ofString()).body();
+
+        List<String> ids = new ArrayList<>();
+        if (accept.equals("application/json")) {
+            mapper.readTree(body).forEach(node -> ids.add(node.get(field).asText()));
+        } else {
+            body.lines()
+                    .filter(line -> line.startsWith("data:"))
+                    .forEach(line -> ids.add(field(line.substring("data:".length()), field)));
+        }
+        return ids;
+    }
+
+    private static String field(String json, String field) {
+        try {
+            JsonNode node = mapper.readTree(json);
+            return node.get(field).asText();
+        } catch (IOException e) {
+            throw new IllegalStateException("unreadable response: " + json, e);
+        }
+    }
+
+    private static HttpRequest get(String url) {
+        return HttpRequest.newBuilder(URI.create(url))
+                .header("Accept", "application/json")
+                .build();
+    }
+
+    private static HttpRequest post(String url, Object body) {
+        try {
+            return HttpRequest.newBuilder(URI.create(url))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(mapper.writeValueAsBytes(body)))
+                    .build();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static ScenarioResult report(ScenarioResult result) {
+        System.out.printf("%-18s %-6s requests=%d errors=%d throughput=%.1f/s p50=%.2fms p99=%.2fms p99.9=%.2fms max=%.2fms%n",
+                result.scenario(), result.mode(), result.requests(), result.errors(), result.throughput(),
+                result.p50Millis(), result.p99Millis(), result.p999Millis(), result.maxMillis());
+        return result;
+    }
+
+    private static void write(LoadTestSettings settings, String studentsStack, List<ScenarioResult> results) throws IOException {
+        Map<String, Object> run = new LinkedHashMap<>();
+        run.put("finishedAt", Instant.now().toString());
+        run.put("mode", settings.mode().name().toLowerCase());
+        run.put("rate", settings.rate());
+        run.put("concurrency", settings.concurrency());
+        run.put("studentsStack", studentsStack);
+        run.put("warmup", settings.warmup().toString());
+        run.put("duration", settings.duration().toString());
+        run.put("results", results);
+
+        Files.createDirectories(settings.output().toAbsolutePath().getParent());
+        mapper.writer(SerializationFeature.INDENT_OUTPUT).writeValue(settings.output().toFile(), run);
+        System.out.println("results written to " + settings.output().toAbsolutePath());
+    }
+}
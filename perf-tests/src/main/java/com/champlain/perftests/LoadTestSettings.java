@@ -0,0 +1,98 @@
+package com.champlain.perftests;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+
+/*
+   Everything is read from -Dperf.* system properties so the same run can be repeated from the command line.
+
+   perf.mode          open (requests are sent at perf.rate per second whatever the latency)
+                      or closed (perf.concurrency clients each wait for their response before sending again)
+   perf.launch        true starts the three services with their in-memory backends, false uses the urls below
+   perf.seat-capacity seats of the course every seat-contention request competes for
+   perf.students-stack blocking (Spring MVC and JPA on platform threads), virtual (the same on virtual threads)
+                      or reactive (WebFlux and R2DBC) students-service, when launched
+   perf.compare-students-stacks comma separated stacks, e.g. blocking,virtual: only the student reads are run,
+                      against a fresh students-service per stack, instead of the full run
+ */
+public record LoadTestSettings(Mode mode,
+                               int rate,
+                               int concurrency,
+                               int maxInFlight,
+                               Duration warmup,
+                               Duration duration,
+                               boolean launch,
+                               Path repositoryRoot,
+                               int students,
+                               int seatCapacity,
+                               StudentsStack studentsStack,
+                               List<StudentsStack> compareStudentsStacks,
+                               String enrollmentsUrl,
+                               String studentsUrl,
+                               String coursesUrl,
+                               Path output) {
+
+    public enum Mode {
+        OPEN,
+        CLOSED
+    }
+
+    //the students-service profiles each stack adds on top of h2
+    public enum StudentsStack {
+        BLOCKING(""),
+        VIRTUAL(",virtual"),
+        REACTIVE(",reactive");
+
+        private final String profiles;
+
+        StudentsStack(String profiles) {
+            this.profiles = profiles;
+        }
+
+        public String profiles() {
+            return profiles;
+        }
+    }
+
+    public static LoadTestSettings fromSystemProperties() {
+        Mode mode = Mode.valueOf(System.getProperty("perf.mode", "open").toUpperCase());
+        return new LoadTestSettings(
+                mode,
+                Integer.getInteger("perf.rate", 200),
+                Integer.getInteger("perf.concurrency", 32),
+                Integer.getInteger("perf.max-in-flight", 10_000),
+                duration("perf.warmup", "10s"),
+                duration("perf.duration", "30s"),
+                Boolean.parseBoolean(System.getProperty("perf.launch", "true")),
+                Path.of(System.getProperty("perf.repository-root", "..")).toAbsolutePath().normalize(),
+                Integer.getInteger("perf.students", 200),
+                Integer.getInteger("perf.seat-capacity", 100),
+                StudentsStack.valueOf(System.getProperty("perf.students-stack", "blocking").toUpperCase()),
+                Arrays.stream(System.getProperty("perf.compare-students-stacks", "").split(","))
+                        .map(String::trim)
+                        .filter(stack -> !stack.isEmpty())
+                        .map(stack -> StudentsStack.valueOf(stack.toUpperCase()))
+                        .toList(),
+                System.getProperty("perf.enrollments-url", "http://localhost:7001"),
+                System.getProperty("perf.students-url", "http://localhost:7002"),
+                System.getProperty("perf.courses-url", "http://localhost:7003"),
+                Path.of(System.getProperty("perf.output",
+                        "build/results/perf/load-test-" + mode.name().toLowerCase() + ".json")));
+    }
+
+    //30s, 500ms or 2m
+    private static Duration duration(String property, String defaultValue) {
+        String value = System.getProperty(property, defaultValue).trim().toLowerCase();
+        if (value.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(value.substring(0, value.length() - 2)));
+        }
+        long amount = Long.parseLong(value.substring(0, value.length() - 1));
+        return switch (value.charAt(value.length() - 1)) {
+            case 's' -> Duration.ofSeconds(amount);
+            case 'm' -> Duration.ofMinutes(amount);
+            default -> throw new IllegalArgumentException(property + " must look like 500ms, 30s or 2m: " + value);
+        };
+    }
+}
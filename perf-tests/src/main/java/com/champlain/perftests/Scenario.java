@@ -0,0 +1,18 @@
+package com.champlain.perftests;
+
+import java.net.http.HttpRequest;
+import java.util.function.Consumer;
+import java.util.function.LongFunction;
+
+/*
+   One endpoint under load. request builds the n-th request of the run,
+   onBody (may be null) sees the body of every successful response.
+ */
+record Scenario(String name,
+                LongFunction<HttpRequest> request,
+                Consumer<String> onBody) {
+
+    Scenario(String name, LongFunction<HttpRequest> request) {
+        this(name, request, null);
+    }
+}
@@ -0,0 +1,43 @@
+package com.champlain.perftests;
+
+import org.HdrHistogram.Histogram;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Base64;
+
+/*
+   Latencies are in milliseconds. histogram is the full HdrHistogram, compressed and base64 encoded,
+   so it can be decoded with Histogram.decodeFromCompressedByteBuffer and merged or re-plotted later.
+ */
+public record ScenarioResult(String scenario,
+                             String mode,
+                             long requests,
+                             long errors,
+                             double throughput,
+                             double meanMillis,
+                             double p50Millis,
+                             double p99Millis,
+                             double p999Millis,
+                             double maxMillis,
+                             String histogram) {
+
+    private static final double MICROS_PER_MILLI = 1000.0;
+
+    static ScenarioResult of(Scenario scenario, LoadTestSettings.Mode mode, Histogram histogram, long errors, double seconds) {
+        ByteBuffer buffer = ByteBuffer.allocate(histogram.getNeededByteBufferCapacity());
+        int length = histogram.encodeIntoCompressedByteBuffer(buffer);
+        return new ScenarioResult(
+                scenario.name(),
+                mode.name().toLowerCase(),
+                histogram.getTotalCount(),
+                errors,
+                (histogram.getTotalCount() + errors) / seconds,
+                histogram.getMean() / MICROS_PER_MILLI,
+                histogram.getValueAtPercentile(50) / MICROS_PER_MILLI,
+                histogram.getValueAtPercentile(99) / MICROS_PER_MILLI,
+                histogram.getValueAtPercentile(99.9) / MICROS_PER_MILLI,
+                histogram.getMaxValue() / MICROS_PER_MILLI,
+                Base64.getEncoder().encodeToString(Arrays.copyOf(buffer.array(), length)));
+    }
+}
@@ -0,0 +1,146 @@
+package com.champlain.perftests;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/*
+   Starts the three services with bootRun against the same in-memory backends their tests use:
+   students-service on H2 (seeded with perf.students rows, on the perf.students-stack profile), courses-service on R2DBC H2 and
+   enrollments-service on embedded Mongo.
+   Each service keeps its own Gradle build and Spring Boot version, which is why they run as
+   separate processes rather than in this JVM. Their logs go next to the results file.
+ */
+class ServiceLauncher implements AutoCloseable {
+
+    private static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(5);
+    private static final Duration SHUTDOWN_TIMEOUT = Duration.ofSeconds(30);
+
+    private final LoadTestSettings settings;
+    private final HttpClient client;
+    private final List<Process> processes = new ArrayList<>();
+
+    ServiceLauncher(LoadTestSettings settings, HttpClient client) {
+        this.settings = settings;
+        this.client = client;
+    }
+
+    void start() throws IOException, InterruptedException {
+        Path logs = logs();
+        startStudentsService(logs, settings.studentsStack());
+        start("courses-service", logs,
+                "--spring.profiles.active=test",
+                "--logging.level.com.champlain=INFO");
+        //the test profile turns the caches off for MockServer, turn them back on as in docker
+        start("enrollments-service", logs,
+                "--spring.profiles.active=test",
+                "--app.students-service.cache.maximum-weight=4MB",
+                "--app.courses-service.cache.maximum-size=1000",
+                "--app.students-service.collapser.enabled=true",
+                "--app.courses-service.collapser.enabled=true",
+                "--logging.level.com.champlain=INFO");
+
+        awaitUp(settings.studentsUrl());
+        awaitUp(settings.coursesUrl());
+        awaitUp(settings.enrollmentsUrl());
+    }
+
+    //students-service alone, for comparing its stacks
+    void startStudents(LoadTestSettings.StudentsStack stack) throws IOException, InterruptedException {
+        startStudentsService(logs(), stack);
+        awaitUp(settings.studentsUrl());
+    }
+
+    //every stack is seeded with the same rows
+    private void startStudentsService(Path logs, LoadTestSettings.StudentsStack stack) throws IOException {
+        Path studentsData = writeStudentsData(logs.resolve("students-data.sql"));
+        start("students-service", logs,
+                "--spring.profiles.active=h2" + stack.profiles(),
+                "--spring.sql.init.data-locations=file:" + studentsData,
+                "--spring.jpa.show-sql=false",
+                "--logging.level.com.champlain=INFO");
+    }
+
+    private Path logs() throws IOException {
+        Path logs = settings.output().toAbsolutePath().getParent();
+        Files.createDirectories(logs);
+        return logs;
+    }
+
+    private void start(String service, Path logs, String... args) throws IOException {
+        Path root = settings.repositoryRoot();
+        String gradlew = System.getProperty("os.name").startsWith("Windows") ? "gradlew.bat" : "./gradlew";
+        Process process = new ProcessBuilder(gradlew, "-q", "-p", service, "bootRun", "--args=" + String.join(" ", args))
+                .directory(root.toFile())
+                .redirectErrorStream(true)
+                .redirectOutput(logs.resolve(service + ".log").toFile())
+                .start();
+        processes.add(process);
+    }
+
+    //any http response at all means the server is accepting requests
+    private void awaitUp(String baseUrl) throws InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/"))
+                .timeout(Duration.ofSeconds(1))
+                .build();
+        long deadline = System.nanoTime() + STARTUP_TIMEOUT.toNanos();
+        while (System.nanoTime() < deadline) {
+            processes.stream()
+                    .filter(p -> !p.isAlive())
+                    .findFirst()
+                    .ifPresent(p -> {
+                        throw new IllegalStateException("a service exited during startup, see its log in " + settings.output().toAbsolutePath().getParent());
+                    });
+            try {
+                client.send(request, HttpResponse.BodyHandlers.discarding());
+                return;
+            } catch (IOException e) {
+                Thread.sleep(1000);
+            }
+        }
+        throw new IllegalStateException(baseUrl + " did not start within " + STARTUP_TIMEOUT);
+    }
+
+    private Path writeStudentsData(Path file) throws IOException {
+        String inserts = IntStream.range(0, settings.students())
+                .mapToObj(i -> "insert into students (student_id, first_name, last_name, program, stuff) values ('%s', 'First%d', 'Last%d', 'Program%d', 'stuff');"
+                        .formatted(UUID.nameUUIDFromBytes(("student-" + i).getBytes()), i, i, i % 10))
+                .collect(Collectors.joining("\n"));
+        return Files.writeString(file, inserts);
+    }
+
+    //gradle forks the application, so its children have to go too.
+    //waits for them to exit so the next launch of a service does not find its port still taken
+    @Override
+    public void close() {
+        List<ProcessHandle> handles = new ArrayList<>();
+        for (Process process : processes) {
+            process.descendants().forEach(handles::add);
+            handles.add(process.toHandle());
+        }
+        handles.forEach(ProcessHandle::destroy);
+        for (ProcessHandle handle : handles) {
+            try {
+                handle.onExit().get(SHUTDOWN_TIMEOUT.toSeconds(), TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (ExecutionException | TimeoutException e) {
+                handle.destroyForcibly();
+            }
+        }
+    }
+}
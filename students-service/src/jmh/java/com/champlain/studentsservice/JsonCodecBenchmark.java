@@ -0,0 +1,48 @@
+package com.champlain.studentsservice;
+
+import com.champlain.studentsservice.presentationlayer.StudentResponseModel;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.UUID;
+
+//stuffLength sizes the TEXT column that is sent with every student
+@State(Scope.Benchmark)
+public class JsonCodecBenchmark {
+
+    @Param({"16", "65536"})
+    private int stuffLength;
+
+    private ObjectMapper mapper;
+    private StudentResponseModel student;
+    private byte[] studentJson;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        mapper = Jackson2ObjectMapperBuilder.json().build();
+        student = StudentResponseModel.builder()
+                .studentId(UUID.randomUUID().toString())
+                .firstName("Donna")
+                .lastName("Hornsby")
+                .program("History")
+                .stuff("x".repeat(stuffLength))
+                .build();
+        studentJson = mapper.writeValueAsBytes(student);
+    }
+
+    @Benchmark
+    public byte[] encodeStudent() throws JsonProcessingException {
+        return mapper.writeValueAsBytes(student);
+    }
+
+    @Benchmark
+    public StudentResponseModel decodeStudent() throws Exception {
+        return mapper.readValue(studentJson, StudentResponseModel.class);
+    }
+}
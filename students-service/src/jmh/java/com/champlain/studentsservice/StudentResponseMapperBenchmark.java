@@ -0,0 +1,47 @@
+package com.champlain.studentsservice;
+
+import com.champlain.studentsservice.dataaccesslayer.Student;
+import com.champlain.studentsservice.dataaccesslayer.StudentIdentifier;
+import com.champlain.studentsservice.datamapperlayer.StudentResponseMapper;
+import com.champlain.studentsservice.datamapperlayer.StudentResponseMapperImpl;
+import com.champlain.studentsservice.presentationlayer.StudentResponseModel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+//the mapstruct generated mapper behind GET /api/v1/students
+@State(Scope.Benchmark)
+public class StudentResponseMapperBenchmark {
+
+    @Param({"1", "1000"})
+    private int students;
+
+    private final StudentResponseMapper mapper = new StudentResponseMapperImpl();
+    private List<Student> entities;
+
+    @Setup
+    public void setUp() {
+        entities = IntStream.range(0, students)
+                .mapToObj(i -> {
+                    Student student = new Student();
+                    student.setId(i);
+                    student.setStudentIdentifier(new StudentIdentifier());
+                    student.setFirstName("Donna");
+                    student.setLastName("Hornsby");
+                    student.setProgram("History");
+                    student.setStuff("stuff");
+                    return student;
+                })
+                .toList();
+    }
+
+    @Benchmark
+    public List<StudentResponseModel> entityListToResponseModelList() {
+        return mapper.entityListToResponseModelList(entities);
+    }
+}
@@ -0,0 +1,19 @@
+package com.champlain.studentsservice.businesslayer;
+
+import com.champlain.studentsservice.presentationlayer.StudentPageResponseModel;
+import com.champlain.studentsservice.presentationlayer.StudentResponseModel;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+
+public interface ReactiveStudentService {
+
+    Flux<StudentResponseModel> getStudents();
+    Mono<StudentPageResponseModel> getStudentPage(int page, int size);
+    Mono<StudentPageResponseModel> getStudentsAfter(int afterId, int size);
+    Mono<StudentResponseModel> getStudentByRowId(Integer id);
+    Mono<StudentResponseModel> getStudentByStudentId(String studentId);
+    Flux<StudentResponseModel> getStudentsByStudentIds(Collection<String> studentIds);
+    Flux<CharSequence> getStudentStuff(String studentId);
+}
@@ -0,0 +1,94 @@
+package com.champlain.studentsservice.businesslayer;
+
+import com.champlain.studentsservice.dataaccesslayer.ReactiveStudentRepository;
+import com.champlain.studentsservice.dataaccesslayer.StudentSummary;
+import com.champlain.studentsservice.datamapperlayer.StudentResponseMapper;
+import com.champlain.studentsservice.presentationlayer.StudentPageResponseModel;
+import com.champlain.studentsservice.presentationlayer.StudentResponseModel;
+import com.champlain.studentsservice.utils.exceptions.NotFoundException;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+import java.util.List;
+
+//same reads as StudentServiceImpl, over R2DBC so no request thread is held while the database answers.
+//like there, every read goes through StudentSummary and only getStudentStuff reads the stuff LOB
+@Service
+@Profile("reactive")
+public class ReactiveStudentServiceImpl implements ReactiveStudentService {
+
+    private final StudentResponseMapper studentResponseMapper;
+    private final ReactiveStudentRepository studentRepository;
+
+    public ReactiveStudentServiceImpl(StudentResponseMapper studentResponseMapper, ReactiveStudentRepository studentRepository) {
+        this.studentResponseMapper = studentResponseMapper;
+        this.studentRepository = studentRepository;
+    }
+
+    @Override
+    public Flux<StudentResponseModel> getStudents() {
+        return studentRepository.findAllByOrderByIdAsc()
+                .map(studentResponseMapper::summaryToResponseModel);
+    }
+
+    // one row more than the page is read to know whether there is a next one
+    @Override
+    public Mono<StudentPageResponseModel> getStudentPage(int page, int size) {
+        return studentRepository.findPage((long) page * size, size + 1)
+                .collectList()
+                .map(rows -> StudentPageResponseModel.builder()
+                        .students(toModels(rows, size))
+                        .nextPage(rows.size() > size ? page + 1 : null)
+                        .build());
+    }
+
+    @Override
+    public Mono<StudentPageResponseModel> getStudentsAfter(int afterId, int size) {
+        return studentRepository.findAfter(afterId, size + 1)
+                .collectList()
+                .map(rows -> StudentPageResponseModel.builder()
+                        .students(toModels(rows, size))
+                        .nextAfterId(rows.size() > size ? rows.get(size - 1).id() : null)
+                        .build());
+    }
+
+    @Override
+    public Mono<StudentResponseModel> getStudentByRowId(Integer id) {
+        return studentRepository.findSummaryById(id)
+                .map(studentResponseMapper::summaryToResponseModel)
+                .switchIfEmpty(Mono.error(() -> new NotFoundException("No student at rowId: " + id)));
+    }
+
+    @Override
+    public Mono<StudentResponseModel> getStudentByStudentId(String studentId) {
+        return studentRepository.findByStudentId(studentId)
+                .map(studentResponseMapper::summaryToResponseModel)
+                .switchIfEmpty(Mono.error(() -> new NotFoundException("Unknown studentId: " + studentId)));
+    }
+
+    //one IN query for the whole batch, unknown studentIds are simply absent from the result
+    @Override
+    public Flux<StudentResponseModel> getStudentsByStudentIds(Collection<String> studentIds) {
+        return studentRepository.findAllByStudentIdIn(studentIds)
+                .map(studentResponseMapper::summaryToResponseModel);
+    }
+
+    //checked before the stuff chunks so an unknown student is a 404 and not an empty body
+    @Override
+    public Flux<CharSequence> getStudentStuff(String studentId) {
+        return studentRepository.existsByStudentId(studentId)
+                .flatMapMany(exists -> exists
+                        ? studentRepository.streamStuff(studentId)
+                        : Flux.error(new NotFoundException("Unknown studentId: " + studentId)));
+    }
+
+    private List<StudentResponseModel> toModels(List<StudentSummary> rows, int size) {
+        return rows.stream()
+                .limit(size)
+                .map(studentResponseMapper::summaryToResponseModel)
+                .toList();
+    }
+}
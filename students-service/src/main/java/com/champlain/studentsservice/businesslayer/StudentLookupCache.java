@@ -0,0 +1,128 @@
+package com.champlain.studentsservice.businesslayer;
+
+import com.champlain.studentsservice.dataaccesslayer.StudentChangedEvent;
+import com.champlain.studentsservice.dataaccesslayer.StudentSummary;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/*
+   Student summaries by studentId and by rowId in one cache: a String key is a studentId, an Integer key a rowId,
+   and both entries of a student hold the same immutable StudentSummary instance, so the second key only costs
+   its map entry. Size-bounded (W-TinyLFU eviction, maximum-size counts entries, so two per student)
+   with a ttl for writes that bypass JPA. Unknown ids are not cached.
+   A student written through JPA is dropped under both keys once the transaction commits, see StudentChangeListener,
+   including the studentId it had before an update changed it. A load that read the row before that commit can finish
+   after the drop, so every store re-checks the invalidation count afterwards and takes back what it stored if it moved.
+   Hits, misses and evictions are published as the cache.* meters with cache=students.
+ */
+@Component
+@Profile("!reactive")
+public class StudentLookupCache {
+
+    private final Cache<Object, StudentSummary> cache;
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public StudentLookupCache(@Value("${app.students.cache.maximum-size:20000}") long maximumSize,
+                              @Value("${app.students.cache.ttl:10m}") Duration ttl,
+                              MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "students");
+    }
+
+    // concurrent misses for the same studentId wait on one load, the rowId entry is added after it
+    public Optional<StudentSummary> getByStudentId(String studentId, Function<String, Optional<StudentSummary>> loader) {
+        long seen = invalidations.get();
+        StudentSummary student = cache.get(studentId, key -> loader.apply(studentId).orElse(null));
+        if (student != null) {
+            cache.asMap().putIfAbsent(student.id(), student);
+            forgetIfInvalidatedSince(seen, student);
+        }
+        return Optional.ofNullable(student);
+    }
+
+    public Optional<StudentSummary> getByRowId(Integer id, Function<Integer, Optional<StudentSummary>> loader) {
+        long seen = invalidations.get();
+        StudentSummary student = cache.get(id, key -> loader.apply(id).orElse(null));
+        if (student != null) {
+            cache.asMap().putIfAbsent(student.studentId(), student);
+            forgetIfInvalidatedSince(seen, student);
+        }
+        return Optional.ofNullable(student);
+    }
+
+    // only the studentIds missing from the cache are handed to loader, in one call
+    public List<StudentSummary> getAllByStudentIds(Collection<String> studentIds, Function<Set<String>, List<StudentSummary>> loader) {
+        Map<Object, StudentSummary> present = cache.getAllPresent(studentIds);
+        List<StudentSummary> students = new ArrayList<>(present.values());
+        Set<String> missing = new LinkedHashSet<>(studentIds);
+        missing.removeAll(present.keySet());
+        if (!missing.isEmpty()) {
+            long seen = invalidations.get();
+            for (StudentSummary student : loader.apply(missing)) {
+                put(student);
+                forgetIfInvalidatedSince(seen, student);
+                students.add(student);
+            }
+        }
+        return students;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStudentChanged(StudentChangedEvent event) {
+        invalidate(event.id(), event.studentId());
+    }
+
+    // counted before the entries are dropped, so a store that misses the count is dropped here instead
+    public void invalidate(Integer id, String studentId) {
+        invalidations.incrementAndGet();
+        if (id != null) {
+            //an update that changed the studentId leaves the old one as the cached summary's key
+            StudentSummary cached = cache.getIfPresent(id);
+            if (cached != null) {
+                cache.invalidate(cached.studentId());
+            }
+            cache.invalidate(id);
+        }
+        if (studentId != null) {
+            StudentSummary cached = cache.getIfPresent(studentId);
+            if (cached != null) {
+                cache.invalidate(cached.id());
+            }
+            cache.invalidate(studentId);
+        }
+    }
+
+    private void put(StudentSummary student) {
+        cache.put(student.studentId(), student);
+        cache.put(student.id(), student);
+    }
+
+    // the summary may have been read before a commit whose invalidation already ran, only that instance is removed
+    private void forgetIfInvalidatedSince(long seen, StudentSummary student) {
+        if (invalidations.get() != seen) {
+            cache.asMap().remove(student.studentId(), student);
+            cache.asMap().remove(student.id(), student);
+        }
+    }
+}
@@ -1,12 +1,21 @@
 package com.champlain.studentsservice.businesslayer;
 
+import com.champlain.studentsservice.presentationlayer.StudentPageResponseModel;
 import com.champlain.studentsservice.presentationlayer.StudentResponseModel;
 
+import java.io.Writer;
+import java.util.Collection;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface StudentService {
 
-    List<StudentResponseModel> getStudents();
+    void streamStudents(Consumer<StudentResponseModel> consumer);
+    StudentPageResponseModel getStudentPage(int page, int size);
+    StudentPageResponseModel getStudentsAfter(int afterId, int size);
     StudentResponseModel getStudentByRowId(Integer id);
     StudentResponseModel getStudentByStudentId(String studentId);
+    List<StudentResponseModel> getStudentsByStudentIds(Collection<String> studentIds);
+    void checkStudentExists(String studentId);
+    void writeStudentStuff(String studentId, Writer writer);
 }
@@ -1,49 +1,107 @@
 package com.champlain.studentsservice.businesslayer;
 
-import com.champlain.studentsservice.dataaccesslayer.Student;
 import com.champlain.studentsservice.dataaccesslayer.StudentRepository;
+import com.champlain.studentsservice.dataaccesslayer.StudentSummary;
 import com.champlain.studentsservice.datamapperlayer.StudentResponseMapper;
+import com.champlain.studentsservice.presentationlayer.StudentPageResponseModel;
 import com.champlain.studentsservice.presentationlayer.StudentResponseModel;
 import com.champlain.studentsservice.utils.exceptions.NotFoundException;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.io.Writer;
+import java.util.Collection;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
+//every read goes through StudentSummary, the stuff LOB is only read by writeStudentStuff
+//single and batch lookups are served from StudentLookupCache first
 @Service
+@Profile("!reactive")
 public class StudentServiceImpl implements StudentService{
 
     private final StudentResponseMapper studentResponseMapper;
     private final StudentRepository studentRepository;
+    private final StudentLookupCache studentLookupCache;
 
-    public StudentServiceImpl(StudentResponseMapper studentResponseMapper, StudentRepository studentRepository) {
+    public StudentServiceImpl(StudentResponseMapper studentResponseMapper, StudentRepository studentRepository,
+                              StudentLookupCache studentLookupCache) {
         this.studentResponseMapper = studentResponseMapper;
         this.studentRepository = studentRepository;
+        this.studentLookupCache = studentLookupCache;
     }
 
+    //each student is handed over as it comes off the cursor, summaries are not managed
+    //so nothing accumulates in the persistence context either
     @Override
-    public List<StudentResponseModel> getStudents() {
-        return studentResponseMapper.entityListToResponseModelList(studentRepository.findAll());
+    @Transactional(readOnly = true)
+    public void streamStudents(Consumer<StudentResponseModel> consumer) {
+        try (Stream<StudentSummary> students = studentRepository.streamSummaries()) {
+            students.forEach(student -> consumer.accept(studentResponseMapper.summaryToResponseModel(student)));
+        }
     }
 
     @Override
-    public StudentResponseModel getStudentByRowId(Integer id) {
-        Student foundStudent = studentRepository.findById(id).orElse(null);
+    public StudentPageResponseModel getStudentPage(int page, int size) {
+        Slice<StudentSummary> slice = studentRepository.findSummaries(PageRequest.of(page, size, Sort.by("id")));
+        return StudentPageResponseModel.builder()
+                .students(studentResponseMapper.summaryListToResponseModelList(slice.getContent()))
+                .nextPage(slice.hasNext() ? page + 1 : null)
+                .build();
+    }
 
-        if (foundStudent == null) {
-            throw new NotFoundException("No student at rowId: " + id);
-        }
+    // one row more than the page is read to know whether there is a next page
+    @Override
+    public StudentPageResponseModel getStudentsAfter(int afterId, int size) {
+        List<StudentSummary> students = studentRepository.findSummariesAfter(afterId, Limit.of(size + 1));
+        boolean hasNext = students.size() > size;
+        List<StudentSummary> page = hasNext ? students.subList(0, size) : students;
+        return StudentPageResponseModel.builder()
+                .students(studentResponseMapper.summaryListToResponseModelList(page))
+                .nextAfterId(hasNext ? page.get(size - 1).id() : null)
+                .build();
+    }
 
-        return studentResponseMapper.entityToResponseModel(foundStudent);
+    @Override
+    public StudentResponseModel getStudentByRowId(Integer id) {
+        return studentLookupCache.getByRowId(id, studentRepository::findSummaryById)
+                .map(studentResponseMapper::summaryToResponseModel)
+                .orElseThrow(() -> new NotFoundException("No student at rowId: " + id));
     }
 
     @Override
     public StudentResponseModel getStudentByStudentId(String studentId) {
-        Student foundStudent = studentRepository.findStudentByStudentIdentifier_StudentId(studentId);
+        return studentLookupCache.getByStudentId(studentId, studentRepository::findSummaryByStudentId)
+                .map(studentResponseMapper::summaryToResponseModel)
+                .orElseThrow(() -> new NotFoundException("Unknown studentId: " + studentId));
+    }
 
-        if (foundStudent == null) {
+    //one IN query for the studentIds not cached yet, unknown studentIds are simply absent from the result
+    @Override
+    public List<StudentResponseModel> getStudentsByStudentIds(Collection<String> studentIds) {
+        return studentResponseMapper.summaryListToResponseModelList(
+                studentLookupCache.getAllByStudentIds(studentIds, studentRepository::findSummariesByStudentIdIn));
+    }
+
+    //checked before the stuff response starts, once the body is being written a 404 can no longer be sent
+    @Override
+    public void checkStudentExists(String studentId) {
+        if (!studentRepository.existsByStudentIdentifier_StudentId(studentId)) {
             throw new NotFoundException("Unknown studentId: " + studentId);
         }
+    }
 
-        return studentResponseMapper.entityToResponseModel(foundStudent);
+    @Override
+    @Transactional(readOnly = true)
+    public void writeStudentStuff(String studentId, Writer writer) {
+        if (!studentRepository.writeStuff(studentId, writer)) {
+            throw new NotFoundException("Unknown studentId: " + studentId);
+        }
     }
 }
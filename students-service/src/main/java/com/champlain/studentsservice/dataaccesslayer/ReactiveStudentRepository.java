@@ -0,0 +1,21 @@
+package com.champlain.studentsservice.dataaccesslayer;
+
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+
+//the reads project to StudentSummary, so only its columns are selected and stuff stays in the database
+public interface ReactiveStudentRepository extends ReactiveCrudRepository<StudentRow, Integer>, ReactiveStudentRepositoryCustom {
+
+    Flux<StudentSummary> findAllByOrderByIdAsc();
+
+    Mono<StudentSummary> findSummaryById(Integer id);
+
+    Mono<StudentSummary> findByStudentId(String studentId);
+
+    Flux<StudentSummary> findAllByStudentIdIn(Collection<String> studentIds);
+
+    Mono<Boolean> existsByStudentId(String studentId);
+}
@@ -0,0 +1,15 @@
+package com.champlain.studentsservice.dataaccesslayer;
+
+import reactor.core.publisher.Flux;
+
+public interface ReactiveStudentRepositoryCustom {
+
+    //at most limit students from offset on, in id order
+    Flux<StudentSummary> findPage(long offset, int limit);
+
+    //at most limit students whose id comes after afterId, in id order
+    Flux<StudentSummary> findAfter(int afterId, int limit);
+
+    //the student's stuff in the chunks the driver hands them out, empty when there is none
+    Flux<CharSequence> streamStuff(String studentId);
+}
@@ -0,0 +1,49 @@
+package com.champlain.studentsservice.dataaccesslayer;
+
+import io.r2dbc.spi.Clob;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.data.relational.core.query.Criteria;
+import org.springframework.data.relational.core.query.Query;
+import reactor.core.publisher.Flux;
+
+import java.util.Optional;
+
+/*
+   The reactive counterparts of the StudentRepository pages, derived queries cannot take an offset with an arbitrary limit.
+   stuff is read as an R2DBC Clob and emitted chunk by chunk rather than decoded into one String.
+ */
+public class ReactiveStudentRepositoryCustomImpl implements ReactiveStudentRepositoryCustom {
+
+    private final R2dbcEntityTemplate template;
+
+    public ReactiveStudentRepositoryCustomImpl(R2dbcEntityTemplate template) {
+        this.template = template;
+    }
+
+    @Override
+    public Flux<StudentSummary> findPage(long offset, int limit) {
+        return template.select(StudentRow.class)
+                .as(StudentSummary.class)
+                .matching(Query.empty().sort(Sort.by("id")).offset(offset).limit(limit))
+                .all();
+    }
+
+    @Override
+    public Flux<StudentSummary> findAfter(int afterId, int limit) {
+        return template.select(StudentRow.class)
+                .as(StudentSummary.class)
+                .matching(Query.query(Criteria.where("id").greaterThan(afterId)).sort(Sort.by("id")).limit(limit))
+                .all();
+    }
+
+    @Override
+    public Flux<CharSequence> streamStuff(String studentId) {
+        return template.getDatabaseClient()
+                .sql("select stuff from students where student_id = :studentId")
+                .bind("studentId", studentId)
+                .map(row -> Optional.ofNullable(row.get("stuff", Clob.class)))
+                .first()
+                .flatMapMany(stuff -> stuff.map(clob -> Flux.from(clob.stream())).orElseGet(Flux::empty));
+    }
+}
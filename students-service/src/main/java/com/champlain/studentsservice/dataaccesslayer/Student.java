@@ -6,6 +6,7 @@ import lombok.NoArgsConstructor;
 
 @Entity
 @Table(name="students")
+@EntityListeners(StudentChangeListener.class)
 @Data
 @NoArgsConstructor
 public class Student {
@@ -0,0 +1,24 @@
+package com.champlain.studentsservice.dataaccesslayer;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.context.ApplicationEventPublisher;
+
+//JPA entity listener on Student, created by hibernate through the spring bean container so it can be injected
+public class StudentChangeListener {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    public StudentChangeListener(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void studentChanged(Student student) {
+        String studentId = student.getStudentIdentifier() == null ? null : student.getStudentIdentifier().getStudentId();
+        eventPublisher.publishEvent(new StudentChangedEvent(student.getId(), studentId));
+    }
+}
@@ -0,0 +1,5 @@
+package com.champlain.studentsservice.dataaccesslayer;
+
+//published for every student written through JPA, id and studentId are the two keys it can be looked up by
+public record StudentChangedEvent(Integer id, String studentId) {
+}
@@ -1,8 +1,52 @@
 package com.champlain.studentsservice.dataaccesslayer;
 
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
-public interface StudentRepository extends JpaRepository<Student, Integer> {
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
-    Student findStudentByStudentIdentifier_StudentId(String studentId);
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
+
+//the reads select StudentSummary so the stuff column is never fetched, StudentRepositoryCustom streams it on its own
+public interface StudentRepository extends JpaRepository<Student, Integer>, StudentRepositoryCustom {
+
+    String SELECT_SUMMARY = "select new com.champlain.studentsservice.dataaccesslayer.StudentSummary("
+            + "s.id, s.studentIdentifier.studentId, s.firstName, s.lastName, s.program) from Student s";
+
+    @Query(SELECT_SUMMARY + " where s.id = ?1")
+    Optional<StudentSummary> findSummaryById(Integer id);
+
+    @Query(SELECT_SUMMARY + " where s.studentIdentifier.studentId = ?1")
+    Optional<StudentSummary> findSummaryByStudentId(String studentId);
+
+    @Query(SELECT_SUMMARY + " where s.studentIdentifier.studentId in ?1")
+    List<StudentSummary> findSummariesByStudentIdIn(Collection<String> studentIds);
+
+    boolean existsByStudentIdentifier_StudentId(String studentId);
+
+    //offset page, a slice reads one row past the page instead of running a count query
+    @Query(SELECT_SUMMARY)
+    Slice<StudentSummary> findSummaries(Pageable pageable);
+
+    //keyset page on the primary key, the cost does not grow with how far into the table it starts
+    @Query(SELECT_SUMMARY + " where s.id > ?1 order by s.id")
+    List<StudentSummary> findSummariesAfter(Integer afterId, Limit limit);
+
+    //forward-only cursor read fetchSize rows at a time, must be consumed and closed inside a transaction.
+    //on mysql the fetch size is only honoured with useCursorFetch=true on the jdbc url
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query(SELECT_SUMMARY + " order by s.id")
+    Stream<StudentSummary> streamSummaries();
 }
@@ -0,0 +1,9 @@
+package com.champlain.studentsservice.dataaccesslayer;
+
+import java.io.Writer;
+
+public interface StudentRepositoryCustom {
+
+    //copies the student's stuff to writer as it is read, false when there is no such student
+    boolean writeStuff(String studentId, Writer writer);
+}
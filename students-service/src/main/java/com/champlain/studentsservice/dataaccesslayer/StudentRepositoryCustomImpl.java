@@ -0,0 +1,39 @@
+package com.champlain.studentsservice.dataaccesslayer;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+
+/*
+   The LOB is read through the driver's character stream and copied to the writer in chunks,
+   so neither a String of the whole payload nor an entity holding it is ever built.
+ */
+public class StudentRepositoryCustomImpl implements StudentRepositoryCustom {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public StudentRepositoryCustomImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public boolean writeStuff(String studentId, Writer writer) {
+        Boolean found = jdbcTemplate.query("select stuff from students where student_id = ?", rs -> {
+            if (!rs.next()) {
+                return false;
+            }
+            try (Reader stuff = rs.getCharacterStream(1)) {
+                if (stuff != null) {
+                    stuff.transferTo(writer);
+                }
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+            return true;
+        }, studentId);
+        return Boolean.TRUE.equals(found);
+    }
+}
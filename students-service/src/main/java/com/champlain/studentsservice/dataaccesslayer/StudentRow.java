@@ -0,0 +1,21 @@
+package com.champlain.studentsservice.dataaccesslayer;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+//the students row as read by the reactive profile over R2DBC, same table and columns as Student
+@Data
+@NoArgsConstructor
+@Table("students")
+public class StudentRow {
+
+    @Id
+    private Integer id;
+    private String studentId;
+    private String firstName;
+    private String lastName;
+    private String program;
+    private String stuff;
+}
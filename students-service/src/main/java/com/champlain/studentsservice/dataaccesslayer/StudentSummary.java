@@ -0,0 +1,9 @@
+package com.champlain.studentsservice.dataaccesslayer;
+
+//a student without its stuff LOB, what every read except the stuff endpoint selects
+public record StudentSummary(Integer id,
+                             String studentId,
+                             String firstName,
+                             String lastName,
+                             String program) {
+}
@@ -1,6 +1,7 @@
 package com.champlain.studentsservice.datamapperlayer;
 
 import com.champlain.studentsservice.dataaccesslayer.Student;
+import com.champlain.studentsservice.dataaccesslayer.StudentSummary;
 import com.champlain.studentsservice.presentationlayer.StudentResponseModel;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
@@ -14,4 +15,10 @@ public interface StudentResponseMapper {
     StudentResponseModel entityToResponseModel(Student student);
 
     List<StudentResponseModel> entityListToResponseModelList(List<Student> students);
+
+    //stuff is not part of the summary, it is only served by the stuff endpoint
+    @Mapping(target = "stuff", ignore = true)
+    StudentResponseModel summaryToResponseModel(StudentSummary summary);
+
+    List<StudentResponseModel> summaryListToResponseModelList(List<StudentSummary> summaries);
 }
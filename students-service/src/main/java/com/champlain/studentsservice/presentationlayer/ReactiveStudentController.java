@@ -0,0 +1,113 @@
+package com.champlain.studentsservice.presentationlayer;
+
+import com.champlain.studentsservice.businesslayer.ReactiveStudentService;
+import com.champlain.studentsservice.utils.exceptions.InvalidInputException;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+//the StudentController api on WebFlux, served instead of it when the reactive profile is active
+@RestController
+@Profile("reactive")
+@RequestMapping("api/v1/students")
+public class ReactiveStudentController {
+
+    private final ReactiveStudentService studentService;
+
+    public ReactiveStudentController(ReactiveStudentService studentService) {
+        this.studentService = studentService;
+    }
+
+    @GetMapping(value = "",
+    produces = "application/json")
+    public Flux<StudentResponseModel> getStudents() {
+        return studentService.getStudents();
+    }
+
+    //newline delimited json, each student is written as it is read
+    @GetMapping(value = "/stream",
+    produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<StudentResponseModel> streamStudents() {
+        return studentService.getStudents();
+    }
+
+    //offset page, 0 based
+    @GetMapping(value = "", params = "page", produces = "application/json")
+    public Mono<StudentPageResponseModel> getStudentPage(@RequestParam int page,
+                                                         @RequestParam(defaultValue = "" + StudentController.DEFAULT_PAGE_SIZE) int size) {
+        if (page < 0) {
+            return Mono.error(new InvalidInputException("Invalid page: " + page));
+        }
+        return validatePageSize(size)
+                .then(studentService.getStudentPage(page, size));
+    }
+
+    //keyset page, the students after the nextAfterId of the previous page (0 for the first one)
+    @GetMapping(value = "", params = "afterId", produces = "application/json")
+    public Mono<StudentPageResponseModel> getStudentsAfter(@RequestParam int afterId,
+                                                           @RequestParam(defaultValue = "" + StudentController.DEFAULT_PAGE_SIZE) int size) {
+        if (afterId < 0) {
+            return Mono.error(new InvalidInputException("Invalid afterId: " + afterId));
+        }
+        return validatePageSize(size)
+                .then(studentService.getStudentsAfter(afterId, size));
+    }
+
+    //get by database rowId
+    @GetMapping(value = "/row/{id}", produces = "application/json")
+    public Mono<StudentResponseModel> getStudentByRowId(@PathVariable Integer id) {
+        return studentService.getStudentByRowId(id);
+    }
+
+    //get by studentId
+    @GetMapping(value = "/{studentId}", produces = "application/json")
+    public Mono<StudentResponseModel> getStudentByStudentId(@PathVariable String studentId) {
+        if (studentId.length() != 36) {
+            return Mono.error(new InvalidInputException("Invalid studentId: " + studentId));
+        }
+        return studentService.getStudentByStudentId(studentId);
+    }
+
+    //the stuff payload on its own, written chunk by chunk as the driver reads it
+    @GetMapping(value = "/{studentId}/stuff", produces = "text/plain")
+    public Flux<CharSequence> getStudentStuff(@PathVariable String studentId) {
+        if (studentId.length() != 36) {
+            return Flux.error(new InvalidInputException("Invalid studentId: " + studentId));
+        }
+        return studentService.getStudentStuff(studentId);
+    }
+
+    //get many by studentId, posted as a json array so large batches are not limited by the url length
+    @PostMapping(value = "/batch", consumes = "application/json", produces = "application/json")
+    public Flux<StudentResponseModel> getStudentsByStudentIds(@RequestBody List<String> studentIds) {
+        Set<String> distinctStudentIds = new LinkedHashSet<>(studentIds);
+        if (distinctStudentIds.size() > StudentController.MAX_BATCH_SIZE) {
+            return Flux.error(new InvalidInputException("Too many studentIds: " + distinctStudentIds.size() + ", the maximum is " + StudentController.MAX_BATCH_SIZE));
+        }
+        for (String studentId : distinctStudentIds) {
+            if (studentId == null || studentId.length() != 36) {
+                return Flux.error(new InvalidInputException("Invalid studentId: " + studentId));
+            }
+        }
+        return studentService.getStudentsByStudentIds(distinctStudentIds);
+    }
+
+    private static Mono<Void> validatePageSize(int size) {
+        if (size < 1 || size > StudentController.MAX_PAGE_SIZE) {
+            return Mono.error(new InvalidInputException("Invalid page size: " + size + ", it must be between 1 and " + StudentController.MAX_PAGE_SIZE));
+        }
+        return Mono.empty();
+    }
+}
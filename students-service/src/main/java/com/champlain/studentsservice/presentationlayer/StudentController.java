@@ -2,28 +2,98 @@ package com.champlain.studentsservice.presentationlayer;
 
 import com.champlain.studentsservice.businesslayer.StudentService;
 import com.champlain.studentsservice.utils.exceptions.InvalidInputException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 @RestController
+@Profile("!reactive")
 @RequestMapping("api/v1/students")
 public class StudentController {
 
+    //upper bound on the studentIds resolved by a single batch request
+    public static final int MAX_BATCH_SIZE = 1000;
+
+    //students per page of the ?page= and ?afterId= reads
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 500;
+
     private final StudentService studentService;
+    private final ObjectMapper objectMapper;
 
-    public StudentController(StudentService studentService) {
+    public StudentController(StudentService studentService, ObjectMapper objectMapper) {
         this.studentService = studentService;
+        this.objectMapper = objectMapper;
     }
 
+    //the whole table as one json array, written element by element as the rows are read
     @GetMapping(value = "",
     produces = "application/json")
-    public ResponseEntity<List<StudentResponseModel>> getStudents() {
-        return ResponseEntity.ok().body(studentService.getStudents());
+    public ResponseEntity<StreamingResponseBody> getStudents() {
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(out -> {
+            out.write('[');
+            AtomicBoolean first = new AtomicBoolean(true);
+            studentService.streamStudents(student -> {
+                if (!first.compareAndSet(true, false)) {
+                    write(out, ',');
+                }
+                writeJson(out, student);
+            });
+            out.write(']');
+        });
+    }
+
+    //the whole table as newline delimited json, one student per line as the rows are read
+    @GetMapping(value = "/stream",
+    produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamStudents() {
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(out ->
+                studentService.streamStudents(student -> {
+                    writeJson(out, student);
+                    write(out, '\n');
+                }));
+    }
+
+    //offset page, 0 based
+    @GetMapping(value = "", params = "page", produces = "application/json")
+    public ResponseEntity<StudentPageResponseModel> getStudentPage(@RequestParam int page,
+                                                                   @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int size) {
+        if (page < 0) {
+            throw new InvalidInputException("Invalid page: " + page);
+        }
+        validatePageSize(size);
+        return ResponseEntity.ok().body(studentService.getStudentPage(page, size));
+    }
+
+    //keyset page, the students after the nextAfterId of the previous page (0 for the first one)
+    @GetMapping(value = "", params = "afterId", produces = "application/json")
+    public ResponseEntity<StudentPageResponseModel> getStudentsAfter(@RequestParam int afterId,
+                                                                     @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int size) {
+        if (afterId < 0) {
+            throw new InvalidInputException("Invalid afterId: " + afterId);
+        }
+        validatePageSize(size);
+        return ResponseEntity.ok().body(studentService.getStudentsAfter(afterId, size));
     }
 
     //get by database rowId
@@ -40,5 +110,56 @@ public class StudentController {
         }
         return ResponseEntity.ok().body(studentService.getStudentByStudentId(studentId));
     }
-    
+
+    //the stuff payload on its own, copied from the database to the response as it is read
+    @GetMapping(value = "/{studentId}/stuff", produces = "text/plain")
+    public ResponseEntity<StreamingResponseBody> getStudentStuff(@PathVariable String studentId) {
+        if (studentId.length() != 36) {
+            throw new InvalidInputException("Invalid studentId: " + studentId);
+        }
+        studentService.checkStudentExists(studentId);
+        return ResponseEntity.ok().contentType(new MediaType(MediaType.TEXT_PLAIN, StandardCharsets.UTF_8)).body(out -> {
+            Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+            studentService.writeStudentStuff(studentId, writer);
+            writer.flush();
+        });
+    }
+
+    //get many by studentId, posted as a json array so large batches are not limited by the url length
+    @PostMapping(value = "/batch", consumes = "application/json", produces = "application/json")
+    public ResponseEntity<List<StudentResponseModel>> getStudentsByStudentIds(@RequestBody List<String> studentIds) {
+        Set<String> distinctStudentIds = new LinkedHashSet<>(studentIds);
+        if (distinctStudentIds.size() > MAX_BATCH_SIZE) {
+            throw new InvalidInputException("Too many studentIds: " + distinctStudentIds.size() + ", the maximum is " + MAX_BATCH_SIZE);
+        }
+        for (String studentId : distinctStudentIds) {
+            if (studentId == null || studentId.length() != 36) {
+                throw new InvalidInputException("Invalid studentId: " + studentId);
+            }
+        }
+        return ResponseEntity.ok().body(studentService.getStudentsByStudentIds(distinctStudentIds));
+    }
+
+    private static void validatePageSize(int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new InvalidInputException("Invalid page size: " + size + ", it must be between 1 and " + MAX_PAGE_SIZE);
+        }
+    }
+
+    //the callbacks of streamStudents cannot throw IOException
+    private void writeJson(OutputStream out, StudentResponseModel student) {
+        try {
+            out.write(objectMapper.writeValueAsBytes(student));
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private static void write(OutputStream out, char c) {
+        try {
+            out.write(c);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
 }
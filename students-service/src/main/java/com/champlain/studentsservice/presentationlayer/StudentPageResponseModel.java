@@ -0,0 +1,20 @@
+package com.champlain.studentsservice.presentationlayer;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+//nextPage is set on ?page= reads and nextAfterId on ?afterId= reads, both are null on the last page
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StudentPageResponseModel {
+
+    private List<StudentResponseModel> students;
+    private Integer nextPage;
+    private Integer nextAfterId;
+}
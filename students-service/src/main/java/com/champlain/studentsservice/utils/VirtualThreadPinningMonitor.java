@@ -0,0 +1,84 @@
+package com.champlain.studentsservice.utils;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/*
+   A virtual thread that blocks inside a synchronized block or a native call stays pinned to its carrier,
+   so a driver or hibernate lock held across a query quietly turns the virtual profile back into a small
+   platform thread pool. The JDK reports each such block as a jdk.VirtualThreadPinned JFR event; they are
+   streamed in-process into the students.virtual-threads.pinned timer, tagged with the first frame outside
+   the JDK so the offending library call is visible in the metrics and the log.
+   The recording runs on its own thread from context start until shutdown, when it is closed along with that thread.
+ */
+@Slf4j
+@Component
+@Profile("virtual")
+public class VirtualThreadPinningMonitor implements SmartLifecycle {
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final String PINNED = "students.virtual-threads.pinned";
+
+    private final MeterRegistry meterRegistry;
+    private final Duration threshold;
+    //a closed stream cannot be restarted, each start gets a new one
+    private volatile RecordingStream recording;
+
+    public VirtualThreadPinningMonitor(MeterRegistry meterRegistry,
+                                       @Value("${app.virtual-threads.pinning-threshold:20ms}") Duration threshold) {
+        this.meterRegistry = meterRegistry;
+        this.threshold = threshold;
+    }
+
+    @Override
+    public synchronized void start() {
+        if (recording != null) {
+            return;
+        }
+        RecordingStream stream = new RecordingStream();
+        stream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        stream.onEvent(PINNED_EVENT, event -> {
+            String frame = firstApplicationFrame(event);
+            meterRegistry.timer(PINNED, "frame", frame).record(event.getDuration());
+            log.warn("Virtual thread pinned for {} ms at {}", event.getDuration().toMillis(), frame);
+        });
+        stream.startAsync();
+        recording = stream;
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (recording != null) {
+            recording.close();
+            recording = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return recording != null;
+    }
+
+    // the top frames are the JDK parking the thread, the caller that got pinned comes after them
+    private static String firstApplicationFrame(RecordedEvent event) {
+        if (event.getStackTrace() == null) {
+            return "unknown";
+        }
+        for (RecordedFrame frame : event.getStackTrace().getFrames()) {
+            String type = frame.getMethod().getType().getName();
+            if (!type.startsWith("java.") && !type.startsWith("jdk.") && !type.startsWith("sun.")) {
+                return type + "." + frame.getMethod().getName();
+            }
+        }
+        return "jdk";
+    }
+}
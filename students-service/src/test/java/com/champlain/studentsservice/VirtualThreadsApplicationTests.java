@@ -0,0 +1,126 @@
+package com.champlain.studentsservice;
+
+import com.champlain.studentsservice.dataaccesslayer.Student;
+import com.champlain.studentsservice.dataaccesslayer.StudentIdentifier;
+import com.champlain.studentsservice.dataaccesslayer.StudentRepository;
+import com.champlain.studentsservice.presentationlayer.StudentResponseModel;
+import com.champlain.studentsservice.utils.VirtualThreadPinningMonitor;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+//a real tomcat on a random port, MockMvc would run the requests on the test thread
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles({"h2", "virtual"})
+class VirtualThreadsApplicationTests {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private RequestThreads requestThreads;
+
+    @Autowired
+    private VirtualThreadPinningMonitor pinningMonitor;
+
+    @Autowired
+    private ConfigurableApplicationContext context;
+
+    private Student student;
+
+    @BeforeEach
+    public void setUpDB() {
+        studentRepository.deleteAll();
+        student = new Student();
+        student.setStudentIdentifier(new StudentIdentifier());
+        student.setFirstName("Virtual");
+        student.setLastName("Thread");
+        student.setProgram("Computer Science");
+        student = studentRepository.save(student);
+        requestThreads.threads.clear();
+    }
+
+    @Test
+    public void whenGetStudent_thenRequestRunsOnAVirtualThread() {
+        webTestClient.get()
+                .uri("/api/v1/students/" + student.getStudentIdentifier().getStudentId())
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(StudentResponseModel.class)
+                .value(response -> assertEquals("Virtual", response.getFirstName()));
+
+        assertEquals(1, requestThreads.threads.size());
+        assertTrue(requestThreads.threads.get(0).isVirtual());
+    }
+
+    @Test
+    public void whenManyRequests_thenEachRunsOnAVirtualThread() {
+        for (int i = 0; i < 10; i++) {
+            webTestClient.get()
+                    .uri("/api/v1/students/row/" + student.getId())
+                    .accept(MediaType.APPLICATION_JSON)
+                    .exchange()
+                    .expectStatus().isOk();
+        }
+
+        assertEquals(10, requestThreads.threads.size());
+        assertTrue(requestThreads.threads.stream().allMatch(Thread::isVirtual));
+    }
+
+    @Test
+    @DirtiesContext
+    public void whenContextCloses_thenPinningMonitorStops() {
+        assertTrue(pinningMonitor.isRunning());
+
+        context.close();
+
+        assertFalse(pinningMonitor.isRunning());
+    }
+
+    @TestConfiguration
+    static class RequestThreadsConfiguration {
+
+        @Bean
+        RequestThreads requestThreads() {
+            return new RequestThreads();
+        }
+    }
+
+    //remembers the thread every request was served on
+    static class RequestThreads extends OncePerRequestFilter {
+
+        private final List<Thread> threads = new CopyOnWriteArrayList<>();
+
+        @Override
+        protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+                throws ServletException, IOException {
+            threads.add(Thread.currentThread());
+            filterChain.doFilter(request, response);
+        }
+    }
+}
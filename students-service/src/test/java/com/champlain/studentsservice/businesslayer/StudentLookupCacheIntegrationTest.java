@@ -0,0 +1,130 @@
+package com.champlain.studentsservice.businesslayer;
+
+import com.champlain.studentsservice.dataaccesslayer.Student;
+import com.champlain.studentsservice.dataaccesslayer.StudentIdentifier;
+import com.champlain.studentsservice.dataaccesslayer.StudentRepository;
+import com.champlain.studentsservice.utils.exceptions.NotFoundException;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+//reads through StudentService and writes through the repository, the cache is followed with its cache.gets meters
+@SpringBootTest
+@ActiveProfiles("h2")
+class StudentLookupCacheIntegrationTest {
+
+    @Autowired
+    private StudentService studentService;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Student student;
+    private String studentId;
+
+    @BeforeEach
+    public void setUp() {
+        student = new Student();
+        student.setStudentIdentifier(new StudentIdentifier());
+        student.setFirstName("Cached");
+        student.setLastName("Student");
+        student.setProgram("Computer Science");
+        student = studentRepository.save(student);
+        studentId = student.getStudentIdentifier().getStudentId();
+    }
+
+    @Test
+    public void whenReadByStudentId_thenReadsByBothKeysAreHits() {
+        double hits = gets("hit");
+        double misses = gets("miss");
+
+        assertEquals("Cached", studentService.getStudentByStudentId(studentId).getFirstName());
+        assertEquals("Cached", studentService.getStudentByStudentId(studentId).getFirstName());
+        assertEquals(studentId, studentService.getStudentByRowId(student.getId()).getStudentId());
+
+        assertEquals(misses + 1, gets("miss"));
+        assertEquals(hits + 2, gets("hit"));
+    }
+
+    @Test
+    public void whenReadByRowId_thenReadsByBothKeysAreHits() {
+        double hits = gets("hit");
+        double misses = gets("miss");
+
+        assertEquals(studentId, studentService.getStudentByRowId(student.getId()).getStudentId());
+        assertEquals(studentId, studentService.getStudentByRowId(student.getId()).getStudentId());
+        assertEquals("Cached", studentService.getStudentByStudentId(studentId).getFirstName());
+
+        assertEquals(misses + 1, gets("miss"));
+        assertEquals(hits + 2, gets("hit"));
+    }
+
+    @Test
+    public void whenStudentIsUpdated_thenBothKeysAreInvalidatedOnlyAfterCommit() {
+        studentService.getStudentByStudentId(studentId);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            Student found = studentRepository.findById(student.getId()).orElseThrow();
+            found.setFirstName("Renamed");
+            studentRepository.saveAndFlush(found);
+            //written but not committed, the cache still serves the committed row
+            assertEquals("Cached", studentService.getStudentByStudentId(studentId).getFirstName());
+            assertEquals("Cached", studentService.getStudentByRowId(student.getId()).getFirstName());
+        });
+
+        double misses = gets("miss");
+        assertEquals("Renamed", studentService.getStudentByRowId(student.getId()).getFirstName());
+        assertEquals("Renamed", studentService.getStudentByStudentId(studentId).getFirstName());
+        //the read by rowId loaded the student again and cached it under its studentId too
+        assertEquals(misses + 1, gets("miss"));
+    }
+
+    @Test
+    public void whenStudentIdIsChanged_thenTheOldStudentIdIsNoLongerFound() {
+        studentService.getStudentByStudentId(studentId);
+
+        StudentIdentifier changed = new StudentIdentifier();
+        transactionTemplate.executeWithoutResult(status -> {
+            Student found = studentRepository.findById(student.getId()).orElseThrow();
+            found.setStudentIdentifier(changed);
+            studentRepository.save(found);
+        });
+
+        //the event carries the new studentId, the old one is found through the cached rowId entry
+        assertThrows(NotFoundException.class, () -> studentService.getStudentByStudentId(studentId));
+        assertEquals(changed.getStudentId(), studentService.getStudentByRowId(student.getId()).getStudentId());
+        assertEquals(changed.getStudentId(), studentService.getStudentByStudentId(changed.getStudentId()).getStudentId());
+    }
+
+    @Test
+    public void whenStudentIsDeleted_thenItIsNoLongerFoundByEitherKey() {
+        studentService.getStudentByStudentId(studentId);
+        studentService.getStudentByRowId(student.getId());
+
+        transactionTemplate.executeWithoutResult(status ->
+                studentRepository.delete(studentRepository.findById(student.getId()).orElseThrow()));
+
+        assertThrows(NotFoundException.class, () -> studentService.getStudentByStudentId(studentId));
+        assertThrows(NotFoundException.class, () -> studentService.getStudentByRowId(student.getId()));
+    }
+
+    private double gets(String result) {
+        return meterRegistry.get("cache.gets")
+                .tags("cache", "students", "result", result)
+                .functionCounter()
+                .count();
+    }
+}
@@ -0,0 +1,192 @@
+package com.champlain.studentsservice.dataaccesslayer;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.StringWriter;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+//the h2 profile database and schema, with every statement hibernate sends recorded to check what the reads select
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.champlain.studentsservice.dataaccesslayer.StudentRepositoryIntegrationTest$RecordingStatementInspector")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("h2")
+class StudentRepositoryIntegrationTest {
+
+    private static final String STUFF = "stuff é ".repeat(150_000);
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private List<Student> students;
+
+    @BeforeEach
+    public void setUpDB() {
+        studentRepository.deleteAllInBatch();
+        students = studentRepository.saveAllAndFlush(IntStream.rangeClosed(1, 3)
+                .mapToObj(i -> student("First" + i, "Last" + i, STUFF))
+                .toList());
+        //the reads below have to go to the database, not to the persistence context
+        entityManager.clear();
+        RecordingStatementInspector.statements.clear();
+    }
+
+    @Test
+    public void whenFindSummaryById_thenReturnSummaryWithoutSelectingStuff() {
+        Student student = students.get(0);
+
+        Optional<StudentSummary> summary = studentRepository.findSummaryById(student.getId());
+
+        assertTrue(summary.isPresent());
+        assertEquals(new StudentSummary(student.getId(), studentId(student), "First1", "Last1", "Computer Science"), summary.get());
+        assertStuffNotSelected();
+    }
+
+    @Test
+    public void whenFindSummaryByStudentId_thenReturnSummaryWithoutSelectingStuff() {
+        Student student = students.get(1);
+
+        Optional<StudentSummary> summary = studentRepository.findSummaryByStudentId(studentId(student));
+
+        assertTrue(summary.isPresent());
+        assertEquals(new StudentSummary(student.getId(), studentId(student), "First2", "Last2", "Computer Science"), summary.get());
+        assertStuffNotSelected();
+    }
+
+    @Test
+    public void whenFindSummaryByStudentId_withUnknownStudentId_thenReturnEmpty() {
+        assertTrue(studentRepository.findSummaryByStudentId("c3540a89-cb47-4c96-888e-ff96708db4d8").isEmpty());
+    }
+
+    @Test
+    public void whenFindSummariesByStudentIdIn_thenReturnOnlyKnownStudentsWithoutSelectingStuff() {
+        List<StudentSummary> summaries = studentRepository.findSummariesByStudentIdIn(
+                Set.of(studentId(students.get(0)), studentId(students.get(2)), "c3540a89-cb47-4c96-888e-ff96708db4d8"));
+
+        assertEquals(Set.of(studentId(students.get(0)), studentId(students.get(2))),
+                Set.copyOf(summaries.stream().map(StudentSummary::studentId).toList()));
+        assertStuffNotSelected();
+    }
+
+    @Test
+    public void whenFindSummaries_thenReturnSliceWithoutCountingOrSelectingStuff() {
+        Slice<StudentSummary> first = studentRepository.findSummaries(PageRequest.of(0, 2, Sort.by("id")));
+        Slice<StudentSummary> last = studentRepository.findSummaries(PageRequest.of(1, 2, Sort.by("id")));
+
+        assertEquals(List.of(students.get(0).getId(), students.get(1).getId()), ids(first.getContent()));
+        assertTrue(first.hasNext());
+        assertEquals(List.of(students.get(2).getId()), ids(last.getContent()));
+        assertFalse(last.hasNext());
+        assertStuffNotSelected();
+        assertTrue(RecordingStatementInspector.statements.stream().noneMatch(sql -> sql.toLowerCase().contains("count(")));
+    }
+
+    @Test
+    public void whenFindSummariesAfter_thenReturnAtMostLimitStudentsAfterTheIdWithoutSelectingStuff() {
+        List<StudentSummary> summaries = studentRepository.findSummariesAfter(students.get(0).getId(), Limit.of(1));
+
+        assertEquals(List.of(students.get(1).getId()), ids(summaries));
+        assertStuffNotSelected();
+    }
+
+    @Test
+    public void whenStreamSummaries_thenReturnEveryStudentInIdOrderWithoutSelectingStuff() {
+        List<StudentSummary> summaries;
+        try (Stream<StudentSummary> stream = studentRepository.streamSummaries()) {
+            summaries = stream.toList();
+        }
+
+        assertEquals(students.stream().map(Student::getId).toList(), ids(summaries));
+        assertStuffNotSelected();
+    }
+
+    //the check above would pass on any read if nothing was recorded
+    @Test
+    public void whenFindEntityById_thenStuffIsSelected() {
+        studentRepository.findById(students.get(0).getId());
+
+        assertTrue(RecordingStatementInspector.statements.stream().anyMatch(sql -> sql.toLowerCase().contains("stuff")));
+    }
+
+    @Test
+    public void whenWriteStuff_thenTheWholeStuffIsWritten() {
+        StringWriter writer = new StringWriter();
+
+        assertTrue(studentRepository.writeStuff(studentId(students.get(0)), writer));
+        assertEquals(STUFF, writer.toString());
+    }
+
+    @Test
+    public void whenWriteStuff_withoutStuff_thenNothingIsWritten() {
+        Student student = studentRepository.saveAndFlush(student("No", "Stuff", null));
+        StringWriter writer = new StringWriter();
+
+        assertTrue(studentRepository.writeStuff(studentId(student), writer));
+        assertEquals("", writer.toString());
+    }
+
+    @Test
+    public void whenWriteStuff_withUnknownStudentId_thenReturnFalse() {
+        StringWriter writer = new StringWriter();
+
+        assertFalse(studentRepository.writeStuff("c3540a89-cb47-4c96-888e-ff96708db4d8", writer));
+        assertEquals("", writer.toString());
+    }
+
+    private static void assertStuffNotSelected() {
+        assertFalse(RecordingStatementInspector.statements.isEmpty());
+        RecordingStatementInspector.statements.forEach(sql -> assertFalse(sql.toLowerCase().contains("stuff"), sql));
+    }
+
+    private static List<Integer> ids(List<StudentSummary> summaries) {
+        return summaries.stream().map(StudentSummary::id).toList();
+    }
+
+    private static String studentId(Student student) {
+        return student.getStudentIdentifier().getStudentId();
+    }
+
+    private static Student student(String firstName, String lastName, String stuff) {
+        Student student = new Student();
+        student.setStudentIdentifier(new StudentIdentifier());
+        student.setFirstName(firstName);
+        student.setLastName(lastName);
+        student.setProgram("Computer Science");
+        student.setStuff(stuff);
+        return student;
+    }
+
+    //created by hibernate from its class name, hence public and static
+    public static class RecordingStatementInspector implements StatementInspector {
+
+        static final List<String> statements = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            statements.add(sql);
+            return sql;
+        }
+    }
+}
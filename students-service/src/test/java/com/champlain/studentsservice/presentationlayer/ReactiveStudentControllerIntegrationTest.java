@@ -0,0 +1,238 @@
+package com.champlain.studentsservice.presentationlayer;
+
+import com.champlain.studentsservice.dataaccesslayer.ReactiveStudentRepository;
+import com.champlain.studentsservice.dataaccesslayer.StudentRow;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+//the StudentControllerIntegrationTest requests against the WebFlux and R2DBC stack
+@SpringBootTest(properties = "spring.profiles.active=h2,reactive")
+@AutoConfigureWebTestClient
+class ReactiveStudentControllerIntegrationTest {
+
+    private static final String BASE_URI = "/api/v1/students";
+    private static final String UNKNOWN_STUDENT_ID = "c3540a89-cb47-4c96-888e-ff96708db4d8";
+    //larger than any chunk the driver hands out, so the stuff is written in several
+    private static final String STUFF = "stuff ".repeat(100_000);
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private ReactiveStudentRepository studentRepository;
+
+    private List<StudentRow> students;
+
+    @BeforeEach
+    public void setUpDB() {
+        StepVerifier
+                .create(studentRepository.deleteAll())
+                .verifyComplete();
+
+        students = Flux.range(1, 3)
+                .concatMap(i -> studentRepository.save(student("First" + i, "Last" + i)))
+                .collectList()
+                .block();
+    }
+
+    @Test
+    public void whenGetStudents_thenReturnAllStudentsInIdOrder() {
+        webTestClient.get()
+                .uri(BASE_URI)
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(StudentResponseModel.class)
+                .value(response -> {
+                    assertEquals(3, response.size());
+                    for (int i = 0; i < students.size(); i++) {
+                        assertEquals(students.get(i).getStudentId(), response.get(i).getStudentId());
+                        assertNull(response.get(i).getStuff());
+                    }
+                });
+    }
+
+    @Test
+    public void whenStreamStudents_thenReturnOneStudentPerLine() {
+        Flux<StudentResponseModel> response = webTestClient.get()
+                .uri(BASE_URI + "/stream")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .returnResult(StudentResponseModel.class)
+                .getResponseBody();
+
+        StepVerifier
+                .create(response.map(StudentResponseModel::getStudentId))
+                .expectNext(students.get(0).getStudentId(), students.get(1).getStudentId(), students.get(2).getStudentId())
+                .verifyComplete();
+    }
+
+    @Test
+    public void whenGetStudentPage_thenReturnPageAndNextPageUntilTheLastOne() {
+        webTestClient.get()
+                .uri(BASE_URI + "?page=0&size=2")
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.students.length()").isEqualTo(2)
+                .jsonPath("$.students[0].studentId").isEqualTo(students.get(0).getStudentId())
+                .jsonPath("$.nextPage").isEqualTo(1);
+
+        webTestClient.get()
+                .uri(BASE_URI + "?page=1&size=2")
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.students.length()").isEqualTo(1)
+                .jsonPath("$.students[0].studentId").isEqualTo(students.get(2).getStudentId())
+                .jsonPath("$.nextPage").doesNotExist();
+    }
+
+    @Test
+    public void whenGetStudentsAfter_thenReturnPageAndNextAfterIdUntilTheLastOne() {
+        webTestClient.get()
+                .uri(BASE_URI + "?afterId=0&size=2")
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.students.length()").isEqualTo(2)
+                .jsonPath("$.nextAfterId").isEqualTo(students.get(1).getId());
+
+        webTestClient.get()
+                .uri(BASE_URI + "?afterId=" + students.get(1).getId() + "&size=2")
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.students.length()").isEqualTo(1)
+                .jsonPath("$.students[0].studentId").isEqualTo(students.get(2).getStudentId())
+                .jsonPath("$.nextAfterId").doesNotExist();
+    }
+
+    @Test
+    public void whenGetStudentPage_withInvalidSize_thenReturnUnprocessableEntity() {
+        webTestClient.get()
+                .uri(BASE_URI + "?page=0&size=0")
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.UNPROCESSABLE_ENTITY)
+                .expectBody()
+                .jsonPath("$.message").isEqualTo("Invalid page size: 0, it must be between 1 and 500");
+    }
+
+    @Test
+    public void whenGetStudentByStudentId_thenReturnStudent() {
+        StudentRow student = students.get(0);
+
+        webTestClient.get()
+                .uri(BASE_URI + "/" + student.getStudentId())
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(StudentResponseModel.class)
+                .value(response -> {
+                    assertEquals(student.getStudentId(), response.getStudentId());
+                    assertEquals("First1", response.getFirstName());
+                    assertEquals("Last1", response.getLastName());
+                    assertEquals("Computer Science", response.getProgram());
+                    assertNull(response.getStuff());
+                });
+    }
+
+    @Test
+    public void whenGetStudentByRowId_thenReturnStudent() {
+        StudentRow student = students.get(1);
+
+        webTestClient.get()
+                .uri(BASE_URI + "/row/" + student.getId())
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(StudentResponseModel.class)
+                .value(response -> assertEquals(student.getStudentId(), response.getStudentId()));
+    }
+
+    @Test
+    public void whenGetStudentByStudentId_withUnknownStudentId_thenReturnNotFound() {
+        webTestClient.get()
+                .uri(BASE_URI + "/" + UNKNOWN_STUDENT_ID)
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody()
+                .jsonPath("$.message").isEqualTo("Unknown studentId: " + UNKNOWN_STUDENT_ID);
+    }
+
+    @Test
+    public void whenGetStudentByStudentId_withInvalidStudentId_thenReturnUnprocessableEntity() {
+        webTestClient.get()
+                .uri(BASE_URI + "/not-a-student-id")
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.UNPROCESSABLE_ENTITY)
+                .expectBody()
+                .jsonPath("$.message").isEqualTo("Invalid studentId: not-a-student-id");
+    }
+
+    @Test
+    public void whenGetStudentStuff_thenReturnTheWholeStuff() {
+        webTestClient.get()
+                .uri(BASE_URI + "/" + students.get(0).getStudentId() + "/stuff")
+                .accept(MediaType.TEXT_PLAIN)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class)
+                .value(stuff -> assertEquals(STUFF, stuff));
+    }
+
+    @Test
+    public void whenGetStudentStuff_withUnknownStudentId_thenReturnNotFound() {
+        webTestClient.get()
+                .uri(BASE_URI + "/" + UNKNOWN_STUDENT_ID + "/stuff")
+                .accept(MediaType.TEXT_PLAIN, MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    public void whenGetStudentsByStudentIds_thenReturnOnlyKnownStudents() {
+        webTestClient.post()
+                .uri(BASE_URI + "/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON)
+                .bodyValue(List.of(students.get(0).getStudentId(), students.get(2).getStudentId(), UNKNOWN_STUDENT_ID))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(StudentResponseModel.class)
+                .hasSize(2);
+    }
+
+    private static StudentRow student(String firstName, String lastName) {
+        StudentRow student = new StudentRow();
+        student.setStudentId(UUID.randomUUID().toString());
+        student.setFirstName(firstName);
+        student.setLastName(lastName);
+        student.setProgram("Computer Science");
+        student.setStuff(STUFF);
+        return student;
+    }
+}
@@ -0,0 +1,312 @@
+package com.champlain.studentsservice.presentationlayer;
+
+import com.champlain.studentsservice.dataaccesslayer.Student;
+import com.champlain.studentsservice.dataaccesslayer.StudentIdentifier;
+import com.champlain.studentsservice.dataaccesslayer.StudentRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+//the listing and the stream are written from an async StreamingResponseBody, their body is only there after asyncDispatch
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("h2")
+class StudentControllerIntegrationTest {
+
+    private static final String BASE_URI = "/api/v1/students";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private List<Student> students;
+
+    @BeforeEach
+    public void setUpDB() {
+        studentRepository.deleteAll();
+        students = studentRepository.saveAll(IntStream.rangeClosed(1, 3)
+                .mapToObj(i -> student("First" + i, "Last" + i))
+                .toList());
+    }
+
+    @Test
+    public void whenGetStudents_thenStreamAllStudentsAsOneJsonArray() throws Exception {
+        MvcResult result = mockMvc.perform(get(BASE_URI).accept(MediaType.APPLICATION_JSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.length()").value(3))
+                .andExpect(jsonPath("$[0].studentId").value(studentId(0)))
+                .andExpect(jsonPath("$[1].studentId").value(studentId(1)))
+                .andExpect(jsonPath("$[2].studentId").value(studentId(2)))
+                .andExpect(jsonPath("$[2].firstName").value("First3"));
+    }
+
+    @Test
+    public void whenGetStudents_withNoStudents_thenStreamAnEmptyJsonArray() throws Exception {
+        studentRepository.deleteAll();
+
+        MvcResult result = mockMvc.perform(get(BASE_URI).accept(MediaType.APPLICATION_JSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().json("[]"));
+    }
+
+    @Test
+    public void whenStreamStudents_thenWriteOneStudentPerLine() throws Exception {
+        MvcResult result = mockMvc.perform(get(BASE_URI + "/stream").accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+
+        List<String> lines = body.lines().toList();
+        assertEquals(3, lines.size());
+        for (int i = 0; i < lines.size(); i++) {
+            StudentResponseModel student = objectMapper.readValue(lines.get(i), StudentResponseModel.class);
+            assertEquals(studentId(i), student.getStudentId());
+            assertEquals("Last" + (i + 1), student.getLastName());
+        }
+    }
+
+    @Test
+    public void whenGetStudentPage_thenReturnPageAndNextPage() throws Exception {
+        mockMvc.perform(get(BASE_URI).param("page", "0").param("size", "2").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.students.length()").value(2))
+                .andExpect(jsonPath("$.students[0].studentId").value(studentId(0)))
+                .andExpect(jsonPath("$.students[1].studentId").value(studentId(1)))
+                .andExpect(jsonPath("$.nextPage").value(1));
+    }
+
+    @Test
+    public void whenGetLastStudentPage_thenNextPageIsNull() throws Exception {
+        mockMvc.perform(get(BASE_URI).param("page", "1").param("size", "2").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.students.length()").value(1))
+                .andExpect(jsonPath("$.students[0].studentId").value(studentId(2)))
+                .andExpect(jsonPath("$.nextPage").value(nullValue()));
+    }
+
+    @Test
+    public void whenGetStudentPage_pastTheLastStudent_thenReturnEmptyPage() throws Exception {
+        mockMvc.perform(get(BASE_URI).param("page", "5").param("size", "2").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.students.length()").value(0))
+                .andExpect(jsonPath("$.nextPage").value(nullValue()));
+    }
+
+    @Test
+    public void whenGetStudentsAfter_thenReturnPageAndNextAfterId() throws Exception {
+        mockMvc.perform(get(BASE_URI).param("afterId", "0").param("size", "2").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.students.length()").value(2))
+                .andExpect(jsonPath("$.students[0].studentId").value(studentId(0)))
+                .andExpect(jsonPath("$.nextAfterId").value(students.get(1).getId()));
+    }
+
+    @Test
+    public void whenGetStudentsAfter_fromNextAfterId_thenReturnLastPage() throws Exception {
+        mockMvc.perform(get(BASE_URI).param("afterId", String.valueOf(students.get(1).getId())).param("size", "2")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.students.length()").value(1))
+                .andExpect(jsonPath("$.students[0].studentId").value(studentId(2)))
+                .andExpect(jsonPath("$.nextAfterId").value(nullValue()));
+    }
+
+    //the extra row read past the page is what tells a full last page from one with more after it
+    @Test
+    public void whenGetStudentsAfter_withPageSizeOfTheRemainingStudents_thenNextAfterIdIsNull() throws Exception {
+        mockMvc.perform(get(BASE_URI).param("afterId", "0").param("size", "3").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.students.length()").value(3))
+                .andExpect(jsonPath("$.nextAfterId").value(nullValue()));
+    }
+
+    @Test
+    public void whenGetStudentsAfter_theLastStudent_thenReturnEmptyPage() throws Exception {
+        mockMvc.perform(get(BASE_URI).param("afterId", String.valueOf(students.get(2).getId())).accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.students.length()").value(0))
+                .andExpect(jsonPath("$.nextAfterId").value(nullValue()));
+    }
+
+    //afterId is a position in the table, not a lookup, a row that is not there is not an error
+    @Test
+    public void whenGetStudentsAfter_withNonExistentAfterId_thenReturnTheStudentsAfterIt() throws Exception {
+        int beforeFirst = students.get(0).getId() - 1;
+        assertFalse(studentRepository.existsById(beforeFirst));
+
+        mockMvc.perform(get(BASE_URI).param("afterId", String.valueOf(beforeFirst)).accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.students.length()").value(3))
+                .andExpect(jsonPath("$.students[0].studentId").value(studentId(0)));
+
+        mockMvc.perform(get(BASE_URI).param("afterId", String.valueOf(students.get(2).getId() + 1000)).accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.students.length()").value(0))
+                .andExpect(jsonPath("$.nextAfterId").value(nullValue()));
+    }
+
+    @Test
+    public void whenGetStudentsAfter_withNegativeAfterId_thenReturnUnprocessableEntity() throws Exception {
+        mockMvc.perform(get(BASE_URI).param("afterId", "-1").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(jsonPath("$.message").value("Invalid afterId: -1"));
+    }
+
+    @Test
+    public void whenGetStudentPage_withNegativePage_thenReturnUnprocessableEntity() throws Exception {
+        mockMvc.perform(get(BASE_URI).param("page", "-1").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(jsonPath("$.message").value("Invalid page: -1"));
+    }
+
+    @Test
+    public void whenGetStudentPage_withSizeOverTheMaximum_thenReturnUnprocessableEntity() throws Exception {
+        mockMvc.perform(get(BASE_URI).param("page", "0").param("size", "501").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(jsonPath("$.message").value("Invalid page size: 501, it must be between 1 and 500"));
+    }
+
+    @Test
+    public void whenGetStudentStuff_thenStreamTheWholeStuff() throws Exception {
+        String stuff = "stuff é ".repeat(150_000);
+        Student student = student("With", "Stuff");
+        student.setStuff(stuff);
+        student = studentRepository.save(student);
+
+        MvcResult result = mockMvc.perform(get(BASE_URI + "/" + student.getStudentIdentifier().getStudentId() + "/stuff")
+                        .accept(MediaType.TEXT_PLAIN))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.TEXT_PLAIN))
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+        assertEquals(stuff, body);
+    }
+
+    //the existence check runs before the body starts, so this is a plain 404 and not an empty 200
+    @Test
+    public void whenGetStudentStuff_withUnknownStudentId_thenReturnNotFound() throws Exception {
+        mockMvc.perform(get(BASE_URI + "/c3540a89-cb47-4c96-888e-ff96708db4d8/stuff").accept(MediaType.TEXT_PLAIN, MediaType.APPLICATION_JSON))
+                .andExpect(request().asyncNotStarted())
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    public void whenGetStudent_withStuff_thenStuffIsLeftOut() throws Exception {
+        Student student = student("With", "Stuff");
+        student.setStuff("stuff");
+        student = studentRepository.save(student);
+
+        mockMvc.perform(get(BASE_URI + "/" + student.getStudentIdentifier().getStudentId()).accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.firstName").value("With"))
+                .andExpect(jsonPath("$.stuff").value(nullValue()));
+    }
+
+    @Test
+    public void whenGetStudentsByStudentIds_thenReturnThoseStudents() throws Exception {
+        mockMvc.perform(post(BASE_URI + "/batch").contentType(MediaType.APPLICATION_JSON).accept(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(studentId(0), studentId(2)))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[*].studentId", containsInAnyOrder(studentId(0), studentId(2))));
+    }
+
+    @Test
+    public void whenGetStudentsByStudentIds_withDuplicates_thenReturnEachStudentOnce() throws Exception {
+        mockMvc.perform(post(BASE_URI + "/batch").contentType(MediaType.APPLICATION_JSON).accept(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(studentId(1), studentId(1), studentId(1)))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].studentId").value(studentId(1)));
+    }
+
+    //a batch is a lookup of whatever exists, an unknown studentId is not an error
+    @Test
+    public void whenGetStudentsByStudentIds_withUnknownStudentId_thenItIsLeftOut() throws Exception {
+        String unknown = UUID.randomUUID().toString();
+
+        mockMvc.perform(post(BASE_URI + "/batch").contentType(MediaType.APPLICATION_JSON).accept(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(studentId(0), unknown))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].studentId").value(studentId(0)));
+    }
+
+    @Test
+    public void whenGetStudentsByStudentIds_withStudentIdOfWrongLength_thenReturnUnprocessableEntity() throws Exception {
+        mockMvc.perform(post(BASE_URI + "/batch").contentType(MediaType.APPLICATION_JSON).accept(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(studentId(0), "c3540a89"))))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(jsonPath("$.message").value("Invalid studentId: c3540a89"));
+    }
+
+    @Test
+    public void whenGetStudentsByStudentIds_withMoreThanTheMaximum_thenReturnUnprocessableEntity() throws Exception {
+        List<String> studentIds = IntStream.rangeClosed(0, StudentController.MAX_BATCH_SIZE)
+                .mapToObj(i -> UUID.randomUUID().toString())
+                .toList();
+
+        mockMvc.perform(post(BASE_URI + "/batch").contentType(MediaType.APPLICATION_JSON).accept(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(studentIds)))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(jsonPath("$.message").value("Too many studentIds: 1001, the maximum is 1000"));
+    }
+
+    private String studentId(int index) {
+        return students.get(index).getStudentIdentifier().getStudentId();
+    }
+
+    private static Student student(String firstName, String lastName) {
+        Student student = new Student();
+        student.setStudentIdentifier(new StudentIdentifier());
+        student.setFirstName(firstName);
+        student.setLastName(lastName);
+        student.setProgram("Computer Science");
+        return student;
+    }
+}